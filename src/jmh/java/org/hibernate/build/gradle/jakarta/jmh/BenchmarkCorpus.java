@@ -0,0 +1,235 @@
+package org.hibernate.build.gradle.jakarta.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.hibernate.build.gradle.jakarta.internal.remap.RenameRules;
+
+/**
+ * Text resources, archives and rules used by the benchmarks.
+ *
+ * The sources are read from the directory named by the `jakarta.benchmark.sources` system property
+ * (e.g. a Hibernate ORM checkout), limited to `jakarta.benchmark.maxMegabytes` (300 by default).  When
+ * the property is not set, a synthetic corpus of JPA-heavy sources is generated instead.
+ *
+ * Synthetic archives and class directories are made of generated class files, about half of which
+ * reference `javax.persistence` types.  The real jar is named by the `jakarta.benchmark.jar` system property.
+ *
+ * @author Steve Ebersole
+ */
+public class BenchmarkCorpus {
+	public static final String RULES_PROPERTY = "jakarta.benchmark.rules";
+	public static final String SOURCES_PROPERTY = "jakarta.benchmark.sources";
+	public static final String MAX_MEGABYTES_PROPERTY = "jakarta.benchmark.maxMegabytes";
+	public static final String JAR_PROPERTY = "jakarta.benchmark.jar";
+
+	private static final String[] TEXT_EXTENSIONS = { ".java", ".xml", ".properties" };
+
+	private BenchmarkCorpus() {
+		// disallow direct instantiation
+	}
+
+	public static RenameRules loadRules() {
+		return RenameRules.load( rulesFile(), null, null );
+	}
+
+	public static File rulesFile() {
+		final String rulesPath = System.getProperty( RULES_PROPERTY );
+		if ( rulesPath == null || rulesPath.isEmpty() ) {
+			throw new IllegalStateException( "System property `" + RULES_PROPERTY + "` not set" );
+		}
+		return new File( rulesPath );
+	}
+
+	public static File realJar() {
+		final String jarPath = System.getProperty( JAR_PROPERTY );
+		if ( jarPath == null || jarPath.isEmpty() ) {
+			throw new IllegalStateException( "System property `" + JAR_PROPERTY + "` not set" );
+		}
+		return new File( jarPath );
+	}
+
+	/**
+	 * Generate a jar of (at least) the given size from synthetic class files
+	 */
+	public static void generateJar(File jar, long sizeInBytes) throws IOException {
+		final Random random = new Random( 42 );
+		try ( ZipOutputStream zipStream = new ZipOutputStream( Files.newOutputStream( jar.toPath() ) ) ) {
+			long written = 0;
+			for ( int i = 0; written < sizeInBytes; i++ ) {
+				final byte[] bytes = generateClass( i, random );
+				zipStream.putNextEntry( new ZipEntry( classFileName( i ) ) );
+				zipStream.write( bytes );
+				zipStream.closeEntry();
+				// compressed size is only known once the entry is written; approximate it
+				written += bytes.length * 7 / 10;
+			}
+		}
+	}
+
+	/**
+	 * Generate a directory of loose synthetic class files of (at least) the given total size
+	 */
+	public static void generateClassDirectory(File directory, long sizeInBytes) throws IOException {
+		final Random random = new Random( 42 );
+		long written = 0;
+		for ( int i = 0; written < sizeInBytes; i++ ) {
+			final Path classFile = directory.toPath().resolve( classFileName( i ) );
+			Files.createDirectories( classFile.getParent() );
+			final byte[] bytes = generateClass( i, random );
+			Files.write( classFile, bytes );
+			written += bytes.length;
+		}
+	}
+
+	private static String classFileName(int index) {
+		return "org/hibernate/benchmark/p" + ( index / 500 ) + "/Generated" + index + ".class";
+	}
+
+	/**
+	 * A minimal, valid class file with fields of javax or plain JDK types and some unused constant pool
+	 * padding, roughly the size of a typical entity class
+	 */
+	private static byte[] generateClass(int index, Random random) throws IOException {
+		final boolean javax = index % 2 == 0;
+		final String[] descriptors = javax
+				? new String[] { "Ljavax/persistence/EntityManager;", "Ljavax/persistence/criteria/CriteriaBuilder;", "Ljava/lang/String;" }
+				: new String[] { "Ljava/util/List;", "Ljava/lang/String;", "Ljava/time/Instant;" };
+		final int fieldCount = 4 + random.nextInt( 12 );
+
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream( 4096 );
+		final DataOutputStream out = new DataOutputStream( buffer );
+		out.writeInt( 0xCAFEBABE );
+		out.writeShort( 0 );
+		out.writeShort( 52 );
+
+		// constant pool : this class, super class, a name and descriptor per field and a padding string
+		out.writeShort( 5 + fieldCount * 2 + 1 );
+		writeUtf8( out, classFileName( index ).replace( ".class", "" ) );
+		out.writeByte( 7 );
+		out.writeShort( 1 );
+		writeUtf8( out, "java/lang/Object" );
+		out.writeByte( 7 );
+		out.writeShort( 3 );
+		for ( int i = 0; i < fieldCount; i++ ) {
+			writeUtf8( out, "field" + i );
+			writeUtf8( out, descriptors[ i % descriptors.length ] );
+		}
+		writeUtf8( out, padding( random, 1024 + random.nextInt( 4096 ) ) );
+
+		out.writeShort( 0x0021 );
+		out.writeShort( 2 );
+		out.writeShort( 4 );
+		out.writeShort( 0 );
+
+		out.writeShort( fieldCount );
+		for ( int i = 0; i < fieldCount; i++ ) {
+			out.writeShort( 0x0002 );
+			out.writeShort( 5 + i * 2 );
+			out.writeShort( 6 + i * 2 );
+			out.writeShort( 0 );
+		}
+
+		out.writeShort( 0 );
+		out.writeShort( 0 );
+		out.flush();
+		return buffer.toByteArray();
+	}
+
+	private static void writeUtf8(DataOutputStream out, String value) throws IOException {
+		out.writeByte( 1 );
+		out.writeUTF( value );
+	}
+
+	private static String padding(Random random, int length) {
+		final char[] chars = new char[ length ];
+		for ( int i = 0; i < length; i++ ) {
+			chars[i] = (char) ( 'a' + random.nextInt( 26 ) );
+		}
+		return new String( chars );
+	}
+
+	public static List<byte[]> loadTextResources() throws IOException {
+		final long maxBytes = Long.getLong( MAX_MEGABYTES_PROPERTY, 300L ) * 1024 * 1024;
+
+		final String sourcesPath = System.getProperty( SOURCES_PROPERTY );
+		if ( sourcesPath == null || sourcesPath.isEmpty() ) {
+			return generate( maxBytes );
+		}
+
+		final List<Path> files;
+		try ( Stream<Path> stream = Files.walk( new File( sourcesPath ).toPath() ) ) {
+			files = stream.filter( Files::isRegularFile )
+					.filter( BenchmarkCorpus::isTextResource )
+					.sorted()
+					.collect( Collectors.toList() );
+		}
+
+		final List<byte[]> resources = new ArrayList<>();
+		long total = 0;
+		for ( Path file : files ) {
+			if ( total >= maxBytes ) {
+				break;
+			}
+			final byte[] bytes = Files.readAllBytes( file );
+			resources.add( bytes );
+			total += bytes.length;
+		}
+		return resources;
+	}
+
+	private static boolean isTextResource(Path file) {
+		final String name = file.getFileName().toString().toLowerCase( Locale.ROOT );
+		for ( String extension : TEXT_EXTENSIONS ) {
+			if ( name.endsWith( extension ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<byte[]> generate(long maxBytes) {
+		final String[] lines = {
+				"import javax.persistence.Entity;",
+				"import javax.persistence.criteria.CriteriaBuilder;",
+				"import java.util.List;",
+				"import org.hibernate.annotations.Type;",
+				"@javax.persistence.Table(name = \"some_table\")",
+				"public class SomeEntity implements java.io.Serializable {",
+				"    private List<javax.persistence.Tuple> tuples;",
+				"    // plain comment which mentions nothing interesting at all",
+				"    <persistence-unit name=\"pu\" transaction-type=\"RESOURCE_LOCAL\">",
+				"    javax.persistence.jdbc.url=jdbc:h2:mem:db",
+				"    return session.createQuery( \"select e from SomeEntity e\" ).list();",
+				"}"
+		};
+
+		final Random random = new Random( 42 );
+		final List<byte[]> resources = new ArrayList<>();
+		long total = 0;
+		while ( total < maxBytes ) {
+			final StringBuilder buffer = new StringBuilder( 16 * 1024 );
+			final int lineCount = 50 + random.nextInt( 400 );
+			for ( int i = 0; i < lineCount; i++ ) {
+				buffer.append( lines[ random.nextInt( lines.length ) ] ).append( '\n' );
+			}
+			final byte[] bytes = buffer.toString().getBytes( StandardCharsets.ISO_8859_1 );
+			resources.add( bytes );
+			total += bytes.length;
+		}
+		return resources;
+	}
+}
@@ -0,0 +1,96 @@
+package org.hibernate.build.gradle.jakarta.jmh;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.hibernate.build.gradle.jakarta.internal.remap.RenameRules;
+import org.hibernate.build.gradle.jakarta.internal.remap.StringRemapper;
+import org.hibernate.build.gradle.jakarta.internal.remap.TextRemapper;
+
+/**
+ * Compares ways of applying the rename rules to text resources over the {@link BenchmarkCorpus}:
+ *
+ * * `perRuleReplace` - one rule at a time over each line, the traditional approach
+ * * `decodedString` - decoding each resource and scanning it with {@link StringRemapper}
+ * * `ahoCorasick` - {@link TextRemapper}, a single Aho-Corasick pass over the bytes
+ *
+ * @author Steve Ebersole
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( value = 1, jvmArgsAppend = { "-Xmx4g" } )
+public class TextRemapperBenchmark {
+	private List<byte[]> resources;
+
+	private List<String[]> perRuleRenames;
+	private StringRemapper stringRemapper;
+	private TextRemapper textRemapper;
+
+	@Setup
+	public void setUp() throws IOException {
+		resources = BenchmarkCorpus.loadTextResources();
+
+		final RenameRules rules = BenchmarkCorpus.loadRules();
+		stringRemapper = new StringRemapper( rules );
+		textRemapper = new TextRemapper( stringRemapper );
+
+		perRuleRenames = new ArrayList<>();
+		for ( Map.Entry<String, String> entry : rules.getPackageRenames().entrySet() ) {
+			perRuleRenames.add( new String[] { entry.getKey(), entry.getValue() } );
+			perRuleRenames.add( new String[] { entry.getKey().replace( '.', '/' ), entry.getValue().replace( '.', '/' ) } );
+		}
+	}
+
+	@Benchmark
+	public void perRuleReplace(Blackhole blackhole) throws IOException {
+		for ( byte[] resource : resources ) {
+			final BufferedReader reader = new BufferedReader(
+					new InputStreamReader( new ByteArrayInputStream( resource ), StandardCharsets.ISO_8859_1 )
+			);
+			String line;
+			while ( ( line = reader.readLine() ) != null ) {
+				for ( String[] rename : perRuleRenames ) {
+					line = line.replace( rename[0], rename[1] );
+				}
+				blackhole.consume( line );
+			}
+		}
+	}
+
+	@Benchmark
+	public void decodedString(Blackhole blackhole) {
+		for ( byte[] resource : resources ) {
+			final String text = new String( resource, StandardCharsets.ISO_8859_1 );
+			blackhole.consume( stringRemapper.remapPackages( text ) );
+		}
+	}
+
+	@Benchmark
+	public void ahoCorasick(Blackhole blackhole) {
+		for ( byte[] resource : resources ) {
+			blackhole.consume( textRemapper.remap( resource ) );
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package org.hibernate.build.gradle.jakarta.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.hibernate.build.gradle.jakarta.internal.ToolInvoker;
+import org.hibernate.build.gradle.jakarta.internal.TransformerTool;
+import org.hibernate.build.gradle.jakarta.internal.remap.NativeTransformer;
+import org.hibernate.build.gradle.jakarta.internal.remap.RenameRules;
+
+/**
+ * Compares the ways {@link TransformerTool} can perform a transformation, over archives and
+ * directories of different sizes:
+ *
+ * * `nativeEngine` - the native engine
+ * * `toolInProcess` - the JakartaTransformer tool invoked in the current JVM - `in-process`, and what
+ * `worker` and `batch` modes do inside their JVM
+ * * `toolJavaExec` - the JakartaTransformer tool in a forked JVM (`java-exec`)
+ *
+ * The corpus is one of:
+ *
+ * * `small`, `10mb`, `100mb` - synthetic jars, see {@link BenchmarkCorpus#generateJar}
+ * * `classes` - a directory of loose synthetic class files
+ * * `jar` - the real jar named by the `jakarta.benchmark.jar` system property
+ *
+ * @author Steve Ebersole
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3 )
+@Measurement( iterations = 5 )
+@Fork( value = 1, jvmArgsAppend = { "-Xmx4g" } )
+public class TransformationBenchmark {
+	private static final long MEGABYTE = 1024 * 1024;
+
+	@Param( { "small", "10mb", "100mb", "classes", "jar" } )
+	public String corpus;
+
+	private Path workDirectory;
+	private File source;
+	private File target;
+
+	private File rulesFile;
+	private RenameRules rules;
+	private ToolInvoker toolInvoker;
+
+	@Setup( Level.Trial )
+	public void setUp() throws Exception {
+		workDirectory = Files.createTempDirectory( "jakarta-benchmark" );
+
+		switch ( corpus ) {
+			case "small": {
+				source = workDirectory.resolve( "small.jar" ).toFile();
+				BenchmarkCorpus.generateJar( source, 100 * 1024 );
+				break;
+			}
+			case "10mb": {
+				source = workDirectory.resolve( "10mb.jar" ).toFile();
+				BenchmarkCorpus.generateJar( source, 10 * MEGABYTE );
+				break;
+			}
+			case "100mb": {
+				source = workDirectory.resolve( "100mb.jar" ).toFile();
+				BenchmarkCorpus.generateJar( source, 100 * MEGABYTE );
+				break;
+			}
+			case "classes": {
+				source = workDirectory.resolve( "classes" ).toFile();
+				BenchmarkCorpus.generateClassDirectory( source, 10 * MEGABYTE );
+				break;
+			}
+			case "jar": {
+				source = BenchmarkCorpus.realJar();
+				break;
+			}
+			default: {
+				throw new IllegalArgumentException( "Unknown corpus : " + corpus );
+			}
+		}
+
+		target = workDirectory.resolve( "transformed-" + source.getName() ).toFile();
+
+		rulesFile = BenchmarkCorpus.rulesFile();
+		rules = BenchmarkCorpus.loadRules();
+		// the tool is part of the benchmark classpath
+		toolInvoker = new ToolInvoker( TransformationBenchmark.class.getClassLoader() );
+	}
+
+	@Setup( Level.Invocation )
+	public void deleteTarget() throws IOException {
+		// the JakartaTransformer does not transform anything into an existing directory
+		deleteRecursively( target.toPath() );
+	}
+
+	@TearDown( Level.Trial )
+	public void tearDown() throws IOException {
+		deleteRecursively( workDirectory );
+	}
+
+	@Benchmark
+	public File nativeEngine() {
+		new NativeTransformer( rules ).transform( source, target );
+		return target;
+	}
+
+	@Benchmark
+	public File toolInProcess() {
+		final int rc = toolInvoker.invoke( toolArguments(), new PrintStream( new ByteArrayOutputStream(), true ) );
+		if ( rc != 0 ) {
+			throw new IllegalStateException( "JakartaTransformer returned " + rc );
+		}
+		return target;
+	}
+
+	@Benchmark
+	public File toolJavaExec() throws IOException, InterruptedException {
+		final List<String> command = new ArrayList<>();
+		command.add( new File( new File( System.getProperty( "java.home" ), "bin" ), "java" ).getAbsolutePath() );
+		command.add( "-cp" );
+		command.add( System.getProperty( "java.class.path" ) );
+		command.add( TransformerTool.TOOL_CLI_FQN );
+		command.addAll( toolArguments() );
+
+		final Process process = new ProcessBuilder( command )
+				.redirectErrorStream( true )
+				.redirectOutput( workDirectory.resolve( "tool.log" ).toFile() )
+				.start();
+		final int rc = process.waitFor();
+		if ( rc != 0 ) {
+			throw new IllegalStateException( "JakartaTransformer returned " + rc );
+		}
+		return target;
+	}
+
+	private List<String> toolArguments() {
+		return new ArrayList<>(
+				Arrays.asList(
+						source.getAbsolutePath(),
+						target.getAbsolutePath(),
+						"-q",
+						"-tr",
+						rulesFile.getAbsolutePath()
+				)
+		);
+	}
+
+	private static void deleteRecursively(Path path) throws IOException {
+		if ( ! Files.exists( path ) ) {
+			return;
+		}
+		try ( Stream<Path> stream = Files.walk( path ) ) {
+			stream.sorted( Comparator.reverseOrder() ).forEach( (each) -> each.toFile().delete() );
+		}
+	}
+}
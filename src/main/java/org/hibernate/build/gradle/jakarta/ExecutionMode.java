@@ -0,0 +1,47 @@
+package org.hibernate.build.gradle.jakarta;
+
+import org.hibernate.build.gradle.jakarta.internal.Helper;
+
+/**
+ * How the `JakartaTransformer` tool is executed
+ *
+ * @author Steve Ebersole
+ */
+public enum ExecutionMode {
+	/**
+	 * The tool is run in long-lived Gradle worker processes (process isolation)
+	 * which are reused across tasks and projects in the build.  Transformation
+	 * tasks do not block their task thread while the work executes.  This is
+	 * the default.
+	 */
+	WORKER,
+
+	/**
+	 * The tool is loaded into an isolated, build-scoped ClassLoader and
+	 * invoked directly in the Gradle daemon.
+	 */
+	IN_PROCESS,
+
+	/**
+	 * A new JVM is forked (`project.javaexec`) for every transformation.
+	 * Slower, but useful as a fallback in case a tool version cannot be
+	 * invoked in-process
+	 */
+	JAVA_EXEC,
+
+	/**
+	 * Transformations from all tasks are queued to a build-wide service which runs them in
+	 * the Gradle daemon - the tool is loaded and the rules compiled once, and native engine
+	 * transformations share a thread pool.  Each task waits for its own transformations.
+	 */
+	BATCH;
+
+	/**
+	 * Interpret the given DSL value as an ExecutionMode.  Accepts the enum
+	 * itself or its name in any case, using either `-` or `_` as separator
+	 * (e.g. `in-process`)
+	 */
+	public static ExecutionMode interpret(Object value) {
+		return Helper.interpretEnum( ExecutionMode.class, value, "transformer execution mode" );
+	}
+}
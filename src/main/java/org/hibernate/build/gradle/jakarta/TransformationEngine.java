@@ -0,0 +1,31 @@
+package org.hibernate.build.gradle.jakarta;
+
+import org.hibernate.build.gradle.jakarta.internal.Helper;
+
+/**
+ * The engine used to perform a transformation
+ *
+ * @author Steve Ebersole
+ */
+public enum TransformationEngine {
+	/**
+	 * The `JakartaTransformer` tool, executed according to the configured {@link ExecutionMode}.
+	 * This is the default.
+	 */
+	JAKARTA_TRANSFORMER,
+
+	/**
+	 * The plugin's own engine, which applies the same rename, version and direct rules by
+	 * rewriting class file constant pools and text resources directly
+	 */
+	NATIVE;
+
+	/**
+	 * Interpret the given DSL value as a TransformationEngine.  Accepts the enum
+	 * itself or its name in any case, using either `-` or `_` as separator
+	 * (e.g. `jakarta-transformer`)
+	 */
+	public static TransformationEngine interpret(Object value) {
+		return Helper.interpretEnum( TransformationEngine.class, value, "transformation engine" );
+	}
+}
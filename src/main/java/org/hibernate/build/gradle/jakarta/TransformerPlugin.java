@@ -3,6 +3,7 @@ package org.hibernate.build.gradle.jakarta;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.attributes.Attribute;
 
 import org.hibernate.build.gradle.jakarta.internal.TransformerSpecImpl;
 
@@ -15,6 +16,20 @@ public class TransformerPlugin implements Plugin<Project> {
 	public static final String JAKARTA_TRANSFORMER_TOOL = "jakartaTransformerTool";
 	public static final String JAKARTA_TRANSFORMATION = "jakartaTransformation";
 
+	/**
+	 * Attribute describing the namespace (`javax` or `jakarta`) of an artifact.  Carried by the artifacts
+	 * of the artifact transform - see {@link TransformerSpec#transformArtifacts}
+	 */
+	public static final Attribute<String> NAMESPACE_ATTRIBUTE = Attribute.of( "org.hibernate.jakarta.namespace", String.class );
+	public static final String JAVAX_NAMESPACE = "javax";
+	public static final String JAKARTA_NAMESPACE = "jakarta";
+
+	/**
+	 * Artifact type of the jars produced by the artifact transform.  Only the configurations (and artifact
+	 * views) requesting it are transformed; the jars resolved by any other configuration are left alone
+	 */
+	public static final String JAKARTA_JAR_TYPE = "jakarta-jar";
+
 	public static final String[] IMPLICIT_TOOL_DEPS = new String[] {
 			"org.eclipse.transformer:org.eclipse.transformer:0.2.0",
 			"org.eclipse.transformer:org.eclipse.transformer.cli:0.2.0"
@@ -5,6 +5,8 @@ import org.gradle.api.artifacts.DependencySubstitutions;
 import org.gradle.api.artifacts.ResolutionStrategy;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
 
 import org.hibernate.build.gradle.jakarta.adhoc.DependencyTransformationTask;
 import org.hibernate.build.gradle.jakarta.adhoc.DirectoryTransformationTask;
@@ -61,6 +63,85 @@ public interface TransformerSpec {
 	 */
 	void directRules(Object directRulesFile);
 
+	/**
+	 * How the JakartaTransformer tool should be executed.  Defaults to {@link ExecutionMode#WORKER}
+	 */
+	Property<ExecutionMode> getExecutionMode();
+
+	/**
+	 * Setter for {@link #getExecutionMode()}.  Accepts the enum or its name, e.g. `'java-exec'`
+	 */
+	void executionMode(Object executionMode);
+
+	/**
+	 * The engine used for transformations which do not specify one.  Defaults to
+	 * {@link TransformationEngine#JAKARTA_TRANSFORMER}
+	 */
+	Property<TransformationEngine> getEngine();
+
+	/**
+	 * Setter for {@link #getEngine()}.  Accepts the enum or its name, e.g. `'native'`
+	 */
+	void engine(Object engine);
+
+	/**
+	 * JVM arguments for the processes used to run the tool (worker and `java-exec` modes).
+	 * Worker processes are shared by all transformations using the same tool classpath and JVM arguments.
+	 */
+	ListProperty<String> getToolJvmArgs();
+
+	/**
+	 * Adds to {@link #getToolJvmArgs()}
+	 */
+	void toolJvmArgs(String... jvmArgs);
+
+	/**
+	 * Whether transformation results are stored in, and restored from, the local transformation
+	 * cache in `GRADLE_USER_HOME/caches/jakarta-transformer`, which is shared by all builds on the
+	 * machine.  Defaults to `true`
+	 */
+	Property<Boolean> getLocalCache();
+
+	/**
+	 * Setter for {@link #getLocalCache()}
+	 */
+	void localCache(boolean enabled);
+
+	/**
+	 * Size limit, in megabytes, of the local transformation cache.  The least recently used entries
+	 * are evicted at the end of the build once the limit is exceeded.  The limit is build-wide; the value
+	 * of the first project applying the plugin is used.  Defaults to 1024
+	 */
+	Property<Long> getLocalCacheSizeLimit();
+
+	/**
+	 * Setter for {@link #getLocalCacheSizeLimit()}
+	 */
+	void localCacheSizeLimit(long megabytes);
+
+	/**
+	 * Whether transformed archives are reproducible - entries ordered by name and stamped with a
+	 * fixed time (that of Gradle's own reproducible archives), so that identical inputs always produce
+	 * byte-identical outputs.  Published artifacts are then dated from the latest entry of their source
+	 * jar rather than the build start.  Defaults to `false`
+	 */
+	Property<Boolean> getReproducible();
+
+	/**
+	 * Setter for {@link #getReproducible()}
+	 */
+	void reproducible(boolean enabled);
+
+	/**
+	 * Transform the artifacts resolved by the given configurations (or configuration names) via a
+	 * Gradle artifact transform.  Unlike {@link #dependencyTransformation}, artifacts are transformed
+	 * lazily when the configuration is resolved, once per artifact across the build, and are kept in
+	 * Gradle's transforms cache.
+	 *
+	 * @see TransformerPlugin#NAMESPACE_ATTRIBUTE
+	 */
+	void transformArtifacts(Object... configurations);
+
 	/**
 	 * Configure resolution rules for the resolution of the dependencies, generally to
 	 * apply substitutions
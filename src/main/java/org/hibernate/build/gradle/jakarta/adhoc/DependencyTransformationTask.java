@@ -4,58 +4,120 @@ import javax.inject.Inject;
 import javax.inject.Provider;
 
 import org.gradle.api.DefaultTask;
-import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.Dependency;
-import org.gradle.api.artifacts.ResolvedArtifact;
+import org.gradle.api.file.FileCollection;
 import org.gradle.api.file.RegularFile;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Nested;
 import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
 
-import org.hibernate.build.gradle.jakarta.internal.Helper;
+import org.hibernate.build.gradle.jakarta.TransformationEngine;
+import org.hibernate.build.gradle.jakarta.TransformerSpec;
+import org.hibernate.build.gradle.jakarta.internal.TransformationInputs;
 import org.hibernate.build.gradle.jakarta.internal.TransformerConfig;
+import org.hibernate.build.gradle.jakarta.internal.TransformerTool;
+import org.hibernate.build.gradle.jakarta.internal.jfr.TransformationEvents;
 
 /**
  * @author Steve Ebersole
  */
+@CacheableTask
 public abstract class DependencyTransformationTask extends DefaultTask implements Provider<RegularFile> {
-	private final TransformerConfig transformerConfig;
+	private final TransformationInputs transformationInputs;
 
-	private final Property<Dependency> source;
+	// only needed to resolve `sourceArtifact`; not stored in the configuration cache
+	private final transient Property<Dependency> source;
 	private final RegularFileProperty output;
+	private final Property<TransformationEngine> engine;
+	private final Property<TransformerTool> transformer;
+
+	private final FileCollection sourceArtifact;
 
 	@Inject
 	@SuppressWarnings("UnstableApiUsage")
 	public DependencyTransformationTask(TransformerConfig transformerConfig) {
-		this.transformerConfig = transformerConfig;
+		this.transformationInputs = transformerConfig.transformationInputsAccess();
 
 		source = getProject().getObjects().property( Dependency.class );
 		output = getProject().getObjects().fileProperty();
+		engine = getProject().getObjects().property( TransformationEngine.class );
+		engine.convention( transformerConfig.engineAccess() );
+		transformer = getProject().getObjects().property( TransformerTool.class );
+		transformer.set( transformerConfig.transformerAccess() );
+
+		// resolved in bulk with the other dependency transformations, at the latest when the task graph is
+		// calculated (and stored by the configuration cache)
+		sourceArtifact = getProject().files( transformerConfig.requestDependencyArtifact( getProject(), source ) );
 	}
 
-	@Input
+	/**
+	 * The dependency to transform.  Its resolved artifact is the actual task input
+	 */
+	@Internal
 	public Property<Dependency> getSource() {
 		return source;
 	}
 
+	/**
+	 * The resolved artifact of {@link #getSource()}
+	 */
+	@InputFiles
+	@PathSensitive( PathSensitivity.NAME_ONLY )
+	public FileCollection getSourceArtifact() {
+		return sourceArtifact;
+	}
+
 	@OutputFile
 	public RegularFileProperty getOutput() {
 		return output;
 	}
 
-	@TaskAction
-	public void transformDependency() {
-		final Configuration configuration = getProject().getConfigurations().detachedConfiguration( source.get() );
-		transformerConfig.applyDependencyResolutionStrategy( configuration );
+	/**
+	 * The engine used for this transformation.  Defaults to {@link TransformerSpec#getEngine()}
+	 */
+	@Input
+	public Property<TransformationEngine> getEngine() {
+		return engine;
+	}
+
+	/**
+	 * Setter for {@link #getEngine()}.  Accepts the enum or its name, e.g. `'native'`
+	 */
+	public void engine(Object engine) {
+		this.engine.set( TransformationEngine.interpret( engine ) );
+	}
+
+	/**
+	 * The rule files and tool classpath
+	 */
+	@Nested
+	public TransformationInputs getTransformationInputs() {
+		return transformationInputs;
+	}
 
-		final ResolvedArtifact resolvedArtifact = Helper.extractResolvedArtifact( configuration );
+	@Inject
+	protected abstract WorkerExecutor getWorkerExecutor();
 
-		transformerConfig.getTransformer().transform(
-				resolvedArtifact.getFile(),
-				output.get().getAsFile()
-		);
+	@TaskAction
+	public void transformDependency() {
+		try ( TransformationEvents.Phase ignored = TransformationEvents.beginTask( this ) ) {
+			// identical transformations declared by other projects are performed once
+			transformer.get().transformShared(
+					sourceArtifact.getSingleFile(),
+					output.get().getAsFile(),
+					engine.get(),
+					getWorkerExecutor()
+			);
+		}
 	}
 
 	@Override
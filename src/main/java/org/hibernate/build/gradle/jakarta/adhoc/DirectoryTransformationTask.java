@@ -1,39 +1,85 @@
 package org.hibernate.build.gradle.jakarta.adhoc;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.inject.Provider;
 
 import org.gradle.api.DefaultTask;
 import org.gradle.api.file.Directory;
 import org.gradle.api.file.DirectoryProperty;
-import org.gradle.api.file.RegularFile;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.FileType;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Nested;
 import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+import org.gradle.workers.WorkerExecutor;
 
+import org.hibernate.build.gradle.jakarta.TransformationEngine;
+import org.hibernate.build.gradle.jakarta.TransformationException;
+import org.hibernate.build.gradle.jakarta.TransformerSpec;
+import org.hibernate.build.gradle.jakarta.internal.Helper;
+import org.hibernate.build.gradle.jakarta.internal.TransformationInputs;
 import org.hibernate.build.gradle.jakarta.internal.TransformerConfig;
+import org.hibernate.build.gradle.jakarta.internal.TransformerTool;
+import org.hibernate.build.gradle.jakarta.internal.jfr.TransformationEvents;
 
 /**
- * Directory based transformation
+ * Directory based transformation.
+ *
+ * Incremental - only added and modified files are transformed, and the outputs of removed files are
+ * deleted.  A change to the rules, the tool classpath or the engine transforms the whole directory again.
+ *
+ * With the JakartaTransformer tool, the changed files are staged and transformed as a directory, so the tool
+ * names their outputs as it would in a full transformation (its default rules included).  Since only the tool
+ * knows the output path of a source file, removing a file transforms the whole directory again.
+ *
+ * With the native engine, only files whose content changes are written; the others are copied from the
+ * source or, when it is within this project's build directory, hardlinked.
  *
  * @author Steve Ebersole
  */
+@CacheableTask
 public abstract class DirectoryTransformationTask extends DefaultTask implements Provider<Directory> {
-	private final TransformerConfig config;
+	private final TransformationInputs transformationInputs;
+	private final Property<TransformerTool> transformer;
 
 	private final DirectoryProperty source;
 	private final DirectoryProperty output;
+	private final Property<TransformationEngine> engine;
 
 	@Inject
 	@SuppressWarnings("UnstableApiUsage")
 	public DirectoryTransformationTask(TransformerConfig config) {
-		this.config = config;
+		this.transformationInputs = config.transformationInputsAccess();
 
 		source = getProject().getObjects().directoryProperty();
 		output = getProject().getObjects().directoryProperty();
+		engine = getProject().getObjects().property( TransformationEngine.class );
+		engine.convention( config.engineAccess() );
+		transformer = getProject().getObjects().property( TransformerTool.class );
+		transformer.set( config.transformerAccess() );
 	}
 
+	@Incremental
 	@InputDirectory
+	@PathSensitive( PathSensitivity.RELATIVE )
 	public DirectoryProperty getSource() {
 		return source;
 	}
@@ -43,9 +89,128 @@ public abstract class DirectoryTransformationTask extends DefaultTask implements
 		return output;
 	}
 
+	/**
+	 * The engine used for this transformation.  Defaults to {@link TransformerSpec#getEngine()}
+	 */
+	@Input
+	public Property<TransformationEngine> getEngine() {
+		return engine;
+	}
+
+	/**
+	 * Setter for {@link #getEngine()}.  Accepts the enum or its name, e.g. `'native'`
+	 */
+	public void engine(Object engine) {
+		this.engine.set( TransformationEngine.interpret( engine ) );
+	}
+
+	/**
+	 * The rule files and tool classpath
+	 */
+	@Nested
+	public TransformationInputs getTransformationInputs() {
+		return transformationInputs;
+	}
+
+	@Inject
+	protected abstract WorkerExecutor getWorkerExecutor();
+
+	@Inject
+	protected abstract FileSystemOperations getFileSystemOperations();
+
 	@TaskAction
-	public void transformDirectory() {
-		config.getTransformer().transform( source.get(), output.get() );
+	public void transformDirectory(InputChanges inputChanges) {
+		try ( TransformationEvents.Phase ignored = TransformationEvents.beginTask( this ) ) {
+			final TransformerTool transformer = this.transformer.get();
+
+			if ( ! inputChanges.isIncremental() ) {
+				transformFully( transformer );
+				return;
+			}
+
+			if ( engine.get() != TransformationEngine.NATIVE ) {
+				transformStaged( transformer, inputChanges );
+				return;
+			}
+
+			final File outputDirectory = output.get().getAsFile();
+			final UnaryOperator<String> transformedPaths = transformer.transformedPathResolver();
+
+			for ( FileChange change : inputChanges.getFileChanges( source ) ) {
+				if ( change.getFileType() == FileType.DIRECTORY ) {
+					continue;
+				}
+
+				final File target = new File( outputDirectory, transformedPaths.apply( change.getNormalizedPath() ) );
+				// remove the stale output - the JakartaTransformer will not overwrite it anyway
+				target.delete();
+
+				if ( change.getChangeType() == ChangeType.REMOVED ) {
+					getLogger().debug( "Removed transformation output : {}", target );
+					continue;
+				}
+
+				target.getParentFile().mkdirs();
+				transformer.transformUncached( change.getFile(), target, engine.get(), getWorkerExecutor() );
+			}
+		}
+	}
+
+	private void transformFully(TransformerTool transformer) {
+		// the JakartaTransformer does not transform anything into an existing directory
+		getFileSystemOperations().delete( (spec) -> spec.delete( output ) );
+		transformer.transform( source.get(), output.get(), engine.get(), getWorkerExecutor() );
+	}
+
+	/**
+	 * Incremental transformation with the JakartaTransformer tool - the changed files are copied to a staging
+	 * directory, which the tool transforms, and its output is then copied over the output directory
+	 */
+	private void transformStaged(TransformerTool transformer, InputChanges inputChanges) {
+		final File stagingDirectory = getTemporaryDir();
+		final File stagedSource = new File( stagingDirectory, "source" );
+		final File stagedOutput = new File( stagingDirectory, "output" );
+		getFileSystemOperations().delete( (spec) -> spec.delete( stagedSource, stagedOutput ) );
+
+		boolean staged = false;
+		try {
+			for ( FileChange change : inputChanges.getFileChanges( source ) ) {
+				if ( change.getFileType() == FileType.DIRECTORY ) {
+					continue;
+				}
+
+				if ( change.getChangeType() == ChangeType.REMOVED ) {
+					getLogger().info( "{} removed; transforming the whole directory", change.getNormalizedPath() );
+					transformFully( transformer );
+					return;
+				}
+
+				final Path stagedFile = stagedSource.toPath().resolve( change.getNormalizedPath() );
+				Files.createDirectories( stagedFile.getParent() );
+				Helper.transfer( change.getFile().toPath(), stagedFile );
+				staged = true;
+			}
+
+			if ( ! staged ) {
+				return;
+			}
+
+			transformer.transformUncached( stagedSource, stagedOutput, engine.get(), getWorkerExecutor() );
+			getWorkerExecutor().await();
+
+			final Path outputDirectory = output.get().getAsFile().toPath();
+			final Path stagedOutputDirectory = stagedOutput.toPath();
+			try ( Stream<Path> files = Files.walk( stagedOutputDirectory ) ) {
+				for ( Path file : files.filter( Files::isRegularFile ).collect( Collectors.toList() ) ) {
+					final Path target = outputDirectory.resolve( stagedOutputDirectory.relativize( file ).toString() );
+					Files.createDirectories( target.getParent() );
+					Files.copy( file, target, StandardCopyOption.REPLACE_EXISTING );
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new TransformationException( "Unable to stage changed files of " + source.get().getAsFile().getAbsolutePath(), e );
+		}
 	}
 
 	@Override
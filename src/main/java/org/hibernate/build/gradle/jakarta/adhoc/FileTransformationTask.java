@@ -1,36 +1,58 @@
 package org.hibernate.build.gradle.jakarta.adhoc;
 
 import javax.inject.Inject;
-import javax.inject.Provider;
 
 import org.gradle.api.DefaultTask;
 import org.gradle.api.file.RegularFile;
 import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Nested;
 import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
 
+import org.hibernate.build.gradle.jakarta.TransformationEngine;
+import org.hibernate.build.gradle.jakarta.TransformerSpec;
+import org.hibernate.build.gradle.jakarta.internal.TransformationInputs;
 import org.hibernate.build.gradle.jakarta.internal.TransformerConfig;
+import org.hibernate.build.gradle.jakarta.internal.TransformerTool;
+import org.hibernate.build.gradle.jakarta.internal.jfr.TransformationEvents;
 
 /**
  * @author Steve Ebersole
  */
+@CacheableTask
 public abstract class FileTransformationTask extends DefaultTask {
-	private final TransformerConfig transformerConfig;
+	private final TransformationInputs transformationInputs;
+	private final Property<TransformerTool> transformer;
 
 	private final RegularFileProperty source;
 	private final RegularFileProperty output;
+	private final Property<TransformationEngine> engine;
 
 	@Inject
 	@SuppressWarnings("UnstableApiUsage")
 	public FileTransformationTask(TransformerConfig transformerConfig) {
-		this.transformerConfig = transformerConfig;
+		this.transformationInputs = transformerConfig.transformationInputsAccess();
 
 		source = getProject().getObjects().fileProperty();
 		output = getProject().getObjects().fileProperty();
+		engine = getProject().getObjects().property( TransformationEngine.class );
+		engine.convention( transformerConfig.engineAccess() );
+		transformer = getProject().getObjects().property( TransformerTool.class );
+		transformer.set( transformerConfig.transformerAccess() );
 	}
 
+	/**
+	 * The file to transform.  Only its name matters - it determines how the file is handled
+	 */
 	@InputFile
+	@PathSensitive( PathSensitivity.NAME_ONLY )
 	public RegularFileProperty getSource() {
 		return source;
 	}
@@ -40,8 +62,36 @@ public abstract class FileTransformationTask extends DefaultTask {
 		return output;
 	}
 
+	/**
+	 * The engine used for this transformation.  Defaults to {@link TransformerSpec#getEngine()}
+	 */
+	@Input
+	public Property<TransformationEngine> getEngine() {
+		return engine;
+	}
+
+	/**
+	 * Setter for {@link #getEngine()}.  Accepts the enum or its name, e.g. `'native'`
+	 */
+	public void engine(Object engine) {
+		this.engine.set( TransformationEngine.interpret( engine ) );
+	}
+
+	/**
+	 * The rule files and tool classpath
+	 */
+	@Nested
+	public TransformationInputs getTransformationInputs() {
+		return transformationInputs;
+	}
+
+	@Inject
+	protected abstract WorkerExecutor getWorkerExecutor();
+
 	@TaskAction
 	public void transformFile() {
-		transformerConfig.getTransformer().transform( source.get(), output.get() );
+		try ( TransformationEvents.Phase ignored = TransformationEvents.beginTask( this ) ) {
+			transformer.get().transform( source.get(), output.get(), engine.get(), getWorkerExecutor() );
+		}
 	}
 }
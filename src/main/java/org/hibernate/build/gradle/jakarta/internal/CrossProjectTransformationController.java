@@ -1,60 +1,87 @@
 package org.hibernate.build.gradle.jakarta.internal;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.gradle.BuildAdapter;
+import org.gradle.api.Action;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
 import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.DependencySubstitution;
+import org.gradle.api.artifacts.DependencySubstitutions;
+import org.gradle.api.artifacts.component.ComponentSelector;
+import org.gradle.api.artifacts.component.ProjectComponentSelector;
 import org.gradle.api.invocation.Gradle;
+import org.gradle.api.plugins.ExtensionAware;
+import org.gradle.api.plugins.ExtraPropertiesExtension;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.api.tasks.TaskProvider;
 
 import static org.hibernate.build.gradle.jakarta.shadow.ShadowTestSpec.SHADOW_TEST_JAVA_TASK;
 import static org.hibernate.build.gradle.jakarta.shadow.ShadowTestSpec.SHADOW_TEST_RESOURCES_TASK;
 
 /**
- * Handles details of transformation which need to operate across all projects
+ * Handles details of transformation which need to operate across all projects.  A build service
+ * shared by every project applying the plugin.
+ *
+ * The source -> shadow project mapping is a single substitution rule (a lookup in the mapping) added
+ * once to each configuration; the user's {@link Substitutions} are likewise applied at most once
+ * per configuration.  What has been applied to a configuration is kept on the configuration itself
+ * (as an extra property), so the service holds no reference to configurations.  All state is safe
+ * for projects configured in parallel.
  *
  * @author Steve Ebersole
  */
-public class CrossProjectTransformationController {
-	public static final String EXT_NAME = "jakarta-transformer-controller";
-
-	public static CrossProjectTransformationController apply(Project project) {
-		final Project rootProject = project.getRootProject();
-		final Object byName = rootProject.getExtensions().findByName( EXT_NAME );
-		if ( byName != null ) {
-			return (CrossProjectTransformationController) byName;
-		}
+public abstract class CrossProjectTransformationController
+		implements BuildService<BuildServiceParameters.None> {
+	public static final String REGISTRATION_NAME = "jakartaTransformerController";
+
+	private static final String APPLIED_SUBSTITUTIONS = "jakartaTransformerAppliedSubstitutions";
+
+	private final List<Substitutions> substitutions = new CopyOnWriteArrayList<>();
+	private final Map<String, String> shadowedProjectPaths = new ConcurrentHashMap<>();
+	private final Queue<ProjectDependencyCallbackHandler> dependencyCallbackHandlers = new ConcurrentLinkedQueue<>();
 
-		final CrossProjectTransformationController controller = new CrossProjectTransformationController( rootProject );
-		rootProject.getExtensions().add( EXT_NAME, controller );
+	private final Action<DependencySubstitutions> projectSubstitutionRule = (dependencySubstitutions) -> dependencySubstitutions.all(
+			(dependencySubstitution) -> substituteShadowedProject( dependencySubstitutions, dependencySubstitution )
+	);
+
+	private final AtomicBoolean initialized = new AtomicBoolean();
+
+	public static Provider<CrossProjectTransformationController> register(Project project) {
+		final Provider<CrossProjectTransformationController> controller = project.getGradle().getSharedServices().registerIfAbsent(
+				REGISTRATION_NAME,
+				CrossProjectTransformationController.class,
+				(spec) -> {}
+		);
+		controller.get().initialize( project.getGradle() );
 		return controller;
 	}
 
-	private final List<Substitutions> substitutions = new ArrayList<>();
-	private final Map<Project, Project> shadowedProjectMap = new HashMap<>();
-	private final ProjectDependencyCallbackManager dependencyCallbackManager;
-
-	public CrossProjectTransformationController(Project rootProject) {
-		dependencyCallbackManager = new ProjectDependencyCallbackManager();
-
-		rootProject.getGradle().addBuildListener(
-				new BuildAdapter() {
-					@Override
-					public void projectsEvaluated(Gradle gradle) {
-						dependencyCallbackManager.handleProjectDependencies();
-
-						shadowedProjectMap.forEach(
-								(source, shadowed) -> shadowed.getConfigurations().all(
-										(configuration) -> substitutions.forEach(
-												(substitution) -> substitution.applySubstitutions( configuration.getResolutionStrategy() )
-										)
-								)
-						);
-					}
+	private void initialize(Gradle gradle) {
+		if ( ! initialized.compareAndSet( false, true ) ) {
+			return;
+		}
+
+		// not a `BuildListener` - registering those is unsupported with the configuration cache
+		gradle.projectsEvaluated(
+				(evaluated) -> {
+					final Project rootProject = evaluated.getRootProject();
+					dependencyCallbackHandlers.forEach( (handler) -> handler.handle( rootProject ) );
+
+					shadowedProjectPaths.values().forEach(
+							(shadowedProjectPath) -> rootProject.project( shadowedProjectPath )
+									.getConfigurations()
+									.all( this::applyDependencyResolutionStrategy )
+					);
 				}
 		);
 	}
@@ -64,65 +91,105 @@ public class CrossProjectTransformationController {
 	}
 
 	public void registerShadowedProject(Project sourceProject, Project shadowProject) {
-		shadowedProjectMap.put( sourceProject, shadowProject );
-		addSubstitutions(
-				(resolutionStrategy) -> resolutionStrategy.dependencySubstitution(
-						(substitutions) -> substitutions
-								.substitute( substitutions.project( sourceProject.getPath() ) )
-								.with( substitutions.project( shadowProject.getPath() ) )
-				)
-		);
+		shadowedProjectPaths.put( sourceProject.getPath(), shadowProject.getPath() );
 	}
 
+	/**
+	 * Apply the project substitution rule and any {@link Substitutions} not yet applied to the configuration
+	 */
 	public void applyDependencyResolutionStrategy(Configuration configuration) {
-		for ( Substitutions substitution : substitutions ) {
-			substitution.applySubstitutions( configuration.getResolutionStrategy() );
+		final AppliedSubstitutions applied = appliedSubstitutions( configuration );
+
+		synchronized ( applied ) {
+			if ( ! applied.projectSubstitutionRule ) {
+				applied.projectSubstitutionRule = true;
+				configuration.getResolutionStrategy().dependencySubstitution( projectSubstitutionRule );
+			}
+
+			// counted before each is applied, so that a `Substitutions` which (indirectly) applies the
+			// resolution strategy to the same configuration again does not apply itself twice
+			final int registered = substitutions.size();
+			while ( applied.count < registered ) {
+				final Substitutions next = substitutions.get( applied.count++ );
+				next.applySubstitutions( configuration.getResolutionStrategy() );
+			}
 		}
 	}
 
-	public Project getShadowedProject(Project sourceProject) {
-		return shadowedProjectMap.get( sourceProject );
-	}
+	private static AppliedSubstitutions appliedSubstitutions(Configuration configuration) {
+		if ( ! ( configuration instanceof ExtensionAware ) ) {
+			// nowhere to keep it - only the case for configurations applied to once
+			return new AppliedSubstitutions();
+		}
 
-	public void registerProjectDependencies(Project targetProject, List<Project> dependencyProjects) {
-		dependencyCallbackManager.registerCallback( targetProject, dependencyProjects );
+		final ExtraPropertiesExtension extraProperties = ( (ExtensionAware) configuration ).getExtensions().getExtraProperties();
+		synchronized ( configuration ) {
+			if ( extraProperties.has( APPLIED_SUBSTITUTIONS ) ) {
+				return (AppliedSubstitutions) extraProperties.get( APPLIED_SUBSTITUTIONS );
+			}
+
+			final AppliedSubstitutions applied = new AppliedSubstitutions();
+			extraProperties.set( APPLIED_SUBSTITUTIONS, applied );
+			return applied;
+		}
 	}
 
-	private class ProjectDependencyCallbackManager {
-		private final List<ProjectDependencyCallbackHandler> handlers = new ArrayList<>();
+	/**
+	 * What has been applied to a configuration
+	 */
+	private static class AppliedSubstitutions {
+		private boolean projectSubstitutionRule;
+		private int count;
+	}
 
-		public ProjectDependencyCallbackManager() {
+	private void substituteShadowedProject(
+			DependencySubstitutions dependencySubstitutions,
+			DependencySubstitution dependencySubstitution) {
+		final ComponentSelector requested = dependencySubstitution.getRequested();
+		if ( ! ( requested instanceof ProjectComponentSelector ) ) {
+			return;
 		}
 
-		private void registerCallback(Project targetProject, List<Project> dependedOnProjects) {
-			handlers.add( new ProjectDependencyCallbackHandler( targetProject, dependedOnProjects ) );
+		final String shadowedProjectPath = shadowedProjectPaths.get( ( (ProjectComponentSelector) requested ).getProjectPath() );
+		if ( shadowedProjectPath != null ) {
+			dependencySubstitution.useTarget( dependencySubstitutions.project( shadowedProjectPath ) );
 		}
+	}
 
-		private void handleProjectDependencies() {
-			handlers.forEach( ProjectDependencyCallbackHandler::handle );
-		}
+	/**
+	 * The path of the shadow project for the given source project, or null if it is not shadowed
+	 */
+	public String getShadowedProjectPath(String sourceProjectPath) {
+		return shadowedProjectPaths.get( sourceProjectPath );
+	}
 
+	public void registerProjectDependencies(Project targetProject, List<Project> dependencyProjects) {
+		final List<String> dependedOnProjectPaths = new ArrayList<>( dependencyProjects.size() );
+		dependencyProjects.forEach( (dependencyProject) -> dependedOnProjectPaths.add( dependencyProject.getPath() ) );
+		dependencyCallbackHandlers.add( new ProjectDependencyCallbackHandler( targetProject.getPath(), dependedOnProjectPaths ) );
 	}
 
 	private class ProjectDependencyCallbackHandler {
-		private final Project project;
-		private final List<Project> dependedOnProjects;
+		private final String projectPath;
+		private final List<String> dependedOnProjectPaths;
 
-		public ProjectDependencyCallbackHandler(Project project, List<Project> dependedOnProjects) {
-			this.project = project;
-			this.dependedOnProjects = dependedOnProjects;
+		public ProjectDependencyCallbackHandler(String projectPath, List<String> dependedOnProjectPaths) {
+			this.projectPath = projectPath;
+			this.dependedOnProjectPaths = dependedOnProjectPaths;
 		}
 
-		private void handle() {
-			for ( Project dependedOnProject : dependedOnProjects ) {
+		private void handle(Project rootProject) {
+			final Project project = rootProject.project( projectPath );
+
+			for ( String dependedOnProjectPath : dependedOnProjectPaths ) {
 				// We have:
 				// 		1) `project` is shadowed
 				//		2) `dependedOnProject` is a test dependency
 
-				final Project shadowedDependencyVariant = shadowedProjectMap.get( dependedOnProject );
-				if ( shadowedDependencyVariant == null ) {
+				final String shadowedDependencyVariantPath = shadowedProjectPaths.get( dependedOnProjectPath );
+				if ( shadowedDependencyVariantPath == null ) {
 					// `dependedOnProject` does not have a shadowed variant
-					break;
+					continue;
 				}
 
 				// `dependedOnProject` -> `shadowedDependencyVariant` resolution is already
@@ -131,13 +198,16 @@ public class CrossProjectTransformationController {
 				// however, Gradle does not understand this relationship in terms of task-dependencies.
 				// we need to configure that  manually
 
-				final Task dependencyAssembleTask = shadowedDependencyVariant.getTasks().getByName( "assemble" );
-
-				final Task shadowTestJavaTask = project.getTasks().getByName( SHADOW_TEST_JAVA_TASK );
-				final Task shadowTestResourcesTask = project.getTasks().getByName( SHADOW_TEST_RESOURCES_TASK );
+				final TaskProvider<Task> dependencyAssembleTask = rootProject.project( shadowedDependencyVariantPath )
+						.getTasks()
+						.named( "assemble" );
 
-				shadowTestJavaTask.dependsOn( dependencyAssembleTask );
-				shadowTestResourcesTask.dependsOn( dependencyAssembleTask );
+				project.getTasks().named( SHADOW_TEST_JAVA_TASK ).configure(
+						(shadowTestJavaTask) -> shadowTestJavaTask.dependsOn( dependencyAssembleTask )
+				);
+				project.getTasks().named( SHADOW_TEST_RESOURCES_TASK ).configure(
+						(shadowTestResourcesTask) -> shadowTestResourcesTask.dependsOn( dependencyAssembleTask )
+				);
 			}
 		}
 	}
@@ -0,0 +1,308 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.ArtifactCollection;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ConfigurationContainer;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencyArtifact;
+import org.gradle.api.artifacts.ModuleDependency;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.result.ResolvedArtifactResult;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import org.hibernate.build.gradle.jakarta.TransformationException;
+import org.hibernate.build.gradle.jakarta.internal.jfr.TransformationEvents;
+
+/**
+ * Resolves the artifacts of the dependencies being transformed, in bulk.
+ *
+ * Every dependency transformation {@linkplain #request requests} its artifact (including the
+ * `sources` / `javadoc` variants of shadowed dependencies) as it is configured.  The first time an
+ * artifact of a project is needed, all the pending requests of that project are resolved together -
+ * non-transitively, through a single lenient `ArtifactView` (Gradle downloads the artifacts of a view
+ * in parallel) - and each request is handed its file.  Requests made after that are resolved together
+ * the next time an artifact is needed.
+ *
+ * Passes never mix projects: each is resolved through the requesting project's configurations, with
+ * its repositories and its resolution strategy, so the result does not depend on which project
+ * happened to request first.
+ *
+ * Requests for different versions of the same module are resolved in separate passes, so conflict
+ * resolution cannot change them.  A request the bulk pass could not satisfy (e.g. a repository only
+ * declared by the requesting project) is resolved on its own, failing as usual if it cannot be.
+ *
+ * The number of passes and the time spent are logged at `--info` when the build finishes.
+ *
+ * @author Steve Ebersole
+ */
+public abstract class DependencyArtifactService
+		implements BuildService<BuildServiceParameters.None>, AutoCloseable {
+	public static final String REGISTRATION_NAME = "jakartaTransformerDependencyArtifacts";
+
+	private static final Logger log = Logging.getLogger( DependencyArtifactService.class );
+
+	private final List<Request> pending = new ArrayList<>();
+	private final Map<String, Map<String, File>> resolvedByProject = new HashMap<>();
+
+	private int resolvedCount;
+	private int passCount;
+	private int individualCount;
+	private long resolutionNanos;
+
+	public static Provider<DependencyArtifactService> register(Project project) {
+		return project.getGradle().getSharedServices().registerIfAbsent(
+				REGISTRATION_NAME,
+				DependencyArtifactService.class,
+				(spec) -> {}
+		);
+	}
+
+	/**
+	 * Request the artifact of the given dependency, to be resolved with all other pending requests
+	 *
+	 * @return The artifact.  Querying it triggers the resolution
+	 */
+	public Provider<File> request(Project project, Provider<Dependency> dependency, TransformerConfig transformerConfig) {
+		final Request request = new Request(
+				dependency,
+				project.getConfigurations(),
+				transformerConfig,
+				project.getPath()
+		);
+		synchronized ( this ) {
+			pending.add( request );
+		}
+		return project.provider( () -> resolve( request ) );
+	}
+
+	private synchronized File resolve(Request request) {
+		if ( request.file != null ) {
+			return request.file;
+		}
+
+		if ( pending.contains( request ) ) {
+			resolvePending( request.projectPath );
+		}
+
+		request.file = resolvedByProject.getOrDefault( request.projectPath, Collections.emptyMap() ).get( request.key() );
+		if ( request.file == null ) {
+			request.file = resolveIndividually( request );
+		}
+		return request.file;
+	}
+
+	private void resolvePending(String projectPath) {
+		final List<Request> requests = new ArrayList<>();
+		for ( Request request : pending ) {
+			if ( request.projectPath.equals( projectPath ) && request.dependency.isPresent() ) {
+				requests.add( request );
+			}
+		}
+		pending.removeAll( requests );
+
+		for ( List<Request> pass : partition( requests ) ) {
+			resolvePass( pass );
+		}
+	}
+
+	/**
+	 * Split the requests so that no pass contains two versions of the same module
+	 */
+	private static List<List<Request>> partition(List<Request> requests) {
+		final List<List<Request>> passes = new ArrayList<>();
+		final List<Map<String, String>> passVersions = new ArrayList<>();
+
+		for ( Request request : requests ) {
+			final Dependency dependency = request.dependency.get();
+			final String module = dependency.getGroup() + ":" + dependency.getName();
+
+			int index = 0;
+			while ( index < passes.size() ) {
+				final String version = passVersions.get( index ).get( module );
+				if ( version == null || version.equals( dependency.getVersion() ) ) {
+					break;
+				}
+				index++;
+			}
+
+			if ( index == passes.size() ) {
+				passes.add( new ArrayList<>() );
+				passVersions.add( new HashMap<>() );
+			}
+			passes.get( index ).add( request );
+			passVersions.get( index ).put( module, dependency.getVersion() );
+		}
+
+		return passes;
+	}
+
+	/**
+	 * Resolve requests, all of the same project, through that project's configurations
+	 */
+	private void resolvePass(List<Request> requests) {
+		final Request first = requests.get( 0 );
+		final Dependency[] dependencies = new Dependency[ requests.size() ];
+		for ( int i = 0; i < requests.size(); i++ ) {
+			dependencies[i] = requests.get( i ).dependency.get();
+		}
+
+		final long start = System.nanoTime();
+		try ( TransformationEvents.Phase phase = TransformationEvents.begin( TransformationEvents.RESOLVE, first.projectPath, null ) ) {
+			phase.detail( requests.size() + " dependencies" );
+
+			final Configuration configuration = first.configurations.detachedConfiguration( dependencies );
+			configuration.setTransitive( false );
+			first.transformerConfig.applyDependencyResolutionStrategy( configuration );
+
+			final ArtifactCollection artifacts = configuration.getIncoming()
+					.artifactView( (view) -> view.lenient( true ) )
+					.getArtifacts();
+
+			final Map<String, List<File>> componentFiles = new HashMap<>();
+			for ( ResolvedArtifactResult artifact : artifacts ) {
+				final ComponentIdentifier componentIdentifier = artifact.getId().getComponentIdentifier();
+				if ( componentIdentifier instanceof ModuleComponentIdentifier ) {
+					final ModuleComponentIdentifier moduleIdentifier = (ModuleComponentIdentifier) componentIdentifier;
+					componentFiles.computeIfAbsent(
+							moduleIdentifier.getGroup() + ":" + moduleIdentifier.getModule() + ":" + moduleIdentifier.getVersion(),
+							(k) -> new ArrayList<>()
+					).add( artifact.getFile() );
+				}
+			}
+
+			final Map<String, File> resolved = resolvedByProject.computeIfAbsent( first.projectPath, (k) -> new HashMap<>() );
+			for ( Request request : requests ) {
+				final File file = selectArtifact( request.dependency.get(), request.classifier(), componentFiles );
+				if ( file != null ) {
+					resolved.put( request.key(), file );
+					resolvedCount++;
+				}
+			}
+
+			artifacts.getFailures().forEach(
+					(failure) -> log.info( "Bulk resolution of dependency artifacts : {}", failure.getMessage() )
+			);
+		}
+		finally {
+			resolutionNanos += System.nanoTime() - start;
+			passCount++;
+		}
+	}
+
+	/**
+	 * The artifact of the (Maven-style named) files of the dependency's component matching the classifier
+	 */
+	private static File selectArtifact(Dependency dependency, String classifier, Map<String, List<File>> componentFiles) {
+		final List<File> files = componentFiles.get( dependency.getGroup() + ":" + dependency.getName() + ":" + dependency.getVersion() );
+		if ( files == null ) {
+			return null;
+		}
+
+		final String baseName = dependency.getName() + "-" + dependency.getVersion();
+		final String expectedName = classifier == null ? baseName + "." : baseName + "-" + classifier + ".";
+		for ( File file : files ) {
+			if ( file.getName().startsWith( expectedName ) ) {
+				return file;
+			}
+		}
+		return null;
+	}
+
+	private File resolveIndividually(Request request) {
+		final Dependency dependency = request.dependency.get();
+
+		final long start = System.nanoTime();
+		try ( TransformationEvents.Phase phase = TransformationEvents.begin( TransformationEvents.RESOLVE, request.projectPath, null ) ) {
+			final Configuration configuration = request.configurations.detachedConfiguration( dependency );
+			request.transformerConfig.applyDependencyResolutionStrategy( configuration );
+
+			final File artifact = Helper.extractResolvedArtifact( configuration ).getFile();
+			phase.detail( request.key() ).output( artifact );
+			return artifact;
+		}
+		catch (RuntimeException e) {
+			throw new TransformationException( "Unable to resolve dependency artifact " + request.key(), e );
+		}
+		finally {
+			resolutionNanos += System.nanoTime() - start;
+			individualCount++;
+		}
+	}
+
+	/**
+	 * The `group:name:version[:classifier]` coordinates of the dependency
+	 */
+	static String coordinates(Dependency dependency) {
+		final String classifier = classifier( dependency );
+		return dependency.getGroup() + ":" + dependency.getName() + ":" + dependency.getVersion()
+				+ ( classifier == null ? "" : ":" + classifier );
+	}
+
+	private static String classifier(Dependency dependency) {
+		if ( dependency instanceof ModuleDependency ) {
+			for ( DependencyArtifact artifact : ( (ModuleDependency) dependency ).getArtifacts() ) {
+				if ( artifact.getClassifier() != null ) {
+					return artifact.getClassifier();
+				}
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void close() {
+		if ( passCount == 0 && individualCount == 0 ) {
+			return;
+		}
+
+		log.info(
+				"Jakarta dependency artifacts : {} resolved in {} bulk pass(es), {} individually; {} ms",
+				resolvedCount,
+				passCount,
+				individualCount,
+				TimeUnit.NANOSECONDS.toMillis( resolutionNanos )
+		);
+	}
+
+	private static class Request {
+		private final Provider<Dependency> dependency;
+		private final ConfigurationContainer configurations;
+		private final TransformerConfig transformerConfig;
+		private final String projectPath;
+
+		private File file;
+
+		private Request(
+				Provider<Dependency> dependency,
+				ConfigurationContainer configurations,
+				TransformerConfig transformerConfig,
+				String projectPath) {
+			this.dependency = dependency;
+			this.configurations = configurations;
+			this.transformerConfig = transformerConfig;
+			this.projectPath = projectPath;
+		}
+
+		private String classifier() {
+			return DependencyArtifactService.classifier( dependency.get() );
+		}
+
+		private String key() {
+			return coordinates( dependency.get() );
+		}
+	}
+}
@@ -1,5 +1,12 @@
 package org.hibernate.build.gradle.jakarta.internal;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
 import java.util.Set;
 import java.util.function.Consumer;
 
@@ -11,9 +18,13 @@ import org.gradle.api.artifacts.ResolvedArtifact;
 import org.gradle.api.artifacts.ResolvedConfiguration;
 import org.gradle.api.artifacts.ResolvedDependency;
 import org.gradle.api.artifacts.dsl.DependencyHandler;
+import org.gradle.api.file.FileSystemLocation;
 import org.gradle.api.plugins.JavaPluginConvention;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.SourceSetContainer;
 
+import org.hibernate.build.gradle.jakarta.TransformationException;
+
 /**
  * @author Steve Ebersole
  */
@@ -53,6 +64,67 @@ public class Helper {
 		return moduleArtifacts.iterator().next();
 	}
 
+	/**
+	 * The file referenced by the provider, or null if it is not set
+	 */
+	public static File asFile(Provider<? extends FileSystemLocation> provider) {
+		return provider.isPresent() ? provider.get().getAsFile() : null;
+	}
+
+	/**
+	 * Hardlink the source file to the target, falling back to a {@linkplain #transfer copy} (e.g. across
+	 * file systems).  Whatever later writes to the target must replace it rather than write through it
+	 */
+	public static void linkOrCopy(Path source, Path target) throws IOException {
+		Files.createDirectories( target.toAbsolutePath().getParent() );
+		Files.deleteIfExists( target );
+		try {
+			Files.createLink( target, source );
+		}
+		catch (IOException | UnsupportedOperationException e) {
+			transfer( source, target );
+		}
+	}
+
+	/**
+	 * Copy the source file to the target through {@link FileChannel#transferTo}, letting the OS copy
+	 * the data without passing it through the JVM heap
+	 */
+	public static void transfer(Path source, Path target) throws IOException {
+		try ( FileChannel input = FileChannel.open( source, StandardOpenOption.READ );
+				FileChannel output = FileChannel.open(
+						target,
+						StandardOpenOption.WRITE,
+						StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING
+				) ) {
+			final long size = input.size();
+			long position = 0;
+			while ( position < size ) {
+				position += input.transferTo( position, size - position, output );
+			}
+		}
+	}
+
+	/**
+	 * Interpret a DSL value as an enum value.  Accepts the enum itself or its name
+	 * in any case, using either `-` or `_` as separator
+	 */
+	public static <E extends Enum<E>> E interpretEnum(Class<E> enumType, Object value, String description) {
+		if ( enumType.isInstance( value ) ) {
+			return enumType.cast( value );
+		}
+
+		final String name = value.toString().trim().replace( '-', '_' ).toUpperCase( Locale.ROOT );
+		for ( E constant : enumType.getEnumConstants() ) {
+			if ( constant.name().equals( name ) ) {
+				return constant;
+			}
+		}
+
+		throw new TransformationException( "Unknown " + description + " : " + value );
+	}
+
 	public static SourceSetContainer extractSourceSets(Project project) {
 		final JavaPluginConvention javaPluginConvention = project.getConvention().findPlugin( JavaPluginConvention.class );
 		assert javaPluginConvention != null;
@@ -0,0 +1,181 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.gradle.api.artifacts.transform.CacheableTransform;
+import org.gradle.api.artifacts.transform.InputArtifact;
+import org.gradle.api.artifacts.transform.TransformAction;
+import org.gradle.api.artifacts.transform.TransformOutputs;
+import org.gradle.api.artifacts.transform.TransformParameters;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.FileSystemLocation;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+
+import org.hibernate.build.gradle.jakarta.TransformationEngine;
+import org.hibernate.build.gradle.jakarta.TransformationException;
+import org.hibernate.build.gradle.jakarta.internal.remap.NativeTransformer;
+import org.hibernate.build.gradle.jakarta.internal.remap.RenameRules;
+
+/**
+ * Artifact transform from the {@linkplain org.hibernate.build.gradle.jakarta.TransformerPlugin#JAVAX_NAMESPACE javax}
+ * to the {@linkplain org.hibernate.build.gradle.jakarta.TransformerPlugin#JAKARTA_NAMESPACE jakarta} namespace.
+ *
+ * Gradle runs the transform only when a consumer resolves the transformed artifacts, once per distinct artifact
+ * across the build, in parallel for independent artifacts, and keeps the results in its transforms cache.
+ *
+ * With the native engine, artifacts which the rules cannot affect (see {@link NativeTransformer#mayRequireTransformation})
+ * are passed through untouched - the input artifact itself is the result.  The scan only covers what the native engine
+ * rewrites, so artifacts are always handed to the JakartaTransformer tool.
+ *
+ * When reproducible, transformed archives are written (or, for the tool, {@linkplain NativeTransformer#normalize
+ * normalized}) reproducibly; passed-through artifacts are used as they are.
+ *
+ * The JakartaTransformer tool is run in-process from an isolated ClassLoader, shared with the rest of the
+ * build through the {@link ToolClassLoaderService}; artifact transforms cannot submit Gradle work of their own.
+ *
+ * @author Steve Ebersole
+ */
+@CacheableTransform
+public abstract class JakartaArtifactTransform implements TransformAction<JakartaArtifactTransform.Parameters> {
+	private static final Logger log = Logging.getLogger( JakartaArtifactTransform.class );
+
+	public interface Parameters extends TransformParameters {
+		@InputFile
+		@Optional
+		@PathSensitive( PathSensitivity.NONE )
+		RegularFileProperty getRenameRules();
+
+		@InputFile
+		@Optional
+		@PathSensitive( PathSensitivity.NONE )
+		RegularFileProperty getVersionRules();
+
+		@InputFile
+		@Optional
+		@PathSensitive( PathSensitivity.NONE )
+		RegularFileProperty getDirectRules();
+
+		@Input
+		Property<TransformationEngine> getEngine();
+
+		@Input
+		Property<Boolean> getReproducible();
+
+		/**
+		 * The JakartaTransformer tool classpath
+		 */
+		@Classpath
+		ConfigurableFileCollection getToolClasspath();
+
+		@Internal
+		Property<ToolClassLoaderService> getClassLoaderService();
+	}
+
+	@InputArtifact
+	@PathSensitive( PathSensitivity.NAME_ONLY )
+	public abstract Provider<FileSystemLocation> getInputArtifact();
+
+	@Override
+	public void transform(TransformOutputs outputs) {
+		final long start = System.nanoTime();
+		final Parameters parameters = getParameters();
+
+		final File source = getInputArtifact().get().getAsFile();
+		if ( ! source.exists() ) {
+			return;
+		}
+
+		final boolean nativeEngine = parameters.getEngine().get() == TransformationEngine.NATIVE;
+		final boolean reproducible = parameters.getReproducible().getOrElse( false );
+		final NativeTransformer nativeTransformer = nativeEngine
+				? new NativeTransformer(
+						RenameRules.load(
+								Helper.asFile( parameters.getRenameRules() ),
+								Helper.asFile( parameters.getVersionRules() ),
+								Helper.asFile( parameters.getDirectRules() )
+						),
+						reproducible
+				)
+				: null;
+
+		if ( nativeEngine && ! nativeTransformer.mayRequireTransformation( source ) ) {
+			// nothing to rename - use the artifact as-is
+			if ( source.isDirectory() ) {
+				outputs.dir( getInputArtifact() );
+			}
+			else {
+				outputs.file( getInputArtifact() );
+			}
+			log.info( "Jakarta artifact transform : {} passed through untouched", source.getName() );
+			return;
+		}
+
+		final File target = source.isDirectory()
+				? outputs.dir( source.getName() )
+				: outputs.file( source.getName() );
+
+		if ( nativeEngine ) {
+			nativeTransformer.transform( source, target );
+		}
+		else {
+			if ( target.isDirectory() ) {
+				// the JakartaTransformer does not transform anything into an existing directory
+				target.delete();
+			}
+			transformWithTool( source, target, parameters );
+			if ( reproducible && NativeTransformer.isArchive( target ) ) {
+				NativeTransformer.normalize( target );
+			}
+		}
+
+		log.info(
+				"Jakarta artifact transform ({}) : {} ({} ms)",
+				parameters.getEngine().get(),
+				source.getName(),
+				TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start )
+		);
+	}
+
+	private static void transformWithTool(File source, File target, Parameters parameters) {
+		final List<String> args = new ArrayList<>( Arrays.asList( source.getAbsolutePath(), target.getAbsolutePath(), "-q" ) );
+		addRulesArgument( args, "-tr", parameters.getRenameRules() );
+		addRulesArgument( args, "-tv", parameters.getVersionRules() );
+		addRulesArgument( args, "-td", parameters.getDirectRules() );
+
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try {
+			final ClassLoader toolClassLoader = parameters.getClassLoaderService().get().getClassLoader( parameters.getToolClasspath().getFiles() );
+			final int rc = new ToolInvoker( toolClassLoader ).invoke( args, new PrintStream( output, true ) );
+			if ( rc != 0 ) {
+				log.warn( "JakartaTransformer returned {} transforming {} :\n{}", rc, source.getName(), output );
+			}
+		}
+		catch (ClassNotFoundException | NoSuchMethodException e) {
+			throw new TransformationException( "Unable to invoke JakartaTransformer for artifact transform", e );
+		}
+	}
+
+	private static void addRulesArgument(List<String> args, String option, RegularFileProperty rules) {
+		if ( rules.isPresent() ) {
+			args.add( option );
+			args.add( rules.get().getAsFile().getAbsolutePath() );
+		}
+	}
+}
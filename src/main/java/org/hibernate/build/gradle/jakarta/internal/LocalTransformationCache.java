@@ -0,0 +1,230 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+/**
+ * File-system layout of the content-addressed local transformation cache.  Each entry is a
+ * directory named by the cache key holding the transformation `output` (a file or a directory)
+ * and an `entry.properties` with its size.  The entry directory's last-modified time records its
+ * last use, for LRU eviction.
+ *
+ * Entries are written to a temporary directory and atomically moved into place, so concurrent
+ * builds (and worker processes) never see a partial entry.
+ *
+ * @author Steve Ebersole
+ */
+public class LocalTransformationCache {
+	private static final Logger log = Logging.getLogger( LocalTransformationCache.class );
+
+	public static final String OUTPUT_NAME = "output";
+	public static final String METADATA_NAME = "entry.properties";
+	public static final String SIZE_KEY = "size";
+
+	private static final String TEMP_PREFIX = ".tmp-";
+
+	private final Path cacheDirectory;
+
+	public LocalTransformationCache(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory.toPath();
+	}
+
+	/**
+	 * Materialize the cached output for the key at the target, if there is one
+	 *
+	 * @return Whether the output was restored
+	 */
+	public boolean restore(String key, File target) {
+		final Path entry = cacheDirectory.resolve( key );
+		final Path output = entry.resolve( OUTPUT_NAME );
+		if ( ! Files.exists( entry.resolve( METADATA_NAME ) ) ) {
+			return false;
+		}
+
+		try {
+			deleteRecursively( target.toPath() );
+			Files.createDirectories( target.toPath().toAbsolutePath().getParent() );
+			if ( Files.isDirectory( output ) ) {
+				try ( Stream<Path> stream = Files.walk( output ) ) {
+					for ( Path file : stream.collect( Collectors.toList() ) ) {
+						final Path targetFile = target.toPath().resolve( output.relativize( file ).toString() );
+						if ( Files.isDirectory( file ) ) {
+							Files.createDirectories( targetFile );
+						}
+						else {
+							Helper.linkOrCopy( file, targetFile );
+						}
+					}
+				}
+			}
+			else {
+				Helper.linkOrCopy( output, target.toPath() );
+			}
+
+			// record the use for LRU eviction
+			entry.toFile().setLastModified( System.currentTimeMillis() );
+			return true;
+		}
+		catch (IOException e) {
+			log.debug( "Unable to restore cached transformation {}", key, e );
+			return false;
+		}
+	}
+
+	/**
+	 * Store the transformation output under the key.  Failures are logged and otherwise ignored.
+	 */
+	public void store(String key, File output) {
+		final Path entry = cacheDirectory.resolve( key );
+		if ( Files.exists( entry ) || ! output.exists() ) {
+			return;
+		}
+
+		final Path temp = cacheDirectory.resolve( TEMP_PREFIX + UUID.randomUUID() );
+		try {
+			Files.createDirectories( temp );
+			final Path cachedOutput = temp.resolve( OUTPUT_NAME );
+			final long size = copy( output.toPath(), cachedOutput );
+
+			final Properties metadata = new Properties();
+			metadata.setProperty( SIZE_KEY, Long.toString( size ) );
+			try ( OutputStream stream = Files.newOutputStream( temp.resolve( METADATA_NAME ) ) ) {
+				metadata.store( stream, null );
+			}
+
+			Files.move( temp, entry, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch (FileAlreadyExistsException e) {
+			// stored concurrently
+		}
+		catch (IOException e) {
+			log.debug( "Unable to store transformation {} in the local cache", key, e );
+		}
+		finally {
+			try {
+				deleteRecursively( temp );
+			}
+			catch (IOException e) {
+				log.debug( "Unable to delete temporary cache directory {}", temp, e );
+			}
+		}
+	}
+
+	/**
+	 * Evict the least recently used entries until the cache is no larger than the given size
+	 *
+	 * @return The number of evicted entries
+	 */
+	public int evict(long maxSize) throws IOException {
+		if ( ! Files.isDirectory( cacheDirectory ) ) {
+			return 0;
+		}
+
+		final List<Path> entries = new ArrayList<>();
+		try ( Stream<Path> stream = Files.list( cacheDirectory ) ) {
+			stream.filter( (path) -> ! path.getFileName().toString().startsWith( TEMP_PREFIX ) )
+					.filter( Files::isDirectory )
+					.forEach( entries::add );
+		}
+
+		long totalSize = 0;
+		for ( Path entry : entries ) {
+			totalSize += entrySize( entry );
+		}
+
+		if ( totalSize <= maxSize ) {
+			return 0;
+		}
+
+		entries.sort( Comparator.comparingLong( (entry) -> entry.toFile().lastModified() ) );
+
+		int evicted = 0;
+		for ( Path entry : entries ) {
+			if ( totalSize <= maxSize ) {
+				break;
+			}
+			totalSize -= entrySize( entry );
+			deleteRecursively( entry );
+			evicted++;
+		}
+		return evicted;
+	}
+
+	/**
+	 * The total size of the cached outputs
+	 */
+	public long size() throws IOException {
+		if ( ! Files.isDirectory( cacheDirectory ) ) {
+			return 0;
+		}
+
+		long totalSize = 0;
+		try ( Stream<Path> stream = Files.list( cacheDirectory ) ) {
+			for ( Path entry : stream.collect( Collectors.toList() ) ) {
+				totalSize += entrySize( entry );
+			}
+		}
+		return totalSize;
+	}
+
+	private static long entrySize(Path entry) {
+		final Properties metadata = new Properties();
+		try ( InputStream stream = Files.newInputStream( entry.resolve( METADATA_NAME ) ) ) {
+			metadata.load( stream );
+			return Long.parseLong( metadata.getProperty( SIZE_KEY, "0" ) );
+		}
+		catch (IOException | NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static long copy(Path source, Path target) throws IOException {
+		if ( ! Files.isDirectory( source ) ) {
+			Files.copy( source, target );
+			return Files.size( target );
+		}
+
+		long size = 0;
+		try ( Stream<Path> stream = Files.walk( source ) ) {
+			for ( Path file : stream.collect( Collectors.toList() ) ) {
+				final Path targetFile = target.resolve( source.relativize( file ).toString() );
+				if ( Files.isDirectory( file ) ) {
+					Files.createDirectories( targetFile );
+				}
+				else {
+					Files.copy( file, targetFile );
+					size += Files.size( targetFile );
+				}
+			}
+		}
+		return size;
+	}
+
+	static void deleteRecursively(Path path) throws IOException {
+		if ( ! Files.exists( path ) ) {
+			return;
+		}
+
+		try ( Stream<Path> stream = Files.walk( path ) ) {
+			for ( Path file : stream.sorted( Comparator.reverseOrder() ).collect( Collectors.toList() ) ) {
+				Files.deleteIfExists( file );
+			}
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import java.io.File;
+
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import org.hibernate.build.gradle.jakarta.ExecutionMode;
+import org.hibernate.build.gradle.jakarta.TransformationEngine;
+import org.hibernate.build.gradle.jakarta.internal.remap.NativeTransformer;
+import org.hibernate.build.gradle.jakarta.internal.remap.RenameRules;
+import org.hibernate.build.gradle.jakarta.internal.jfr.TransformationEvents;
+
+/**
+ * Runs a single native-engine transformation as Gradle work so that the calling
+ * task does not block its task thread
+ *
+ * @author Steve Ebersole
+ */
+public abstract class NativeTransformationWorkAction implements WorkAction<NativeTransformationWorkAction.Parameters> {
+	private static final Logger log = Logging.getLogger( NativeTransformationWorkAction.class );
+
+	public interface Parameters extends WorkParameters {
+		Property<File> getSource();
+		Property<File> getTarget();
+
+		Property<RuleSetCacheService> getRuleSetCache();
+
+		RegularFileProperty getRenameRules();
+		RegularFileProperty getVersionRules();
+		RegularFileProperty getDirectRules();
+
+		/**
+		 * Whether transformed archives are written reproducibly
+		 */
+		Property<Boolean> getReproducible();
+
+		/**
+		 * Whether the unchanged files of a directory may be hardlinked to the target
+		 */
+		Property<Boolean> getLinkUnchangedFiles();
+
+		/**
+		 * The local transformation cache key under which to store the result, if the cache is enabled
+		 */
+		Property<String> getCacheKey();
+		Property<File> getCacheDirectory();
+
+		/**
+		 * The path of the project performing the transformation, for metrics
+		 */
+		Property<String> getProjectPath();
+
+		/**
+		 * Directory to which the transformation metrics are spooled
+		 */
+		Property<File> getMetricsDirectory();
+	}
+
+	@Override
+	public void execute() {
+		final Parameters parameters = getParameters();
+		final TransformationMetrics metrics = TransformationMetrics.start(
+				parameters.getProjectPath().get(),
+				parameters.getSource().get(),
+				parameters.getTarget().get(),
+				TransformationEngine.NATIVE.name(),
+				ExecutionMode.WORKER.name()
+		);
+
+		final NativeTransformer transformer;
+		try ( TransformationEvents.Phase phase = TransformationEvents.begin( TransformationEvents.TRANSFORM, parameters.getProjectPath().get(), parameters.getSource().get() ) ) {
+			final RenameRules rules = parameters.getRuleSetCache().get().getRules(
+					Helper.asFile( parameters.getRenameRules() ),
+					Helper.asFile( parameters.getVersionRules() ),
+					Helper.asFile( parameters.getDirectRules() )
+			);
+			transformer = new NativeTransformer(
+					rules,
+					parameters.getReproducible().getOrElse( false ),
+					parameters.getLinkUnchangedFiles().getOrElse( false )
+			);
+			transformer.transform( parameters.getSource().get(), parameters.getTarget().get() );
+
+			phase.detail( TransformationEngine.NATIVE + "/" + ExecutionMode.WORKER )
+					.output( parameters.getTarget().get() )
+					.statistics( transformer.getStatistics() );
+		}
+
+		metrics.complete( parameters.getSource().get(), parameters.getTarget().get(), transformer.getStatistics(), true )
+				.spool( parameters.getMetricsDirectory().get() );
+
+		log.info(
+				"Native transformation : {} -> {} ({} ms; {})",
+				parameters.getSource().get().getName(),
+				parameters.getTarget().get().getName(),
+				metrics.getWallMillis(),
+				transformer.getStatistics()
+		);
+
+		if ( parameters.getCacheKey().isPresent() ) {
+			new LocalTransformationCache( parameters.getCacheDirectory().get() ).store(
+					parameters.getCacheKey().get(),
+					parameters.getTarget().get()
+			);
+		}
+	}
+}
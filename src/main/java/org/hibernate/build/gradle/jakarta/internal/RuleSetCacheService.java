@@ -0,0 +1,164 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import java.io.File;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.gradle.api.Project;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import org.hibernate.build.gradle.jakarta.TransformationException;
+import org.hibernate.build.gradle.jakarta.internal.remap.RenameRules;
+import org.hibernate.build.gradle.jakarta.internal.jfr.TransformationEvents;
+
+/**
+ * Build-scoped cache of compiled {@link RenameRules}, keyed by a hash of the rule file
+ * contents.  Every transformation in every project which uses the same rule files shares
+ * a single compiled form; the rules are parsed again only when the file contents change.
+ *
+ * The rule files themselves are only read (and hashed) when their path, length or modification
+ * time is one not seen before - requests for known files are a map lookup.
+ *
+ * The parse time and hit rate are logged (`--info`) when the build finishes.
+ *
+ * @author Steve Ebersole
+ */
+public abstract class RuleSetCacheService implements BuildService<BuildServiceParameters.None>, AutoCloseable {
+	public static final String REGISTRATION_NAME = "jakartaTransformerRuleSets";
+
+	private static final Logger log = Logging.getLogger( RuleSetCacheService.class );
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final Map<String, RenameRules> compiledRules = new ConcurrentHashMap<>();
+
+	/**
+	 * The compiled rules by the path, length and modification time of the rule files
+	 */
+	private final Map<String, RenameRules> rulesByFileStamp = new ConcurrentHashMap<>();
+
+	private final AtomicInteger requestCount = new AtomicInteger();
+	private final AtomicInteger parseCount = new AtomicInteger();
+	private final AtomicLong parseNanos = new AtomicLong();
+
+	public static Provider<RuleSetCacheService> register(Project project) {
+		return project.getGradle().getSharedServices().registerIfAbsent(
+				REGISTRATION_NAME,
+				RuleSetCacheService.class,
+				(spec) -> {}
+		);
+	}
+
+	/**
+	 * Access the compiled rules for the given rule files, any of which may be null
+	 */
+	public RenameRules getRules(File renameRules, File versionRules, File directRules) {
+		requestCount.incrementAndGet();
+
+		final String fileStamp = fileStamp( renameRules ) + '|' + fileStamp( versionRules ) + '|' + fileStamp( directRules );
+		final RenameRules known = rulesByFileStamp.get( fileStamp );
+		if ( known != null ) {
+			return known;
+		}
+
+		final byte[] renameBytes = RenameRules.readBytes( renameRules );
+		final byte[] versionBytes = RenameRules.readBytes( versionRules );
+		final byte[] directBytes = RenameRules.readBytes( directRules );
+
+		final String key = hash( renameBytes, versionBytes, directBytes );
+		final RenameRules rules = compiledRules.computeIfAbsent(
+				key,
+				(k) -> {
+					final long start = System.nanoTime();
+					final RenameRules compiled;
+					try ( TransformationEvents.Phase ignored = TransformationEvents.begin( TransformationEvents.RULES, null, renameRules ) ) {
+						compiled = RenameRules.compile( renameBytes, versionBytes, directBytes );
+					}
+					final long elapsed = System.nanoTime() - start;
+
+					parseCount.incrementAndGet();
+					parseNanos.addAndGet( elapsed );
+
+					log.info(
+							"Compiled Jakarta transformation rules [{}] in {} ms",
+							k.substring( 0, 12 ),
+							TimeUnit.NANOSECONDS.toMillis( elapsed )
+					);
+					return compiled;
+				}
+		);
+		rulesByFileStamp.put( fileStamp, rules );
+		return rules;
+	}
+
+	private static String fileStamp(File rulesFile) {
+		if ( rulesFile == null ) {
+			return "-";
+		}
+		return rulesFile.getAbsolutePath() + ':' + rulesFile.length() + ':' + rulesFile.lastModified();
+	}
+
+	static String hash(byte[]... contents) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance( "SHA-256" );
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new TransformationException( "Unable to hash transformation rules", e );
+		}
+
+		for ( byte[] content : contents ) {
+			if ( content == null ) {
+				// distinguish a missing file from an empty one
+				digest.update( (byte) 0 );
+			}
+			else {
+				digest.update( (byte) 1 );
+				digest.update( content );
+			}
+		}
+
+		final byte[] bytes = digest.digest();
+		final char[] chars = new char[ bytes.length * 2 ];
+		for ( int i = 0; i < bytes.length; i++ ) {
+			chars[ i * 2 ] = HEX[ ( bytes[i] >> 4 ) & 0xF ];
+			chars[ i * 2 + 1 ] = HEX[ bytes[i] & 0xF ];
+		}
+		return new String( chars );
+	}
+
+	public int getRequestCount() {
+		return requestCount.get();
+	}
+
+	public int getParseCount() {
+		return parseCount.get();
+	}
+
+	@Override
+	public void close() {
+		final int requests = requestCount.get();
+		if ( requests > 0 ) {
+			final int hits = requests - parseCount.get();
+			log.info(
+					"Jakarta transformation rules : {} rule set(s) compiled in {} ms; {} of {} requests served from cache ({}%)",
+					parseCount.get(),
+					TimeUnit.NANOSECONDS.toMillis( parseNanos.get() ),
+					hits,
+					requests,
+					hits * 100 / requests
+			);
+		}
+		compiledRules.clear();
+		rulesByFileStamp.clear();
+	}
+}
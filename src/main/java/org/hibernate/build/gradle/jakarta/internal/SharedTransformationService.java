@@ -0,0 +1,117 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.gradle.api.Project;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import org.hibernate.build.gradle.jakarta.TransformationException;
+
+/**
+ * Performs each distinct dependency transformation of the build once, however many projects declare it.
+ * Transformations are distinct by the key {@link TransformerTool} computes from the content of the
+ * dependency artifact, the rule files and the tool classpath (or, for the native engine, the plugin) and
+ * the engine - not by file locations.
+ *
+ * The first task needing a transformation performs it, into a directory of the root project's build
+ * directory, and waits for it to complete; tasks needing the same transformation wait for that task and
+ * then reuse the result.  Each task links (or copies) the result to its own output within its own action,
+ * so the tasks have no dependencies on one another.
+ *
+ * The number of transformations performed and of the tasks sharing them is logged at `--info` when the build
+ * finishes.
+ *
+ * @author Steve Ebersole
+ */
+public abstract class SharedTransformationService
+		implements BuildService<SharedTransformationService.Parameters>, AutoCloseable {
+	public static final String REGISTRATION_NAME = "jakartaSharedTransformations";
+
+	private static final Logger log = Logging.getLogger( SharedTransformationService.class );
+
+	public interface Parameters extends BuildServiceParameters {
+		DirectoryProperty getSharedDirectory();
+	}
+
+	private final Map<String, SharedTransformation> transformations = new ConcurrentHashMap<>();
+
+	private final AtomicInteger performedCount = new AtomicInteger();
+	private final AtomicInteger requestCount = new AtomicInteger();
+
+	public static Provider<SharedTransformationService> register(Project project) {
+		return project.getGradle().getSharedServices().registerIfAbsent(
+				REGISTRATION_NAME,
+				SharedTransformationService.class,
+				(spec) -> spec.getParameters().getSharedDirectory().set(
+						project.getRootProject().getLayout().getBuildDirectory().dir( "tmp/jakarta-transformer-shared" )
+				)
+		);
+	}
+
+	/**
+	 * Access the result of the transformation identified by the key, performing it if no other task
+	 * has yet in this build
+	 *
+	 * @param key Identifies the transformation by content
+	 * @param fileName The name of the result file
+	 * @param transformation Writes the result to the given file - completely, before returning
+	 *
+	 * @return The result
+	 */
+	public File share(String key, String fileName, Consumer<File> transformation) {
+		requestCount.incrementAndGet();
+
+		final SharedTransformation shared = transformations.computeIfAbsent( key, (k) -> new SharedTransformation() );
+		synchronized ( shared ) {
+			if ( shared.output == null ) {
+				final File output = new File(
+						getParameters().getSharedDirectory().get().getAsFile(),
+						key.substring( 0, 16 ) + "/" + fileName
+				);
+				try {
+					// results of previous builds may be hardlinked to task outputs - never write through them
+					Files.deleteIfExists( output.toPath() );
+				}
+				catch (IOException e) {
+					throw new TransformationException( "Unable to delete previous shared transformation " + output.getAbsolutePath(), e );
+				}
+
+				transformation.accept( output );
+				shared.output = output;
+				performedCount.incrementAndGet();
+			}
+			return shared.output;
+		}
+	}
+
+	@Override
+	public void close() {
+		if ( requestCount.get() == 0 ) {
+			return;
+		}
+
+		log.info(
+				"Jakarta dependency transformations : {} performed for {} task(s)",
+				performedCount.get(),
+				requestCount.get()
+		);
+	}
+
+	private static class SharedTransformation {
+		/**
+		 * Set once the transformation has completed
+		 */
+		private File output;
+	}
+}
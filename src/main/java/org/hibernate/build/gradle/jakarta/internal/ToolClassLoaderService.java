@@ -0,0 +1,78 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import org.hibernate.build.gradle.jakarta.TransformationException;
+
+/**
+ * Build-scoped cache of isolated ClassLoaders for the JakartaTransformer tool,
+ * keyed by the tool classpath.  Allows in-process transformations to load the
+ * tool (and have its code JIT compiled) just once per build rather than once
+ * per transformation.
+ *
+ * The loaders are closed when the build finishes.
+ *
+ * @author Steve Ebersole
+ */
+public abstract class ToolClassLoaderService implements BuildService<BuildServiceParameters.None>, AutoCloseable {
+	public static final String REGISTRATION_NAME = "jakartaTransformerToolLoaders";
+
+	private static final Logger log = Logging.getLogger( ToolClassLoaderService.class );
+
+	private final Map<List<File>, URLClassLoader> loaderMap = new ConcurrentHashMap<>();
+
+	/**
+	 * Access the isolated ClassLoader for the given tool classpath, creating it if needed
+	 */
+	public ClassLoader getClassLoader(Iterable<File> toolClasspath) {
+		final List<File> key = new ArrayList<>();
+		toolClasspath.forEach( key::add );
+
+		return loaderMap.computeIfAbsent( key, ToolClassLoaderService::createClassLoader );
+	}
+
+	private static URLClassLoader createClassLoader(List<File> toolClasspath) {
+		final URL[] urls = new URL[ toolClasspath.size() ];
+		for ( int i = 0; i < toolClasspath.size(); i++ ) {
+			try {
+				urls[i] = toolClasspath.get( i ).toURI().toURL();
+			}
+			catch (MalformedURLException e) {
+				throw new TransformationException( "Unable to build JakartaTransformer tool classpath", e );
+			}
+		}
+
+		log.debug( "Creating isolated JakartaTransformer ClassLoader : {}", toolClasspath );
+
+		// parent is the platform (ext) loader so that nothing from Gradle or the plugin leaks into the tool
+		return new URLClassLoader( urls, ClassLoader.getSystemClassLoader().getParent() );
+	}
+
+	@Override
+	public void close() {
+		loaderMap.values().forEach(
+				(loader) -> {
+					try {
+						loader.close();
+					}
+					catch (IOException e) {
+						log.debug( "Unable to close JakartaTransformer tool ClassLoader", e );
+					}
+				}
+		);
+		loaderMap.clear();
+	}
+}
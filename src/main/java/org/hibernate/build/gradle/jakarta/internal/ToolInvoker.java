@@ -0,0 +1,90 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.build.gradle.jakarta.TransformationException;
+
+import static org.hibernate.build.gradle.jakarta.internal.TransformerTool.TOOL_CLI_FQN;
+
+/**
+ * Reflective, in-JVM invocation of the JakartaTransformer tool from a ClassLoader
+ * which can see the tool classes.  Shared by in-process and worker-based execution.
+ *
+ * Mimics `JakartaTransformer#main`.  The defaults Map is keyed by an enum from the tool,
+ * so we simply pass along what `JakartaTransformer#getOptionDefaults` hands back rather
+ * than building it here.
+ *
+ * @author Steve Ebersole
+ */
+public class ToolInvoker {
+	public static final String TRANSFORMER_FQN = "org.eclipse.transformer.Transformer";
+
+	public static final String TOOL_OPTIONS_METHOD = "getOptionDefaults";
+	public static final String TRANSFORMER_OPTIONS_METHOD = "setOptionDefaults";
+	public static final String TRANSFORMER_ARGS_METHOD = "setArgs";
+	public static final String TRANSFORMER_RUN_METHOD = "run";
+
+	private final Class<?> toolClass;
+	private final Class<?> transformerClass;
+	private final Method optionsMethod;
+	private final Method transformerOptionsMethod;
+	private final Method argsMethod;
+	private final Method runMethod;
+
+	/**
+	 * @throws ClassNotFoundException if the tool classes are not visible to the given loader
+	 * @throws NoSuchMethodException if the tool version does not expose the expected entry points
+	 */
+	public ToolInvoker(ClassLoader toolClassLoader) throws ClassNotFoundException, NoSuchMethodException {
+		toolClass = loadToolClass( TOOL_CLI_FQN, toolClassLoader );
+		transformerClass = loadToolClass( TRANSFORMER_FQN, toolClassLoader );
+
+		optionsMethod = resolveToolMethod( toolClass, TOOL_OPTIONS_METHOD );
+		transformerOptionsMethod = resolveToolMethod( transformerClass, TRANSFORMER_OPTIONS_METHOD, Class.class, Map.class );
+		argsMethod = resolveToolMethod( transformerClass, TRANSFORMER_ARGS_METHOD, String[].class );
+		runMethod = resolveToolMethod( transformerClass, TRANSFORMER_RUN_METHOD );
+	}
+
+	/**
+	 * Run the tool with the given (command-line) arguments
+	 *
+	 * @return The tool's return code
+	 */
+	public int invoke(List<String> args, PrintStream printStream) {
+		final Thread thread = Thread.currentThread();
+		final ClassLoader originalTccl = thread.getContextClassLoader();
+		thread.setContextClassLoader( toolClass.getClassLoader() );
+		try {
+			final Object transformer = transformerClass
+					.getDeclaredConstructor( PrintStream.class, PrintStream.class )
+					.newInstance( printStream, printStream );
+			transformerOptionsMethod.invoke( transformer, toolClass, optionsMethod.invoke( null ) );
+			argsMethod.invoke( transformer, (Object) args.toArray( new String[0] ) );
+
+			final Object rc = runMethod.invoke( transformer );
+			return rc instanceof Integer ? (Integer) rc : 0;
+		}
+		catch (InvocationTargetException e) {
+			throw new TransformationException( "Error performing JakartaTransformer transformation", e.getTargetException() );
+		}
+		catch (InstantiationException | IllegalAccessException | NoSuchMethodException e) {
+			throw new TransformationException( "Unable to create `" + TRANSFORMER_FQN + "` reference", e );
+		}
+		finally {
+			thread.setContextClassLoader( originalTccl );
+			printStream.flush();
+		}
+	}
+
+	private static Class<?> loadToolClass(String name, ClassLoader toolClassLoader) throws ClassNotFoundException {
+		return Class.forName( name, true, toolClassLoader );
+	}
+
+	private static Method resolveToolMethod(Class<?> toolClass, String name, Class<?>... argTypes) throws NoSuchMethodException {
+		return toolClass.getMethod( name, argTypes );
+	}
+}
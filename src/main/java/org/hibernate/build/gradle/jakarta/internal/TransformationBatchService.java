@@ -0,0 +1,144 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gradle.api.Project;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import org.hibernate.build.gradle.jakarta.ExecutionMode;
+import org.hibernate.build.gradle.jakarta.TransformationException;
+
+/**
+ * Runs the transformations of {@link ExecutionMode#BATCH} builds.  Transformation tasks enqueue their
+ * transformations and wait for them.  Each transformation is submitted to a build-wide thread pool in the
+ * Gradle daemon as soon as it is enqueued - one JVM, one loaded tool and one compiled rule set for the whole
+ * build.
+ *
+ * JakartaTransformer tool invocations are not known to be thread-safe, so they run one at a time on a
+ * single pool thread; native engine transformations run in parallel on as many threads as the build's
+ * `--max-workers`.
+ *
+ * @author Steve Ebersole
+ */
+public abstract class TransformationBatchService implements BuildService<TransformationBatchService.Parameters>, AutoCloseable {
+	public static final String REGISTRATION_NAME = "jakartaTransformationBatches";
+
+	private static final Logger log = Logging.getLogger( TransformationBatchService.class );
+
+	public interface Parameters extends BuildServiceParameters {
+		/**
+		 * The number of threads used for native engine transformations
+		 */
+		Property<Integer> getThreadCount();
+	}
+
+	private final ExecutorService nativePool;
+	private final ExecutorService toolPool;
+
+	private final AtomicInteger transformationCount = new AtomicInteger();
+	private final AtomicInteger runningCount = new AtomicInteger();
+	private final AtomicInteger largestRunningCount = new AtomicInteger();
+
+	public TransformationBatchService() {
+		nativePool = Executors.newFixedThreadPool( getParameters().getThreadCount().get(), threadFactory( "native" ) );
+		toolPool = Executors.newSingleThreadExecutor( threadFactory( "tool" ) );
+	}
+
+	private static ThreadFactory threadFactory(String name) {
+		final AtomicInteger threadCount = new AtomicInteger();
+		return (runnable) -> {
+			final Thread thread = new Thread( runnable, "jakarta-transformation-" + name + "-" + threadCount.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		};
+	}
+
+	public static Provider<TransformationBatchService> register(Project project) {
+		return project.getGradle().getSharedServices().registerIfAbsent(
+				REGISTRATION_NAME,
+				TransformationBatchService.class,
+				(spec) -> spec.getParameters().getThreadCount().set(
+						project.getGradle().getStartParameter().getMaxWorkerCount()
+				)
+		);
+	}
+
+	/**
+	 * Submit the transformation to its thread pool and wait for it to complete
+	 *
+	 * @param toolInvocation Whether the transformation invokes the JakartaTransformer tool
+	 */
+	public void transform(String description, boolean toolInvocation, Runnable transformation) {
+		final Transformation queued = new Transformation( description, toolInvocation, transformation );
+
+		transformationCount.incrementAndGet();
+		largestRunningCount.accumulateAndGet( runningCount.incrementAndGet(), Math::max );
+		try {
+			final ExecutorService pool = toolInvocation ? toolPool : nativePool;
+			pool.execute( queued::run );
+
+			queued.completion.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TransformationException( "Interrupted waiting for transformation : " + description, e );
+		}
+		catch (ExecutionException e) {
+			if ( e.getCause() instanceof RuntimeException ) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new TransformationException( "Error performing transformation : " + description, e.getCause() );
+		}
+		finally {
+			runningCount.decrementAndGet();
+		}
+	}
+
+	@Override
+	public void close() {
+		nativePool.shutdownNow();
+		toolPool.shutdownNow();
+
+		if ( transformationCount.get() > 0 ) {
+			log.info(
+					"Jakarta batch transformations : {} transformation(s), at most {} enqueued at once",
+					transformationCount.get(),
+					largestRunningCount.get()
+			);
+		}
+	}
+
+	private static class Transformation {
+		private final String description;
+		private final boolean toolInvocation;
+		private final Runnable work;
+		private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+		private Transformation(String description, boolean toolInvocation, Runnable work) {
+			this.description = description;
+			this.toolInvocation = toolInvocation;
+			this.work = work;
+		}
+
+		private void run() {
+			try {
+				work.run();
+				completion.complete( null );
+			}
+			catch (RuntimeException | Error e) {
+				log.debug( "Batched transformation failed : {}", description, e );
+				completion.completeExceptionally( e );
+			}
+		}
+	}
+}
@@ -0,0 +1,279 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.gradle.api.Project;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import org.hibernate.build.gradle.jakarta.TransformationEngine;
+import org.hibernate.build.gradle.jakarta.TransformationException;
+import org.hibernate.build.gradle.jakarta.internal.remap.NativeTransformer;
+
+/**
+ * Build-scoped access to the {@linkplain LocalTransformationCache local transformation cache}
+ * under `GRADLE_USER_HOME`, shared by all builds on the machine.
+ *
+ * Entries are keyed by a hash of the transformation input (file or directory content), the three
+ * rule files, the JakartaTransformer tool classpath (for the native engine, the plugin's own classes)
+ * and the engine.  The least recently used entries
+ * are evicted at the end of the build to keep the cache within its size limit, and the hit, miss and
+ * eviction counts are reported then.
+ *
+ * @author Steve Ebersole
+ */
+public abstract class TransformationCacheService
+		implements BuildService<TransformationCacheService.Parameters>, AutoCloseable {
+	public static final String REGISTRATION_NAME = "jakartaTransformationCache";
+
+	/**
+	 * Version of the cache layout and key computation - part of every key
+	 */
+	public static final String CACHE_VERSION = "2";
+
+	private static final Logger log = Logging.getLogger( TransformationCacheService.class );
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	public interface Parameters extends BuildServiceParameters {
+		DirectoryProperty getCacheDirectory();
+
+		/**
+		 * The cache size limit, in megabytes
+		 */
+		Property<Long> getSizeLimit();
+	}
+
+	private final LocalTransformationCache cache;
+
+	private final Map<String, String> classpathHashes = new ConcurrentHashMap<>();
+	private volatile String nativeEngineHash;
+
+	private final AtomicInteger hitCount = new AtomicInteger();
+	private final AtomicInteger missCount = new AtomicInteger();
+
+	public TransformationCacheService() {
+		this.cache = new LocalTransformationCache( getParameters().getCacheDirectory().get().getAsFile() );
+	}
+
+	public static Provider<TransformationCacheService> register(Project project, Provider<Long> sizeLimit) {
+		return project.getGradle().getSharedServices().registerIfAbsent(
+				REGISTRATION_NAME,
+				TransformationCacheService.class,
+				(spec) -> {
+					spec.getParameters().getCacheDirectory().set(
+							new File( project.getGradle().getGradleUserHomeDir(), "caches/jakarta-transformer" )
+					);
+					spec.getParameters().getSizeLimit().set( sizeLimit );
+				}
+		);
+	}
+
+	public File getCacheDirectory() {
+		return getParameters().getCacheDirectory().get().getAsFile();
+	}
+
+	/**
+	 * Compute the cache key for a transformation
+	 *
+	 * @param ruleFiles The rename, version and direct rule files; any may be null
+	 */
+	public String computeKey(
+			File source,
+			List<File> ruleFiles,
+			Iterable<File> toolClasspath,
+			TransformationEngine engine,
+			boolean reproducible) {
+		final MessageDigest digest = newDigest();
+		update( digest, CACHE_VERSION );
+		update( digest, engine.name() );
+		update( digest, reproducible ? "reproducible" : "-" );
+
+		for ( File ruleFile : ruleFiles ) {
+			if ( ruleFile == null ) {
+				update( digest, "-" );
+			}
+			else {
+				update( digest, hashFile( ruleFile.toPath() ) );
+			}
+		}
+
+		if ( engine == TransformationEngine.NATIVE ) {
+			// the engine is part of the plugin
+			update( digest, nativeEngineHash() );
+		}
+		else {
+			for ( File entry : toolClasspath ) {
+				update( digest, classpathHashes.computeIfAbsent( classpathEntryKey( entry ), (k) -> hashFile( entry.toPath() ) ) );
+			}
+		}
+
+		if ( source.isDirectory() ) {
+			update( digest, "dir" );
+			final Path root = source.toPath();
+			final List<Path> files;
+			try ( Stream<Path> stream = Files.walk( root ) ) {
+				files = stream.filter( Files::isRegularFile ).sorted().collect( Collectors.toList() );
+			}
+			catch (IOException e) {
+				throw new TransformationException( "Unable to hash transformation input " + source.getAbsolutePath(), e );
+			}
+			for ( Path file : files ) {
+				update( digest, root.relativize( file ).toString().replace( File.separatorChar, '/' ) );
+				update( digest, hashFile( file ) );
+			}
+		}
+		else {
+			update( digest, "file" );
+			update( digest, hashFile( source.toPath() ) );
+		}
+
+		return toHex( digest.digest() );
+	}
+
+	/**
+	 * Hash of the plugin's classes, which include the native engine - the plugin jar or, when the plugin is
+	 * loaded from a class directory (e.g. testKit builds), all of its class files.  The plugin does not
+	 * record its version in its manifest, and a rebuilt plugin must not restore the output of a previous one
+	 */
+	private String nativeEngineHash() {
+		if ( nativeEngineHash == null ) {
+			final Path location;
+			try {
+				location = Paths.get( NativeTransformer.class.getProtectionDomain().getCodeSource().getLocation().toURI() );
+			}
+			catch (URISyntaxException e) {
+				throw new TransformationException( "Unable to locate the native engine classes", e );
+			}
+
+			if ( Files.isRegularFile( location ) ) {
+				nativeEngineHash = hashFile( location );
+			}
+			else {
+				final MessageDigest digest = newDigest();
+				final List<Path> files;
+				try ( Stream<Path> stream = Files.walk( location ) ) {
+					files = stream.filter( Files::isRegularFile ).sorted().collect( Collectors.toList() );
+				}
+				catch (IOException e) {
+					throw new TransformationException( "Unable to hash the native engine classes in " + location, e );
+				}
+				for ( Path file : files ) {
+					update( digest, location.relativize( file ).toString().replace( File.separatorChar, '/' ) );
+					update( digest, hashFile( file ) );
+				}
+				nativeEngineHash = toHex( digest.digest() );
+			}
+		}
+		return nativeEngineHash;
+	}
+
+	private static String classpathEntryKey(File entry) {
+		return entry.getAbsolutePath() + ':' + entry.length() + ':' + entry.lastModified();
+	}
+
+	/**
+	 * Materialize the cached output for the key, counting the hit or miss
+	 */
+	public boolean restore(String key, File target) {
+		final boolean restored = cache.restore( key, target );
+		if ( restored ) {
+			hitCount.incrementAndGet();
+		}
+		else {
+			missCount.incrementAndGet();
+		}
+		return restored;
+	}
+
+	public void store(String key, File output) {
+		cache.store( key, output );
+	}
+
+	@Override
+	public void close() {
+		if ( hitCount.get() == 0 && missCount.get() == 0 ) {
+			return;
+		}
+
+		final long sizeLimit = getParameters().getSizeLimit().get() * 1024 * 1024;
+		int evictionCount = 0;
+		long size = -1;
+		try {
+			evictionCount = cache.evict( sizeLimit );
+			size = cache.size();
+		}
+		catch (IOException e) {
+			log.debug( "Unable to evict local transformation cache entries", e );
+		}
+
+		log.lifecycle(
+				"Jakarta transformation cache : {} hits, {} misses, {} evictions ({} of {} MB used)",
+				hitCount.get(),
+				missCount.get(),
+				evictionCount,
+				size < 0 ? "?" : Long.toString( size / ( 1024 * 1024 ) ),
+				getParameters().getSizeLimit().get()
+		);
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance( "SHA-256" );
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new TransformationException( "Unable to create transformation cache key", e );
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		final byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+		digest.update( (byte) ( bytes.length >>> 8 ) );
+		digest.update( (byte) bytes.length );
+		digest.update( bytes );
+	}
+
+	private static String hashFile(Path file) {
+		final MessageDigest digest = newDigest();
+		try ( InputStream stream = new DigestInputStream( Files.newInputStream( file ), digest ) ) {
+			final byte[] buffer = new byte[64 * 1024];
+			//noinspection StatementWithEmptyBody
+			while ( stream.read( buffer ) != -1 ) {
+			}
+		}
+		catch (IOException e) {
+			throw new TransformationException( "Unable to hash " + file, e );
+		}
+		return toHex( digest.digest() );
+	}
+
+	private static String toHex(byte[] bytes) {
+		final char[] chars = new char[ bytes.length * 2 ];
+		for ( int i = 0; i < bytes.length; i++ ) {
+			chars[ i * 2 ] = HEX[ ( bytes[i] >> 4 ) & 0xF ];
+			chars[ i * 2 + 1 ] = HEX[ bytes[i] & 0xF ];
+		}
+		return new String( chars );
+	}
+}
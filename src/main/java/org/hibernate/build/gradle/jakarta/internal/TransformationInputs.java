@@ -0,0 +1,81 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+
+/**
+ * The inputs shared by every transformation task - the rule files, the JakartaTransformer
+ * tool classpath and whether the outputs are reproducible.  Exposed by the tasks as a `@Nested` bean.
+ *
+ * Only the content of the rule files matters, so their paths are ignored and the task outputs
+ * can be loaded from the build cache by builds in other locations.
+ *
+ * Holds only the providers and files themselves (not the {@link TransformerConfig}) so the tasks
+ * can be stored in the configuration cache.
+ *
+ * @author Steve Ebersole
+ */
+public class TransformationInputs {
+	private final Provider<RegularFile> renameRules;
+	private final Provider<RegularFile> versionRules;
+	private final Provider<RegularFile> directRules;
+	private final FileCollection toolClasspath;
+	private final Provider<Boolean> reproducible;
+
+	public TransformationInputs(
+			Provider<RegularFile> renameRules,
+			Provider<RegularFile> versionRules,
+			Provider<RegularFile> directRules,
+			FileCollection toolClasspath,
+			Provider<Boolean> reproducible) {
+		this.renameRules = renameRules;
+		this.versionRules = versionRules;
+		this.directRules = directRules;
+		this.toolClasspath = toolClasspath;
+		this.reproducible = reproducible;
+	}
+
+	@InputFile
+	@Optional
+	@PathSensitive( PathSensitivity.NONE )
+	public Provider<RegularFile> getRenameRules() {
+		return renameRules;
+	}
+
+	@InputFile
+	@Optional
+	@PathSensitive( PathSensitivity.NONE )
+	public Provider<RegularFile> getVersionRules() {
+		return versionRules;
+	}
+
+	@InputFile
+	@Optional
+	@PathSensitive( PathSensitivity.NONE )
+	public Provider<RegularFile> getDirectRules() {
+		return directRules;
+	}
+
+	/**
+	 * The JakartaTransformer tool classpath
+	 */
+	@Classpath
+	public FileCollection getToolClasspath() {
+		return toolClasspath;
+	}
+
+	/**
+	 * Whether transformed archives are normalized to be reproducible
+	 */
+	@Input
+	public Provider<Boolean> getReproducible() {
+		return reproducible;
+	}
+}
@@ -0,0 +1,293 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+import org.hibernate.build.gradle.jakarta.TransformationException;
+import org.hibernate.build.gradle.jakarta.internal.remap.NativeTransformer;
+import org.hibernate.build.gradle.jakarta.internal.remap.TransformationStatistics;
+
+/**
+ * Metrics for a single transformation, collected by the {@link TransformationMetricsService}.
+ *
+ * Metrics only the native engine can report (rewritten classes and resources, pre-scan fast-path
+ * skips) are `-1` for the JakartaTransformer tool.  CPU time is `-1` when the transformation ran
+ * in another JVM (`java-exec`).
+ *
+ * @author Steve Ebersole
+ */
+public class TransformationMetrics {
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	private String projectPath;
+	private String source;
+	private String target;
+	private String engine;
+	private String executionMode;
+	private boolean fromCache;
+	private boolean passedThrough;
+
+	private long wallMillis;
+	private long cpuMillis = -1;
+
+	private long inputBytes;
+	private long outputBytes;
+	private long inputEntries;
+	private long outputEntries;
+
+	private long rewrittenClasses = -1;
+	private long rewrittenResources = -1;
+	private long fastPathSkips = -1;
+
+	private long startNanos;
+	private long startCpuNanos;
+
+	private TransformationMetrics() {
+	}
+
+	/**
+	 * Start measuring a transformation on the current thread
+	 */
+	public static TransformationMetrics start(String projectPath, File source, File target, String engine, String executionMode) {
+		final TransformationMetrics metrics = new TransformationMetrics();
+		metrics.projectPath = projectPath;
+		metrics.source = source.getName();
+		metrics.target = target.getName();
+		metrics.engine = engine;
+		metrics.executionMode = executionMode;
+
+		metrics.startNanos = System.nanoTime();
+		metrics.startCpuNanos = currentThreadCpuTime();
+		return metrics;
+	}
+
+	/**
+	 * Complete the measurement, on the thread which performed the transformation
+	 *
+	 * @param statistics The native engine statistics, or null for the JakartaTransformer tool
+	 * @param cpuMeasured Whether the transformation ran on the current thread
+	 */
+	public TransformationMetrics complete(File source, File target, TransformationStatistics statistics, boolean cpuMeasured) {
+		wallMillis = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - startNanos );
+		if ( cpuMeasured && startCpuNanos >= 0 ) {
+			cpuMillis = TimeUnit.NANOSECONDS.toMillis( currentThreadCpuTime() - startCpuNanos );
+		}
+
+		inputBytes = size( source );
+		outputBytes = size( target );
+		inputEntries = countEntries( source );
+		outputEntries = countEntries( target );
+
+		if ( statistics != null ) {
+			rewrittenClasses = statistics.getRewrittenClassCount();
+			rewrittenResources = statistics.getRewrittenResourceCount();
+			fastPathSkips = statistics.getFastPathCount();
+		}
+		return this;
+	}
+
+	/**
+	 * Mark the transformation as restored from the local transformation cache
+	 */
+	public TransformationMetrics fromCache() {
+		fromCache = true;
+		return this;
+	}
+
+	/**
+	 * Mark the transformation as avoided - the pre-flight scan found nothing to change, so the
+	 * source was linked or copied as-is
+	 */
+	public TransformationMetrics passedThrough() {
+		passedThrough = true;
+		return this;
+	}
+
+	private static long currentThreadCpuTime() {
+		return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+	}
+
+	private static long size(File file) {
+		if ( ! file.isDirectory() ) {
+			return file.length();
+		}
+		try ( Stream<Path> stream = Files.walk( file.toPath() ) ) {
+			return stream.filter( Files::isRegularFile ).mapToLong( (path) -> path.toFile().length() ).sum();
+		}
+		catch (IOException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * The number of entries of an archive (from its central directory) or files of a directory
+	 */
+	private static long countEntries(File file) {
+		if ( file.isDirectory() ) {
+			try ( Stream<Path> stream = Files.walk( file.toPath() ) ) {
+				return stream.filter( Files::isRegularFile ).count();
+			}
+			catch (IOException e) {
+				return -1;
+			}
+		}
+
+		if ( ! file.isFile() ) {
+			return 0;
+		}
+
+		final String name = file.getName();
+		final int lastDot = name.lastIndexOf( '.' );
+		if ( lastDot > 0 && NativeTransformer.ARCHIVE_EXTENSIONS.contains( name.substring( lastDot ).toLowerCase( Locale.ROOT ) ) ) {
+			try ( ZipFile zipFile = new ZipFile( file ) ) {
+				return zipFile.size();
+			}
+			catch (IOException e) {
+				return -1;
+			}
+		}
+		return 1;
+	}
+
+	/**
+	 * Write the metrics to a new file in the given directory, for transformations performed in
+	 * a worker which cannot reach the build service
+	 */
+	public void spool(File directory) {
+		final Properties properties = new Properties();
+		properties.setProperty( "projectPath", projectPath );
+		properties.setProperty( "source", source );
+		properties.setProperty( "target", target );
+		properties.setProperty( "engine", engine );
+		properties.setProperty( "executionMode", executionMode );
+		properties.setProperty( "fromCache", Boolean.toString( fromCache ) );
+		properties.setProperty( "passedThrough", Boolean.toString( passedThrough ) );
+		properties.setProperty( "wallMillis", Long.toString( wallMillis ) );
+		properties.setProperty( "cpuMillis", Long.toString( cpuMillis ) );
+		properties.setProperty( "inputBytes", Long.toString( inputBytes ) );
+		properties.setProperty( "outputBytes", Long.toString( outputBytes ) );
+		properties.setProperty( "inputEntries", Long.toString( inputEntries ) );
+		properties.setProperty( "outputEntries", Long.toString( outputEntries ) );
+		properties.setProperty( "rewrittenClasses", Long.toString( rewrittenClasses ) );
+		properties.setProperty( "rewrittenResources", Long.toString( rewrittenResources ) );
+		properties.setProperty( "fastPathSkips", Long.toString( fastPathSkips ) );
+
+		directory.mkdirs();
+		final File temp = new File( directory, UUID.randomUUID() + ".tmp" );
+		try ( OutputStream stream = Files.newOutputStream( temp.toPath() ) ) {
+			properties.store( stream, null );
+		}
+		catch (IOException e) {
+			throw new TransformationException( "Unable to write transformation metrics to " + directory.getAbsolutePath(), e );
+		}
+		// only complete files are renamed to `.properties`
+		if ( ! temp.renameTo( new File( directory, temp.getName().replace( ".tmp", ".properties" ) ) ) ) {
+			temp.delete();
+		}
+	}
+
+	/**
+	 * Read metrics written by {@link #spool}
+	 */
+	public static TransformationMetrics load(File file) throws IOException {
+		final Properties properties = new Properties();
+		try ( InputStream stream = Files.newInputStream( file.toPath() ) ) {
+			properties.load( stream );
+		}
+
+		final TransformationMetrics metrics = new TransformationMetrics();
+		metrics.projectPath = properties.getProperty( "projectPath" );
+		metrics.source = properties.getProperty( "source" );
+		metrics.target = properties.getProperty( "target" );
+		metrics.engine = properties.getProperty( "engine" );
+		metrics.executionMode = properties.getProperty( "executionMode" );
+		metrics.fromCache = Boolean.parseBoolean( properties.getProperty( "fromCache" ) );
+		metrics.passedThrough = Boolean.parseBoolean( properties.getProperty( "passedThrough" ) );
+		metrics.wallMillis = Long.parseLong( properties.getProperty( "wallMillis", "-1" ) );
+		metrics.cpuMillis = Long.parseLong( properties.getProperty( "cpuMillis", "-1" ) );
+		metrics.inputBytes = Long.parseLong( properties.getProperty( "inputBytes", "-1" ) );
+		metrics.outputBytes = Long.parseLong( properties.getProperty( "outputBytes", "-1" ) );
+		metrics.inputEntries = Long.parseLong( properties.getProperty( "inputEntries", "-1" ) );
+		metrics.outputEntries = Long.parseLong( properties.getProperty( "outputEntries", "-1" ) );
+		metrics.rewrittenClasses = Long.parseLong( properties.getProperty( "rewrittenClasses", "-1" ) );
+		metrics.rewrittenResources = Long.parseLong( properties.getProperty( "rewrittenResources", "-1" ) );
+		metrics.fastPathSkips = Long.parseLong( properties.getProperty( "fastPathSkips", "-1" ) );
+		return metrics;
+	}
+
+	public String getProjectPath() {
+		return projectPath;
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public String getTarget() {
+		return target;
+	}
+
+	public String getEngine() {
+		return engine;
+	}
+
+	public String getExecutionMode() {
+		return executionMode;
+	}
+
+	public boolean isFromCache() {
+		return fromCache;
+	}
+
+	public boolean isPassedThrough() {
+		return passedThrough;
+	}
+
+	public long getWallMillis() {
+		return wallMillis;
+	}
+
+	public long getCpuMillis() {
+		return cpuMillis;
+	}
+
+	public long getInputBytes() {
+		return inputBytes;
+	}
+
+	public long getOutputBytes() {
+		return outputBytes;
+	}
+
+	public long getInputEntries() {
+		return inputEntries;
+	}
+
+	public long getOutputEntries() {
+		return outputEntries;
+	}
+
+	public long getRewrittenClasses() {
+		return rewrittenClasses;
+	}
+
+	public long getRewrittenResources() {
+		return rewrittenResources;
+	}
+
+	public long getFastPathSkips() {
+		return fastPathSkips;
+	}
+}
@@ -0,0 +1,290 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.gradle.api.Project;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * Collects the {@link TransformationMetrics} of every transformation in the build.  When the build
+ * finishes, a summary table is logged and the metrics are written as JSON to
+ * `build/reports/jakarta-transformer/metrics.json` of the root project.
+ *
+ * Transformations performed in Gradle workers cannot reach the service; they spool their metrics
+ * to a directory which the service reads when the build finishes.
+ *
+ * @author Steve Ebersole
+ */
+public abstract class TransformationMetricsService
+		implements BuildService<TransformationMetricsService.Parameters>, AutoCloseable {
+	public static final String REGISTRATION_NAME = "jakartaTransformationMetrics";
+	public static final String REPORT_NAME = "metrics.json";
+
+	private static final Logger log = Logging.getLogger( TransformationMetricsService.class );
+
+	public interface Parameters extends BuildServiceParameters {
+		DirectoryProperty getReportDirectory();
+		DirectoryProperty getSpoolDirectory();
+	}
+
+	private final List<TransformationMetrics> metrics = new ArrayList<>();
+
+	public TransformationMetricsService() {
+		// discard anything spooled by a previous (failed) build
+		try {
+			LocalTransformationCache.deleteRecursively( getSpoolDirectory().toPath() );
+		}
+		catch (IOException e) {
+			log.debug( "Unable to clean transformation metrics spool directory", e );
+		}
+	}
+
+	public static Provider<TransformationMetricsService> register(Project project) {
+		final Project rootProject = project.getRootProject();
+		return project.getGradle().getSharedServices().registerIfAbsent(
+				REGISTRATION_NAME,
+				TransformationMetricsService.class,
+				(spec) -> {
+					spec.getParameters().getReportDirectory().set(
+							rootProject.getLayout().getBuildDirectory().dir( "reports/jakarta-transformer" )
+					);
+					spec.getParameters().getSpoolDirectory().set(
+							rootProject.getLayout().getBuildDirectory().dir( "tmp/jakarta-transformer-metrics" )
+					);
+				}
+		);
+	}
+
+	/**
+	 * Where workers write their metrics - see {@link TransformationMetrics#spool}
+	 */
+	public File getSpoolDirectory() {
+		return getParameters().getSpoolDirectory().get().getAsFile();
+	}
+
+	public void record(TransformationMetrics transformationMetrics) {
+		synchronized ( metrics ) {
+			metrics.add( transformationMetrics );
+		}
+	}
+
+	@Override
+	public void close() {
+		final List<TransformationMetrics> allMetrics;
+		synchronized ( metrics ) {
+			allMetrics = new ArrayList<>( metrics );
+		}
+		allMetrics.addAll( readSpooled() );
+
+		if ( allMetrics.isEmpty() ) {
+			return;
+		}
+
+		allMetrics.sort(
+				Comparator.comparing( TransformationMetrics::getProjectPath )
+						.thenComparing( TransformationMetrics::getSource )
+		);
+
+		final File report = new File( getParameters().getReportDirectory().get().getAsFile(), REPORT_NAME );
+		try {
+			writeJson( allMetrics, report );
+		}
+		catch (IOException e) {
+			log.warn( "Unable to write Jakarta transformation metrics to {}", report.getAbsolutePath(), e );
+		}
+
+		log.lifecycle( summaryTable( allMetrics, report ) );
+	}
+
+	private List<TransformationMetrics> readSpooled() {
+		final List<TransformationMetrics> spooled = new ArrayList<>();
+		final File[] files = getSpoolDirectory().listFiles( (dir, name) -> name.endsWith( ".properties" ) );
+		if ( files != null ) {
+			for ( File file : files ) {
+				try {
+					spooled.add( TransformationMetrics.load( file ) );
+				}
+				catch (IOException | RuntimeException e) {
+					log.debug( "Unable to read spooled transformation metrics {}", file, e );
+				}
+			}
+		}
+
+		try {
+			LocalTransformationCache.deleteRecursively( getSpoolDirectory().toPath() );
+		}
+		catch (IOException e) {
+			log.debug( "Unable to clean transformation metrics spool directory", e );
+		}
+		return spooled;
+	}
+
+	private static String summaryTable(List<TransformationMetrics> allMetrics, File report) {
+		final String rowFormat = "  %-50s %-19s %9s %9s %10s %10s %8s %8s %9s %9s%n";
+		final StringBuilder table = new StringBuilder();
+		table.append( "Jakarta transformation metrics (" ).append( report.getAbsolutePath() ).append( ")" ).append( System.lineSeparator() );
+		table.append(
+				String.format(
+						Locale.ROOT,
+						rowFormat,
+						"Transformation",
+						"Engine",
+						"Wall ms",
+						"CPU ms",
+						"In KB",
+						"Out KB",
+						"Entries",
+						"Classes",
+						"Resources",
+						"Fast-path"
+				)
+		);
+
+		long totalWall = 0;
+		long totalInput = 0;
+		long totalOutput = 0;
+		int passedThrough = 0;
+		for ( TransformationMetrics metrics : allMetrics ) {
+			if ( metrics.isPassedThrough() ) {
+				passedThrough++;
+			}
+			totalWall += metrics.getWallMillis();
+			totalInput += Math.max( 0, metrics.getInputBytes() );
+			totalOutput += Math.max( 0, metrics.getOutputBytes() );
+
+			table.append(
+					String.format(
+							Locale.ROOT,
+							rowFormat,
+							abbreviate( metrics.getProjectPath() + " " + metrics.getSource(), 50 ),
+							engineColumn( metrics ),
+							metrics.getWallMillis(),
+							optional( metrics.getCpuMillis() ),
+							optional( kilobytes( metrics.getInputBytes() ) ),
+							optional( kilobytes( metrics.getOutputBytes() ) ),
+							optional( metrics.getInputEntries() ),
+							optional( metrics.getRewrittenClasses() ),
+							optional( metrics.getRewrittenResources() ),
+							optional( metrics.getFastPathSkips() )
+					)
+			);
+		}
+
+		table.append(
+				String.format(
+						Locale.ROOT,
+						rowFormat,
+						"Total (" + allMetrics.size() + ")",
+						"",
+						totalWall,
+						"",
+						kilobytes( totalInput ),
+						kilobytes( totalOutput ),
+						"",
+						"",
+						"",
+						""
+				)
+		);
+		table.append( "  Transformations avoided by the pre-flight scan : " ).append( passedThrough );
+		return table.toString();
+	}
+
+	private static String engineColumn(TransformationMetrics metrics) {
+		if ( metrics.isFromCache() ) {
+			return "(cached)";
+		}
+		if ( metrics.isPassedThrough() ) {
+			return "(untouched)";
+		}
+		return metrics.getEngine().toLowerCase( Locale.ROOT );
+	}
+
+	private static String abbreviate(String value, int length) {
+		return value.length() <= length ? value : "..." + value.substring( value.length() - length + 3 );
+	}
+
+	private static long kilobytes(long bytes) {
+		return bytes < 0 ? -1 : ( bytes + 1023 ) / 1024;
+	}
+
+	private static String optional(long value) {
+		return value < 0 ? "-" : Long.toString( value );
+	}
+
+	private static void writeJson(List<TransformationMetrics> allMetrics, File report) throws IOException {
+		report.getParentFile().mkdirs();
+		try ( Writer writer = Files.newBufferedWriter( report.toPath(), StandardCharsets.UTF_8 ) ) {
+			writer.write( "[\n" );
+			for ( int i = 0; i < allMetrics.size(); i++ ) {
+				final TransformationMetrics metrics = allMetrics.get( i );
+				writer.write( "  {" );
+				writeField( writer, "project", metrics.getProjectPath(), true );
+				writeField( writer, "source", metrics.getSource(), false );
+				writeField( writer, "target", metrics.getTarget(), false );
+				writeField( writer, "engine", metrics.getEngine(), false );
+				writeField( writer, "executionMode", metrics.getExecutionMode(), false );
+				writer.write( ", \"fromCache\": " + metrics.isFromCache() );
+				writer.write( ", \"passedThrough\": " + metrics.isPassedThrough() );
+				writeField( writer, "wallMillis", metrics.getWallMillis() );
+				writeField( writer, "cpuMillis", metrics.getCpuMillis() );
+				writeField( writer, "inputBytes", metrics.getInputBytes() );
+				writeField( writer, "outputBytes", metrics.getOutputBytes() );
+				writeField( writer, "inputEntries", metrics.getInputEntries() );
+				writeField( writer, "outputEntries", metrics.getOutputEntries() );
+				writeField( writer, "rewrittenClasses", metrics.getRewrittenClasses() );
+				writeField( writer, "rewrittenResources", metrics.getRewrittenResources() );
+				writeField( writer, "fastPathSkips", metrics.getFastPathSkips() );
+				writer.write( i < allMetrics.size() - 1 ? "},\n" : "}\n" );
+			}
+			writer.write( "]\n" );
+		}
+	}
+
+	private static void writeField(Writer writer, String name, String value, boolean first) throws IOException {
+		if ( ! first ) {
+			writer.write( ", " );
+		}
+		writer.write( '"' + name + "\": " );
+		if ( value == null ) {
+			writer.write( "null" );
+			return;
+		}
+
+		writer.write( '"' );
+		for ( int i = 0; i < value.length(); i++ ) {
+			final char c = value.charAt( i );
+			if ( c == '"' || c == '\\' ) {
+				writer.write( '\\' );
+				writer.write( c );
+			}
+			else if ( c < 0x20 ) {
+				writer.write( String.format( Locale.ROOT, "\\u%04x", (int) c ) );
+			}
+			else {
+				writer.write( c );
+			}
+		}
+		writer.write( '"' );
+	}
+
+	/**
+	 * Negative values are unknown and written as `null`
+	 */
+	private static void writeField(Writer writer, String name, long value) throws IOException {
+		writer.write( ", \"" + name + "\": " + ( value < 0 ? "null" : Long.toString( value ) ) );
+	}
+}
@@ -0,0 +1,137 @@
+package org.hibernate.build.gradle.jakarta.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import org.hibernate.build.gradle.jakarta.ExecutionMode;
+import org.hibernate.build.gradle.jakarta.TransformationEngine;
+import org.hibernate.build.gradle.jakarta.TransformationException;
+import org.hibernate.build.gradle.jakarta.internal.jfr.TransformationEvents;
+import org.hibernate.build.gradle.jakarta.internal.remap.NativeTransformer;
+
+/**
+ * Runs a single JakartaTransformer invocation inside a (process isolated) Gradle
+ * worker.  The tool classes are part of the worker classpath.
+ *
+ * @author Steve Ebersole
+ */
+public abstract class TransformationWorkAction implements WorkAction<TransformationWorkAction.Parameters> {
+	private static final Logger log = Logging.getLogger( TransformationWorkAction.class );
+
+	/**
+	 * Cached per worker daemon; the daemons are reused across tasks and projects
+	 */
+	private static volatile ToolInvoker toolInvoker;
+
+	public interface Parameters extends WorkParameters {
+		/**
+		 * The tool command-line arguments
+		 */
+		ListProperty<String> getArguments();
+
+		/**
+		 * File to which the tool's output is appended
+		 */
+		RegularFileProperty getLoggingOutput();
+
+		/**
+		 * The transformation target
+		 */
+		Property<File> getTarget();
+
+		/**
+		 * Whether the transformed archive is normalized to be reproducible
+		 */
+		Property<Boolean> getReproducible();
+
+		/**
+		 * The path of the project performing the transformation, for metrics
+		 */
+		Property<String> getProjectPath();
+
+		/**
+		 * Directory to which the transformation metrics are spooled
+		 */
+		Property<File> getMetricsDirectory();
+
+		/**
+		 * The local transformation cache key under which to store the result, if the cache is enabled
+		 */
+		Property<String> getCacheKey();
+		Property<File> getCacheDirectory();
+	}
+
+	@Override
+	public void execute() {
+		final File source = new File( getParameters().getArguments().get().get( 0 ) );
+		final File target = getParameters().getTarget().get();
+		final TransformationMetrics metrics = TransformationMetrics.start(
+				getParameters().getProjectPath().get(),
+				source,
+				target,
+				TransformationEngine.JAKARTA_TRANSFORMER.name(),
+				ExecutionMode.WORKER.name()
+		);
+
+		final File loggingOutput = getParameters().getLoggingOutput().get().getAsFile();
+		loggingOutput.getParentFile().mkdirs();
+
+		try ( TransformationEvents.Phase phase = TransformationEvents.begin( TransformationEvents.TRANSFORM, getParameters().getProjectPath().get(), source );
+				PrintStream printStream = new PrintStream( new BufferedOutputStream( new FileOutputStream( loggingOutput, true ) ), true ) ) {
+			phase.detail( TransformationEngine.JAKARTA_TRANSFORMER + "/" + ExecutionMode.WORKER ).output( target );
+			final int rc = resolveToolInvoker().invoke( getParameters().getArguments().get(), printStream );
+			if ( rc != 0 ) {
+				log.warn( "JakartaTransformer returned {}; see {}", rc, loggingOutput.getAbsolutePath() );
+			}
+
+			if ( getParameters().getReproducible().getOrElse( false ) && NativeTransformer.isArchive( target ) ) {
+				NativeTransformer.normalize( target );
+			}
+		}
+		catch (IOException e) {
+			throw new TransformationException( "Unable to write JakartaTransformer output : " + loggingOutput.getAbsolutePath(), e );
+		}
+
+		metrics.complete( source, target, null, true ).spool( getParameters().getMetricsDirectory().get() );
+
+		log.info(
+				"JakartaTransformer (WORKER) : {} ({} ms)",
+				source.getName(),
+				metrics.getWallMillis()
+		);
+
+		if ( getParameters().getCacheKey().isPresent() ) {
+			new LocalTransformationCache( getParameters().getCacheDirectory().get() ).store(
+					getParameters().getCacheKey().get(),
+					target
+			);
+		}
+	}
+
+	private static ToolInvoker resolveToolInvoker() {
+		if ( toolInvoker == null ) {
+			synchronized ( TransformationWorkAction.class ) {
+				if ( toolInvoker == null ) {
+					try {
+						toolInvoker = new ToolInvoker( TransformationWorkAction.class.getClassLoader() );
+					}
+					catch (ClassNotFoundException | NoSuchMethodException e) {
+						throw new TransformationException( "Unable to invoke JakartaTransformer in worker", e );
+					}
+				}
+			}
+		}
+		return toolInvoker;
+	}
+}
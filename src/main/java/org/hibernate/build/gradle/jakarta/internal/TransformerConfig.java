@@ -1,17 +1,27 @@
 package org.hibernate.build.gradle.jakarta.internal;
 
+import java.io.File;
 import java.time.Instant;
 import java.util.List;
 
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.dsl.DependencyHandler;
+import org.gradle.api.artifacts.type.ArtifactTypeDefinition;
+import org.gradle.api.attributes.AttributeContainer;
 import org.gradle.api.file.Directory;
 import org.gradle.api.file.RegularFile;
 import org.gradle.api.provider.Provider;
-import org.gradle.api.tasks.InputFile;
 
+import org.hibernate.build.gradle.jakarta.ExecutionMode;
+import org.hibernate.build.gradle.jakarta.TransformationEngine;
 import org.hibernate.build.gradle.jakarta.TransformationException;
 
+import static org.hibernate.build.gradle.jakarta.TransformerPlugin.JAKARTA_JAR_TYPE;
+import static org.hibernate.build.gradle.jakarta.TransformerPlugin.JAKARTA_NAMESPACE;
+import static org.hibernate.build.gradle.jakarta.TransformerPlugin.NAMESPACE_ATTRIBUTE;
+
 
 /**
  * Information shared across transformations
@@ -21,14 +31,28 @@ import org.hibernate.build.gradle.jakarta.TransformationException;
 public class TransformerConfig implements TransformerTool.Config, TransformerToolAccess {
 	private final Instant buildStarted = Instant.now();
 
+	private final Configuration toolDependencies;
 	private final Provider<Directory> outputDirectory;
 
 	private final Provider<RegularFile> renameRules;
 	private final Provider<RegularFile> versionRules;
 	private final Provider<RegularFile> directRules;
 
-	private final CrossProjectTransformationController crossProjectTransformationController;
+	private final Provider<ExecutionMode> executionMode;
+	private final Provider<List<String>> toolJvmArgs;
+	private final Provider<TransformationEngine> engine;
+	private final Provider<Boolean> localCache;
+	private final Provider<Long> localCacheSizeLimit;
+	private final Provider<Boolean> reproducible;
+
+	private final TransformationInputs transformationInputs;
+
+	private final Provider<CrossProjectTransformationController> crossProjectTransformationController;
+	private final Provider<DependencyArtifactService> dependencyArtifacts;
+	private final Provider<TransformerTool> transformerToolAccess;
+	private final Provider<ToolClassLoaderService> classLoaderService;
 	private TransformerTool transformerTool;
+	private boolean artifactTransformRegistered;
 
 	public TransformerConfig(
 			Configuration jakartaToolDependencies,
@@ -36,20 +60,92 @@ public class TransformerConfig implements TransformerTool.Config, TransformerToo
 			Provider<RegularFile> renameRules,
 			Provider<RegularFile> versionRules,
 			Provider<RegularFile> directRules,
+			Provider<ExecutionMode> executionMode,
+			Provider<List<String>> toolJvmArgs,
+			Provider<TransformationEngine> engine,
+			Provider<Boolean> localCache,
+			Provider<Long> localCacheSizeLimit,
+			Provider<Boolean> reproducible,
 			Project project) {
+		this.toolDependencies = jakartaToolDependencies;
 		this.outputDirectory = outputDirectory;
 
 		this.renameRules = renameRules;
 		this.versionRules = versionRules;
 		this.directRules = directRules;
 
-		crossProjectTransformationController = CrossProjectTransformationController.apply( project );
+		this.executionMode = executionMode;
+		this.toolJvmArgs = toolJvmArgs;
+		this.engine = engine;
+		this.localCache = localCache;
+		this.localCacheSizeLimit = localCacheSizeLimit;
+		this.reproducible = reproducible;
+
+		this.transformationInputs = new TransformationInputs(
+				renameRules,
+				versionRules,
+				directRules,
+				jakartaToolDependencies,
+				reproducible
+		);
+		this.transformerToolAccess = project.provider( this::getTransformer );
+
+		crossProjectTransformationController = CrossProjectTransformationController.register( project );
+		dependencyArtifacts = DependencyArtifactService.register( project );
+
+		classLoaderService = project.getGradle().getSharedServices().registerIfAbsent(
+				ToolClassLoaderService.REGISTRATION_NAME,
+				ToolClassLoaderService.class,
+				(spec) -> {}
+		);
+		final Provider<RuleSetCacheService> ruleSetCache = RuleSetCacheService.register( project );
+		final Provider<TransformationCacheService> transformationCache = TransformationCacheService.register(
+				project,
+				localCacheSizeLimit
+		);
+		final Provider<TransformationBatchService> batchService = TransformationBatchService.register( project );
+		final Provider<TransformationMetricsService> metricsService = TransformationMetricsService.register( project );
+		final Provider<SharedTransformationService> sharedTransformations = SharedTransformationService.register( project );
 
 		project.afterEvaluate(
-				(p) -> transformerTool = new TransformerTool( jakartaToolDependencies, this, p )
+				(p) -> transformerTool = p.getObjects().newInstance(
+						TransformerTool.class,
+						jakartaToolDependencies,
+						this,
+						classLoaderService,
+						ruleSetCache,
+						transformationCache,
+						batchService,
+						metricsService,
+						sharedTransformations,
+						p
+				)
 		);
 	}
 
+	/**
+	 * The JakartaTransformer tool classpath
+	 */
+	public Configuration toolDependenciesAccess() {
+		return toolDependencies;
+	}
+
+	/**
+	 * The rule files and tool classpath, as task inputs
+	 */
+	public TransformationInputs transformationInputsAccess() {
+		return transformationInputs;
+	}
+
+	/**
+	 * Lazy access to the {@linkplain #getTransformer() TransformerTool} for tasks.  Tasks hold this
+	 * rather than the TransformerConfig, which references the `Project`, so they can be stored in
+	 * the configuration cache.
+	 */
+	public Provider<TransformerTool> transformerAccess() {
+		return transformerToolAccess;
+	}
+
 	public Provider<Directory> outputDirectoryAccess() {
 		return outputDirectory;
 	}
@@ -59,29 +155,102 @@ public class TransformerConfig implements TransformerTool.Config, TransformerToo
 	}
 
 	@Override
-	@InputFile
 	public Provider<RegularFile> renameRuleAccess() {
 		return renameRules;
 	}
 
 	@Override
-	@InputFile
 	public Provider<RegularFile> versionRuleAccess() {
 		return versionRules;
 	}
 
 	@Override
-	@InputFile
 	public Provider<RegularFile> directRuleAccess() {
 		return directRules;
 	}
 
+	@Override
+	public Provider<ExecutionMode> executionModeAccess() {
+		return executionMode;
+	}
+
+	@Override
+	public Provider<List<String>> toolJvmArgsAccess() {
+		return toolJvmArgs;
+	}
+
+	@Override
+	public Provider<TransformationEngine> engineAccess() {
+		return engine;
+	}
+
+	@Override
+	public Provider<Boolean> localCacheAccess() {
+		return localCache;
+	}
+
+	public Provider<Long> localCacheSizeLimitAccess() {
+		return localCacheSizeLimit;
+	}
+
+	@Override
+	public Provider<Boolean> reproducibleAccess() {
+		return reproducible;
+	}
+
+	/**
+	 * Register the {@link JakartaArtifactTransform} from `jar` artifacts to the {@link org.hibernate.build.gradle.jakarta.TransformerPlugin#JAKARTA_JAR_TYPE}
+	 * artifact type in the `jakarta` namespace.  Only those requesting the transformed artifacts (see
+	 * {@link #requestTransformedArtifacts}) are affected
+	 */
+	public void registerArtifactTransform(Project project) {
+		if ( artifactTransformRegistered ) {
+			return;
+		}
+		artifactTransformRegistered = true;
+
+		final DependencyHandler dependencies = project.getDependencies();
+		dependencies.getAttributesSchema().attribute( NAMESPACE_ATTRIBUTE );
+
+		dependencies.registerTransform(
+				JakartaArtifactTransform.class,
+				(spec) -> {
+					spec.getFrom().attribute( ArtifactTypeDefinition.ARTIFACT_TYPE_ATTRIBUTE, ArtifactTypeDefinition.JAR_TYPE );
+					spec.getTo().attribute( ArtifactTypeDefinition.ARTIFACT_TYPE_ATTRIBUTE, JAKARTA_JAR_TYPE );
+					spec.getTo().attribute( NAMESPACE_ATTRIBUTE, JAKARTA_NAMESPACE );
+
+					spec.getParameters().getRenameRules().set( renameRules );
+					spec.getParameters().getVersionRules().set( versionRules );
+					spec.getParameters().getDirectRules().set( directRules );
+					spec.getParameters().getEngine().set( engine );
+					spec.getParameters().getReproducible().set( reproducible );
+					spec.getParameters().getToolClasspath().from( toolDependencies );
+					spec.getParameters().getClassLoaderService().set( classLoaderService );
+				}
+		);
+	}
+
+	/**
+	 * Request the artifacts of the {@link JakartaArtifactTransform} - of a configuration or an artifact view
+	 */
+	public static void requestTransformedArtifacts(AttributeContainer attributes) {
+		attributes.attribute( ArtifactTypeDefinition.ARTIFACT_TYPE_ATTRIBUTE, JAKARTA_JAR_TYPE );
+		attributes.attribute( NAMESPACE_ATTRIBUTE, JAKARTA_NAMESPACE );
+	}
+
+	/**
+	 * Request the artifact of a dependency to transform.  See {@link DependencyArtifactService}
+	 */
+	public Provider<File> requestDependencyArtifact(Project project, Provider<Dependency> dependency) {
+		return dependencyArtifacts.get().request( project, dependency, this );
+	}
+
 	public void addSubstitutions(Substitutions substitutions) {
-		crossProjectTransformationController.addSubstitutions( substitutions );
+		crossProjectTransformationController.get().addSubstitutions( substitutions );
 	}
 
 	public void applyDependencyResolutionStrategy(Configuration configuration) {
-		crossProjectTransformationController.applyDependencyResolutionStrategy( configuration );
+		crossProjectTransformationController.get().applyDependencyResolutionStrategy( configuration );
 	}
 
 	@Override
@@ -94,11 +263,11 @@ public class TransformerConfig implements TransformerTool.Config, TransformerToo
 
 
 	public void registerShadowedProject(Project sourceProject, Project shadowProject) {
-		crossProjectTransformationController.registerShadowedProject( sourceProject, shadowProject );
+		crossProjectTransformationController.get().registerShadowedProject( sourceProject, shadowProject );
 	}
 
 	public void registerShadowTestProjectDependencies(Project targetProject, List<Project> dependencyProjects) {
-		crossProjectTransformationController.registerProjectDependencies( targetProject, dependencyProjects );
+		crossProjectTransformationController.get().registerProjectDependencies( targetProject, dependencyProjects );
 	}
 
 }
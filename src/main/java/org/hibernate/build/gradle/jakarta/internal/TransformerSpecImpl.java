@@ -11,8 +11,13 @@ import org.gradle.api.artifacts.ResolutionStrategy;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.RegularFile;
 import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.TaskProvider;
 import org.gradle.util.ConfigureUtil;
 
+import org.hibernate.build.gradle.jakarta.ExecutionMode;
+import org.hibernate.build.gradle.jakarta.TransformationEngine;
 import org.hibernate.build.gradle.jakarta.TransformerSpec;
 import org.hibernate.build.gradle.jakarta.adhoc.DependencyTransformationTask;
 import org.hibernate.build.gradle.jakarta.adhoc.DirectoryTransformationTask;
@@ -58,6 +63,12 @@ public class TransformerSpecImpl implements TransformerSpec {
 				project.getObjects().fileProperty(),
 				project.getObjects().fileProperty(),
 				project.getObjects().fileProperty(),
+				project.getObjects().property( ExecutionMode.class ).convention( ExecutionMode.WORKER ),
+				project.getObjects().listProperty( String.class ),
+				project.getObjects().property( TransformationEngine.class ).convention( TransformationEngine.JAKARTA_TRANSFORMER ),
+				project.getObjects().property( Boolean.class ).convention( true ),
+				project.getObjects().property( Long.class ).convention( 1024L ),
+				project.getObjects().property( Boolean.class ).convention( false ),
 				project
 		);
 	}
@@ -168,6 +179,84 @@ public class TransformerSpecImpl implements TransformerSpec {
 		getDirectRules().set( project.file( directRulesFile ) );
 	}
 
+	@Override
+	@SuppressWarnings("unchecked")
+	public Property<ExecutionMode> getExecutionMode() {
+		return (Property<ExecutionMode>) transformerConfig.executionModeAccess();
+	}
+
+	@Override
+	public void executionMode(Object executionMode) {
+		getExecutionMode().set( ExecutionMode.interpret( executionMode ) );
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Property<TransformationEngine> getEngine() {
+		return (Property<TransformationEngine>) transformerConfig.engineAccess();
+	}
+
+	@Override
+	public void engine(Object engine) {
+		getEngine().set( TransformationEngine.interpret( engine ) );
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public ListProperty<String> getToolJvmArgs() {
+		return (ListProperty<String>) transformerConfig.toolJvmArgsAccess();
+	}
+
+	@Override
+	public void toolJvmArgs(String... jvmArgs) {
+		getToolJvmArgs().addAll( jvmArgs );
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Property<Boolean> getLocalCache() {
+		return (Property<Boolean>) transformerConfig.localCacheAccess();
+	}
+
+	@Override
+	public void localCache(boolean enabled) {
+		getLocalCache().set( enabled );
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Property<Long> getLocalCacheSizeLimit() {
+		return (Property<Long>) transformerConfig.localCacheSizeLimitAccess();
+	}
+
+	@Override
+	public void localCacheSizeLimit(long megabytes) {
+		getLocalCacheSizeLimit().set( megabytes );
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Property<Boolean> getReproducible() {
+		return (Property<Boolean>) transformerConfig.reproducibleAccess();
+	}
+
+	@Override
+	public void reproducible(boolean enabled) {
+		getReproducible().set( enabled );
+	}
+
+	@Override
+	public void transformArtifacts(Object... configurations) {
+		transformerConfig.registerArtifactTransform( project );
+
+		for ( Object configuration : configurations ) {
+			final Configuration resolved = configuration instanceof Configuration
+					? (Configuration) configuration
+					: project.getConfigurations().getByName( configuration.toString() );
+			TransformerConfig.requestTransformedArtifacts( resolved.getAttributes() );
+		}
+	}
+
 	@Override
 	public void dependencyResolutions(Closure<ResolutionStrategy> closure) {
 		transformerConfig.addSubstitutions(
@@ -185,39 +274,42 @@ public class TransformerSpecImpl implements TransformerSpec {
 	 */
 	@Override
 	public void dependencyTransformation(String transformationName, Closure<DependencyTransformationTask> closure) {
-		final DependencyTransformationTask transformationTask = getDependencyTransformationTask( transformationName );
-		ConfigureUtil.configure( closure, transformationTask );
+		getDependencyTransformationTask( transformationName ).configure(
+				(transformationTask) -> ConfigureUtil.configure( closure, transformationTask )
+		);
 	}
 
-	private DependencyTransformationTask getDependencyTransformationTask(String transformationName) {
+	private TaskProvider<DependencyTransformationTask> getDependencyTransformationTask(String transformationName) {
 		final String taskName = determineTransformationTaskName( transformationName );
-		project.getLogger().lifecycle( "Creating dependency transformation `{}` : `{}`", transformationName, taskName );
+		if ( project.getTasks().getNames().contains( taskName ) ) {
+			return project.getTasks().named( taskName, DependencyTransformationTask.class );
+		}
 
-		DependencyTransformationTask transformationTask = (DependencyTransformationTask) project.getTasks().findByName( taskName );
-		if ( transformationTask == null ) {
-			transformationTask = project.getTasks().create(
-					taskName,
-					DependencyTransformationTask.class,
-					transformerConfig
-			);
-			transformationTask.getOutput().convention(
-					project.provider(
-							() -> {
-								String outputFileName = transformationName;
+		project.getLogger().lifecycle( "Creating dependency transformation `{}` : `{}`", transformationName, taskName );
+		final TaskProvider<DependencyTransformationTask> transformationTask = project.getTasks().register(
+				taskName,
+				DependencyTransformationTask.class,
+				transformerConfig
+		);
+		transformationTask.configure(
+				(task) -> task.getOutput().convention(
+						project.provider(
+								() -> {
+									String outputFileName = transformationName;
 
-								final String versionString = project.getVersion().toString().trim();
-								if ( !versionString.isEmpty() && !versionString.equals( "unspecified" ) ) {
-									outputFileName += ( "-" + versionString );
+									final String versionString = project.getVersion().toString().trim();
+									if ( !versionString.isEmpty() && !versionString.equals( "unspecified" ) ) {
+										outputFileName += ( "-" + versionString );
 
-								}
+									}
 
-								outputFileName += ".jar";
+									outputFileName += ".jar";
 
-								return transformerConfig.outputDirectoryAccess().get().file( outputFileName );
-							}
-					)
-			);
-		}
+									return transformerConfig.outputDirectoryAccess().get().file( outputFileName );
+								}
+						)
+				)
+		);
 		return transformationTask;
 	}
 
@@ -227,38 +319,37 @@ public class TransformerSpecImpl implements TransformerSpec {
 
 	@Override
 	public void dependencyTransformation(String transformationName, Action<DependencyTransformationTask> transformationSpec) {
-		final DependencyTransformationTask transformationTask = getDependencyTransformationTask( transformationName );
-		transformationSpec.execute( transformationTask );
+		getDependencyTransformationTask( transformationName ).configure( transformationSpec );
 	}
 
 	@Override
 	public void directoryTransformation(String transformationName, Closure<DirectoryTransformationTask> closure) {
-		final DirectoryTransformationTask transformationTask = getDirectoryTransformationTask( transformationName );
-		ConfigureUtil.configure( closure, transformationTask );
+		getDirectoryTransformationTask( transformationName ).configure(
+				(transformationTask) -> ConfigureUtil.configure( closure, transformationTask )
+		);
 	}
 
 	@Override
 	public void directoryTransformation(String transformationName, Action<DirectoryTransformationTask> transformationSpec) {
-		final DirectoryTransformationTask transformationTask = getDirectoryTransformationTask( transformationName );
-		transformationSpec.execute( transformationTask );
+		getDirectoryTransformationTask( transformationName ).configure( transformationSpec );
 	}
 
-	private DirectoryTransformationTask getDirectoryTransformationTask(String name) {
+	private TaskProvider<DirectoryTransformationTask> getDirectoryTransformationTask(String name) {
 		final String taskName = determineTransformationTaskName( name );
-		DirectoryTransformationTask transformationTask = (DirectoryTransformationTask) project.getTasks().findByName( taskName );
-		if ( transformationTask == null ) {
-			transformationTask = project.getTasks().create(
-					taskName,
-					DirectoryTransformationTask.class,
-					name,
-					transformerConfig
-			);
-			transformationTask.getOutput().convention(
-					project.provider(
-							() -> transformerConfig.outputDirectoryAccess().get().dir( name )
-					)
-			);
+		if ( project.getTasks().getNames().contains( taskName ) ) {
+			return project.getTasks().named( taskName, DirectoryTransformationTask.class );
 		}
+
+		final TaskProvider<DirectoryTransformationTask> transformationTask = project.getTasks().register(
+				taskName,
+				DirectoryTransformationTask.class,
+				transformerConfig
+		);
+		transformationTask.configure(
+				(task) -> task.getOutput().convention(
+						transformerConfig.outputDirectoryAccess().map( (directory) -> directory.dir( name ) )
+				)
+		);
 		return transformationTask;
 	}
 
@@ -268,46 +359,47 @@ public class TransformerSpecImpl implements TransformerSpec {
 	 */
 	@Override
 	public void fileTransformation(String transformationName, Closure<FileTransformationTask> closure) {
-		final FileTransformationTask transformationTask = getFileTransformationTask( transformationName );
-		ConfigureUtil.configure( closure, transformationTask );
+		getFileTransformationTask( transformationName ).configure(
+				(transformationTask) -> ConfigureUtil.configure( closure, transformationTask )
+		);
 	}
 
 	@Override
 	public void fileTransformation(String transformationName, Action<FileTransformationTask> transformationSpec) {
-		final FileTransformationTask transformationTask = getFileTransformationTask( transformationName );
-		transformationSpec.execute( transformationTask );
+		getFileTransformationTask( transformationName ).configure( transformationSpec );
 	}
 
-	private FileTransformationTask getFileTransformationTask(String transformationName) {
+	private TaskProvider<FileTransformationTask> getFileTransformationTask(String transformationName) {
 		final String taskName = determineTransformationTaskName( transformationName );
-		FileTransformationTask transformationTask = (FileTransformationTask) project.getTasks().findByName( taskName );
-		if ( transformationTask == null ) {
-			final FileTransformationTask task = project.getTasks().create(
-					taskName,
-					FileTransformationTask.class,
-					transformationName,
-					transformerConfig
-			);
-			transformationTask = task;
-			transformationTask.getOutput().convention(
-					project.provider(
-							() -> {
-								final RegularFile source = task.getSource().get();
-
-								// this assumes "single dot" file extensions
-								final String sourceFileName = source.getAsFile().getName();
-								final int extensionDelimiterLocation = sourceFileName.lastIndexOf( '.' );
-								String outputFileName = transformationName;
-								project.getVersion();
-								if ( ! "unspecified".equals( project.getVersion() ) ) {
-									outputFileName += ( "-" + project.getVersion());
-								}
-								outputFileName += ( "." + sourceFileName.substring( extensionDelimiterLocation ) );
-								return transformerConfig.outputDirectoryAccess().get().file( outputFileName );
-							}
-					)
-			);
+		if ( project.getTasks().getNames().contains( taskName ) ) {
+			return project.getTasks().named( taskName, FileTransformationTask.class );
 		}
+
+		final TaskProvider<FileTransformationTask> transformationTask = project.getTasks().register(
+				taskName,
+				FileTransformationTask.class,
+				transformerConfig
+		);
+		transformationTask.configure(
+				(task) -> task.getOutput().convention(
+						project.provider(
+								() -> {
+									final RegularFile source = task.getSource().get();
+
+									// this assumes "single dot" file extensions
+									final String sourceFileName = source.getAsFile().getName();
+									final int extensionDelimiterLocation = sourceFileName.lastIndexOf( '.' );
+									String outputFileName = transformationName;
+									project.getVersion();
+									if ( ! "unspecified".equals( project.getVersion() ) ) {
+										outputFileName += ( "-" + project.getVersion());
+									}
+									outputFileName += ( "." + sourceFileName.substring( extensionDelimiterLocation ) );
+									return transformerConfig.outputDirectoryAccess().get().file( outputFileName );
+								}
+						)
+				)
+		);
 		return transformationTask;
 	}
 
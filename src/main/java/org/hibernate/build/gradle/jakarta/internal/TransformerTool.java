@@ -1,92 +1,139 @@
 package org.hibernate.build.gradle.jakarta.internal;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.UnaryOperator;
+import javax.inject.Inject;
 
 import org.gradle.api.Project;
-import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.file.FileCollection;
 import org.gradle.api.file.FileSystemLocation;
 import org.gradle.api.file.RegularFile;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.api.provider.Provider;
+import org.gradle.process.ExecOperations;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+
+import org.hibernate.build.gradle.jakarta.ExecutionMode;
+import org.hibernate.build.gradle.jakarta.TransformationEngine;
+import org.hibernate.build.gradle.jakarta.TransformationException;
+import org.hibernate.build.gradle.jakarta.internal.remap.NativeTransformer;
+import org.hibernate.build.gradle.jakarta.internal.remap.RenameRules;
+import org.hibernate.build.gradle.jakarta.internal.remap.StringRemapper;
+import org.hibernate.build.gradle.jakarta.internal.jfr.TransformationEvents;
 
 import static java.time.format.DateTimeFormatter.ofPattern;
 
 /**
- * Performs transformations via reflective execution of the JakartaTransformer tool
+ * Performs transformations via execution of the JakartaTransformer tool, in a pooled
+ * worker process, reflectively in-process or in a forked JVM depending on {@link ExecutionMode},
+ * or via the plugin's {@linkplain TransformationEngine#NATIVE native engine}
  *
  * @author Steve Ebersole
  */
 public class TransformerTool {
 	public static final String TOOL_CLI_FQN = "org.eclipse.transformer.jakarta.JakartaTransformer";
 
+	private static final Logger log = Logging.getLogger( TransformerTool.class );
+
 	public interface Config {
 		Provider<RegularFile> renameRuleAccess();
 		Provider<RegularFile> versionRuleAccess();
 		Provider<RegularFile> directRuleAccess();
+		Provider<ExecutionMode> executionModeAccess();
+		Provider<List<String>> toolJvmArgsAccess();
+		Provider<TransformationEngine> engineAccess();
+		Provider<Boolean> localCacheAccess();
+		Provider<Boolean> reproducibleAccess();
 	}
 
-	private final Configuration toolDependencies;
-	private final Config config;
-	private final Project project;
+	private final FileCollection toolDependencies;
+	private final Provider<RegularFile> renameRules;
+	private final Provider<RegularFile> versionRules;
+	private final Provider<RegularFile> directRules;
+	private final Provider<ExecutionMode> configuredExecutionMode;
+	private final Provider<List<String>> toolJvmArgs;
+	private final Provider<TransformationEngine> defaultEngine;
+	private final Provider<Boolean> localCache;
+	private final Provider<Boolean> reproducible;
+	private final Provider<ToolClassLoaderService> classLoaderService;
+	private final Provider<RuleSetCacheService> ruleSetCache;
+	private final Provider<TransformationCacheService> transformationCache;
+	private final Provider<TransformationBatchService> batchService;
+	private final Provider<TransformationMetricsService> metricsService;
+	private final Provider<SharedTransformationService> sharedTransformations;
+	private final ExecOperations execOperations;
 
-	private final RegularFile transformerLoggingOutput;
+	private final String projectPath;
+	private final File transformerLoggingDirectory;
+	private final File buildDirectory;
+	private final File gradleUserHomeDirectory;
 
+	/**
+	 * Named for the time of the first transformation, so not part of the configuration cache entry
+	 */
+	private transient volatile File transformerLoggingOutput;
+
+	/**
+	 * Created through {@link org.gradle.api.model.ObjectFactory#newInstance} for the {@link ExecOperations}
+	 * injection.  Holds no reference to the `Project` (nor the {@link TransformerConfig}) so the
+	 * tasks using it can be stored in the configuration cache.
+	 */
+	@Inject
 	public TransformerTool(
-			Configuration toolDependencies,
+			FileCollection toolDependencies,
 			Config config,
-			Project project) {
+			Provider<ToolClassLoaderService> classLoaderService,
+			Provider<RuleSetCacheService> ruleSetCache,
+			Provider<TransformationCacheService> transformationCache,
+			Provider<TransformationBatchService> batchService,
+			Provider<TransformationMetricsService> metricsService,
+			Provider<SharedTransformationService> sharedTransformations,
+			Project project,
+			ExecOperations execOperations) {
 		this.toolDependencies = toolDependencies;
-		this.config = config;
-		this.project = project;
+		this.renameRules = config.renameRuleAccess();
+		this.versionRules = config.versionRuleAccess();
+		this.directRules = config.directRuleAccess();
+		this.configuredExecutionMode = config.executionModeAccess();
+		this.toolJvmArgs = config.toolJvmArgsAccess();
+		this.defaultEngine = config.engineAccess();
+		this.localCache = config.localCacheAccess();
+		this.reproducible = config.reproducibleAccess();
+		this.classLoaderService = classLoaderService;
+		this.ruleSetCache = ruleSetCache;
+		this.transformationCache = transformationCache;
+		this.batchService = batchService;
+		this.metricsService = metricsService;
+		this.sharedTransformations = sharedTransformations;
+		this.execOperations = execOperations;
 
-		final DateTimeFormatter formatter = ofPattern( "yyyy-MM-dd_HH-mm-ss" );
+		this.projectPath = project.getPath();
 
-		transformerLoggingOutput = project.getLayout()
+		transformerLoggingDirectory = project.getLayout()
 				.getBuildDirectory()
 				.dir( "tmp/jakarta-transformer-output" )
 				.get()
 				.dir( project.getName() )
-				.file( formatter.format( LocalDateTime.now() ) + ".txt" );
-
-// todo : would be nice to call Transformer directly, but
-//		- they require a Map keys by enums that are effectively Strings.  But they still require use of the enums which,
-//			unfortunately, make it difficult to handle reflectively
-//		- they have odd calls, like you "set" the files and then call a no-arg method
-//  	:(
-//
-//
-//		final Class<?> transformerClass = loadToolClass( TRANSFORMER_FQN, toolDependencies );
-//
-//		final Class<?> toolClass = loadToolClass( TOOL_FQN, toolDependencies );
-//
-//		try {
-//			toolReference = toolClass.getDeclaredConstructor().newInstance();
-//		}
-//		catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-//			throw new TransformationException( "Unable to create `" + TOOL_FQN + "` reference", e );
-//		}
-//
-//		final Map<Str>
-//		final Method optionsMethod = resolveToolMethod( toolClass, TOOL_OPTIONS_METHOD, Class.class, Map.class );
-//		try {
-//			optionsMethod.invoke( toolReference, transformerClass );
-//		}
-//		catch (IllegalAccessException | InvocationTargetException e) {
-//			throw new TransformationException( "Unable to call `" + TOOL_FQN + "#" + TOOL_OPTIONS_METHOD + "`", e );
-//		}
-//
-//		final Method argsMethod = resolveToolMethod( toolClass, TOOL_ARGS_METHOD, String[].class );
-//
-//		runMethod = resolveToolMethod( toolClass, TOOL_RUN_METHOD );
+				.getAsFile();
+
+		buildDirectory = project.getLayout().getBuildDirectory().get().getAsFile();
+		gradleUserHomeDirectory = project.getGradle().getGradleUserHomeDir();
 	}
 
 	public void transform(RegularFile sourceFile, RegularFile targetFile) {
@@ -97,7 +144,115 @@ public class TransformerTool {
 		transform( source.getAsFile(), target.getAsFile() );
 	}
 
+	public void transform(
+			FileSystemLocation source,
+			FileSystemLocation target,
+			TransformationEngine engine,
+			WorkerExecutor workerExecutor) {
+		transform( source.getAsFile(), target.getAsFile(), engine, workerExecutor );
+	}
+
 	public void transform(File source, File target) {
+		transform( source, target, defaultEngine.getOrElse( TransformationEngine.JAKARTA_TRANSFORMER ), null );
+	}
+
+	/**
+	 * Perform the transformation.  When a WorkerExecutor is given and the execution mode is
+	 * {@link ExecutionMode#WORKER}, the transformation is submitted as Gradle work (the
+	 * JakartaTransformer tool in a pooled worker process) and this method returns immediately;
+	 * the calling task completes when the work does.
+	 *
+	 * In {@link ExecutionMode#BATCH} mode the transformation is queued to the build-wide
+	 * {@link TransformationBatchService} and this method returns once it has completed.
+	 *
+	 * Unless disabled, the {@linkplain TransformationCacheService local transformation cache} is
+	 * consulted first; otherwise the result is stored there once the transformation completes.
+	 *
+	 * With the native engine, a source file the rules cannot change (see {@link #passThrough}) is not transformed at all, and
+	 * of a source directory only the files whose content changes are written (see {@link #linkUnchangedFiles}).
+	 *
+	 * When {@linkplain Config#reproducibleAccess() reproducible}, archives produced by the JakartaTransformer
+	 * tool are {@linkplain NativeTransformer#normalize normalized} once it completes.
+	 */
+	public void transform(File source, File target, TransformationEngine engine, WorkerExecutor workerExecutor) {
+		transform( source, target, engine, workerExecutor, true );
+	}
+
+	/**
+	 * As {@link #transform(File, File, TransformationEngine, WorkerExecutor)}, but without the local transformation
+	 * cache - for the single files of an incremental directory transformation, each of which would otherwise become
+	 * a cache entry of its own
+	 */
+	public void transformUncached(File source, File target, TransformationEngine engine, WorkerExecutor workerExecutor) {
+		transform( source, target, engine, workerExecutor, false );
+	}
+
+	/**
+	 * As {@link #transform(File, File, TransformationEngine, WorkerExecutor)}, but performed only once per build for
+	 * all identical transformations (see {@link SharedTransformationService}); the shared result is then linked (or
+	 * copied) to the target.  Returns once the target is complete - in {@link ExecutionMode#WORKER} mode, the task
+	 * performing the shared transformation waits for its work
+	 */
+	public void transformShared(File source, File target, TransformationEngine engine, WorkerExecutor workerExecutor) {
+		final File sharedOutput = sharedTransformations.get().share(
+				transformationKey( source, engine ),
+				target.getName(),
+				(output) -> {
+					transform( source, output, engine, workerExecutor );
+					if ( workerExecutor != null ) {
+						workerExecutor.await();
+					}
+				}
+		);
+
+		try {
+			Helper.linkOrCopy( sharedOutput.toPath(), target.toPath() );
+		}
+		catch (IOException e) {
+			throw new TransformationException( "Unable to link shared transformation to " + target.getAbsolutePath(), e );
+		}
+	}
+
+	private void transform(File source, File target, TransformationEngine engine, WorkerExecutor workerExecutor, boolean useCache) {
+		final String cacheKey;
+		try ( TransformationEvents.Phase ignored = TransformationEvents.begin( TransformationEvents.CACHE_RESTORE, projectPath, source ) ) {
+			cacheKey = useCache ? resolveCacheKey( source, engine ) : null;
+			if ( cacheKey != null ) {
+				final TransformationMetrics metrics = startMetrics( source, target, engine );
+				if ( transformationCache.get().restore( cacheKey, target ) ) {
+					log.info( "Restored {} from the local transformation cache", target.getName() );
+					metricsService.get().record( metrics.complete( source, target, null, true ).fromCache() );
+					return;
+				}
+			}
+		}
+
+		// a previous target may be hardlinked into the cache or to a passed-through source - never write through it
+		if ( target.isFile() && ! target.delete() ) {
+			log.debug( "Unable to delete previous transformation output {}", target.getAbsolutePath() );
+		}
+
+		if ( passThrough( source, target, engine ) ) {
+			return;
+		}
+
+		if ( configuredExecutionMode.getOrElse( ExecutionMode.WORKER ) == ExecutionMode.BATCH ) {
+			batchService.get().transform(
+					source.getName(),
+					engine != TransformationEngine.NATIVE,
+					() -> transform( source, target, engine, cacheKey, null )
+			);
+			return;
+		}
+
+		transform( source, target, engine, cacheKey, workerExecutor );
+	}
+
+	private void transform(File source, File target, TransformationEngine engine, String cacheKey, WorkerExecutor workerExecutor) {
+		if ( engine == TransformationEngine.NATIVE ) {
+			transformNative( source, target, cacheKey, workerExecutor );
+			return;
+		}
 
 		final List<String> args = new ArrayList<>(
 				Arrays.asList(
@@ -107,50 +262,339 @@ public class TransformerTool {
 				)
 		);
 
-		if ( config.renameRuleAccess().isPresent() ) {
+		if ( renameRules.isPresent() ) {
 			args.add( "-tr" );
-			args.add( config.renameRuleAccess().get().getAsFile().getAbsolutePath() );
+			args.add( renameRules.get().getAsFile().getAbsolutePath() );
 		}
 
-		if ( config.versionRuleAccess().isPresent() ) {
+		if ( versionRules.isPresent() ) {
 			args.add( "-tv" );
-			args.add( config.versionRuleAccess().get().getAsFile().getAbsolutePath() );
+			args.add( versionRules.get().getAsFile().getAbsolutePath() );
 		}
 
-		if ( config.directRuleAccess().isPresent() ) {
+		if ( directRules.isPresent() ) {
 			args.add( "-td" );
-			args.add( config.directRuleAccess().get().getAsFile().getAbsolutePath() );
+			args.add( directRules.get().getAsFile().getAbsolutePath() );
 		}
 
+		final ExecutionMode executionMode = configuredExecutionMode.getOrElse( ExecutionMode.WORKER );
+		if ( executionMode == ExecutionMode.WORKER && workerExecutor != null ) {
+			transformInWorker( args, target, cacheKey, workerExecutor );
+			return;
+		}
 
-		try ( OutputStream outputStream = createOutputStream() ) {
-			project.javaexec(
-					javaExecSpec -> {
-						javaExecSpec.classpath( toolDependencies );
+		final TransformationMetrics metrics = startMetrics( source, target, TransformationEngine.JAKARTA_TRANSFORMER );
 
-						javaExecSpec.setMain( TOOL_CLI_FQN );
+		try ( TransformationEvents.Phase phase = TransformationEvents.begin( TransformationEvents.TRANSFORM, projectPath, source ) ) {
+			phase.detail( TransformationEngine.JAKARTA_TRANSFORMER + "/" + executionMode ).output( target );
 
-						javaExecSpec.setArgs( args );
+			try ( OutputStream outputStream = createOutputStream() ) {
+				if ( executionMode == ExecutionMode.JAVA_EXEC ) {
+					transformJavaExec( args, outputStream );
+				}
+				else {
+					transformInProcess( args, outputStream );
+				}
+			}
+			catch (IOException e) {
+				log.debug( "Unable to close JakartaTransformer logging output stream" );
+			}
 
-						javaExecSpec.setStandardOutput( outputStream );
-						javaExecSpec.setErrorOutput( outputStream );
-					}
+			if ( reproducible.getOrElse( false ) && NativeTransformer.isArchive( target ) ) {
+				NativeTransformer.normalize( target );
+			}
+		}
+
+		metrics.complete( source, target, null, executionMode != ExecutionMode.JAVA_EXEC );
+		metricsService.get().record( metrics );
+
+		log.info(
+				"JakartaTransformer ({}) : {} -> {} ({} ms)",
+				executionMode,
+				source.getName(),
+				target.getName(),
+				metrics.getWallMillis()
+		);
+
+		if ( cacheKey != null ) {
+			transformationCache.get().store( cacheKey, target );
+		}
+	}
+
+	/**
+	 * Pre-flight scan of a source file ({@link NativeTransformer#mayRequireTransformation}).  When the rules
+	 * cannot change anything, the target is a hardlink to (or, see {@link #linkUnchangedFiles}, a copy of) the
+	 * source - or, when reproducible, the source archive {@linkplain NativeTransformer#normalize normalized} - and
+	 * the transformation is counted as avoided.  Only done for the native engine - the scan covers what the native
+	 * engine rewrites, which is not known to be all the JakartaTransformer tool does (e.g. with its default rules)
+	 *
+	 * @return Whether the source was passed through
+	 */
+	private boolean passThrough(File source, File target, TransformationEngine engine) {
+		if ( engine != TransformationEngine.NATIVE || ! source.isFile() ) {
+			return false;
+		}
+
+		final TransformationMetrics metrics = startMetrics( source, target, engine );
+		try ( TransformationEvents.Phase phase = TransformationEvents.begin( TransformationEvents.SCAN, projectPath, source ) ) {
+			final RenameRules rules = ruleSetCache.get().getRules(
+					Helper.asFile( renameRules ),
+					Helper.asFile( versionRules ),
+					Helper.asFile( directRules )
 			);
+			if ( new NativeTransformer( rules ).mayRequireTransformation( source ) ) {
+				return false;
+			}
+
+			if ( reproducible.getOrElse( false ) && NativeTransformer.isArchive( source ) ) {
+				NativeTransformer.normalize( source, target );
+			}
+			else if ( linkUnchangedFiles( source ) ) {
+				Helper.linkOrCopy( source.toPath(), target.toPath() );
+			}
+			else {
+				target.getParentFile().mkdirs();
+				Helper.transfer( source.toPath(), target.toPath() );
+			}
+			phase.detail( "untouched" ).output( target );
 		}
 		catch (IOException e) {
-			project.getLogger().debug( "Unable to close JakartaTransformer logging output stream" );
+			throw new TransformationException( "Unable to link " + source.getAbsolutePath() + " to " + target.getAbsolutePath(), e );
+		}
+
+		metricsService.get().record( metrics.complete( source, target, null, true ).passedThrough() );
+		log.info( "Pre-flight scan : nothing to transform in {}; linked to {}", source.getName(), target.getName() );
+		return true;
+	}
+
+	private TransformationMetrics startMetrics(File source, File target, TransformationEngine engine) {
+		return TransformationMetrics.start(
+				projectPath,
+				source,
+				target,
+				engine.name(),
+				configuredExecutionMode.getOrElse( ExecutionMode.WORKER ).name()
+		);
+	}
+
+	/**
+	 * The local transformation cache key for transforming the source, or null if the cache is disabled
+	 */
+	private String resolveCacheKey(File source, TransformationEngine engine) {
+		if ( ! localCache.getOrElse( true ) || ! source.exists() ) {
+			return null;
+		}
+
+		return transformationKey( source, engine );
+	}
+
+	/**
+	 * Identifies the transformation by the content of the source, the rule files and the tool classpath (or, for
+	 * the native engine, the plugin) and the engine
+	 */
+	private String transformationKey(File source, TransformationEngine engine) {
+		return transformationCache.get().computeKey(
+				source,
+				Arrays.asList(
+						Helper.asFile( renameRules ),
+						Helper.asFile( versionRules ),
+						Helper.asFile( directRules )
+				),
+				engine == TransformationEngine.NATIVE ? Collections.emptyList() : toolDependencies.getFiles(),
+				engine,
+				reproducible.getOrElse( false )
+		);
+	}
+
+	/**
+	 * Resolves the path, relative to the output of a directory transformation, of the transformed
+	 * form of a (relative) source path - accounting for renamed package directories and service files.
+	 * The paths the native engine writes; the JakartaTransformer tool names its outputs itself
+	 */
+	public UnaryOperator<String> transformedPathResolver() {
+		final RenameRules rules = ruleSetCache.get().getRules(
+				Helper.asFile( renameRules ),
+				Helper.asFile( versionRules ),
+				Helper.asFile( directRules )
+		);
+		final StringRemapper stringRemapper = new StringRemapper( rules );
+		return (relativePath) -> NativeTransformer.remapPath( stringRemapper, relativePath );
+	}
+
+	private void transformNative(File source, File target, String cacheKey, WorkerExecutor workerExecutor) {
+		final ExecutionMode executionMode = configuredExecutionMode.getOrElse( ExecutionMode.WORKER );
+		if ( executionMode == ExecutionMode.WORKER && workerExecutor != null ) {
+			workerExecutor.noIsolation().submit(
+					NativeTransformationWorkAction.class,
+					(parameters) -> {
+						parameters.getSource().set( source );
+						parameters.getTarget().set( target );
+						parameters.getRuleSetCache().set( ruleSetCache );
+						parameters.getRenameRules().set( renameRules );
+						parameters.getVersionRules().set( versionRules );
+						parameters.getDirectRules().set( directRules );
+						parameters.getReproducible().set( reproducible.getOrElse( false ) );
+						parameters.getLinkUnchangedFiles().set( linkUnchangedFiles( source ) );
+						if ( cacheKey != null ) {
+							parameters.getCacheKey().set( cacheKey );
+							parameters.getCacheDirectory().set( transformationCache.get().getCacheDirectory() );
+						}
+						parameters.getProjectPath().set( projectPath );
+						parameters.getMetricsDirectory().set( metricsService.get().getSpoolDirectory() );
+					}
+			);
+			return;
+		}
+
+		final TransformationMetrics metrics = startMetrics( source, target, TransformationEngine.NATIVE );
+
+		final NativeTransformer transformer;
+		try ( TransformationEvents.Phase phase = TransformationEvents.begin( TransformationEvents.TRANSFORM, projectPath, source ) ) {
+			final RenameRules rules = ruleSetCache.get().getRules(
+					Helper.asFile( renameRules ),
+					Helper.asFile( versionRules ),
+					Helper.asFile( directRules )
+			);
+			transformer = new NativeTransformer( rules, reproducible.getOrElse( false ), linkUnchangedFiles( source ) );
+			transformer.transform( source, target );
+
+			phase.detail( TransformationEngine.NATIVE + "/" + executionMode ).output( target ).statistics( transformer.getStatistics() );
+		}
+
+		metrics.complete( source, target, transformer.getStatistics(), true );
+		metricsService.get().record( metrics );
+
+		log.info(
+				"Native transformation : {} -> {} ({} ms; {})",
+				source.getName(),
+				target.getName(),
+				metrics.getWallMillis(),
+				transformer.getStatistics()
+		);
+
+		if ( cacheKey != null ) {
+			transformationCache.get().store( cacheKey, target );
+		}
+	}
+
+	/**
+	 * Whether unchanged files of the source may be hardlinked to the target rather than copied - only when the
+	 * source is within this project's build directory or Gradle's caches.  The files of another project's build
+	 * directory (e.g. the classes of a shadowed project) or of source directories may be rewritten in place,
+	 * which would change a hardlinked output behind Gradle's back
+	 */
+	private boolean linkUnchangedFiles(File source) {
+		final Path sourcePath = source.toPath().toAbsolutePath().normalize();
+		return sourcePath.startsWith( buildDirectory.toPath().toAbsolutePath().normalize() )
+				|| sourcePath.startsWith( gradleUserHomeDirectory.toPath().toAbsolutePath().normalize() );
+	}
+
+	private void transformJavaExec(List<String> args, OutputStream outputStream) {
+		try ( TransformationEvents.Phase ignored = TransformationEvents.begin( TransformationEvents.FORK, projectPath, new File( args.get( 0 ) ) ) ) {
+			javaExec( args, outputStream );
+		}
+	}
+
+	private void javaExec(List<String> args, OutputStream outputStream) {
+		execOperations.javaexec(
+				javaExecSpec -> {
+					javaExecSpec.classpath( toolDependencies );
+
+					javaExecSpec.setMain( TOOL_CLI_FQN );
+
+					javaExecSpec.setArgs( args );
+					javaExecSpec.jvmArgs( toolJvmArgs.getOrElse( Collections.emptyList() ) );
+
+					javaExecSpec.setStandardOutput( outputStream );
+					javaExecSpec.setErrorOutput( outputStream );
+				}
+		);
+	}
+
+	private void transformInProcess(List<String> args, OutputStream outputStream) {
+		final ToolInvoker toolInvoker;
+		try {
+			toolInvoker = new ToolInvoker( classLoaderService.get().getClassLoader( toolDependencies.getFiles() ) );
+		}
+		catch (ClassNotFoundException | NoSuchMethodException e) {
+			log.warn(
+					"Unable to invoke JakartaTransformer in-process ({}); falling back to `{}`",
+					e.getMessage(),
+					ExecutionMode.JAVA_EXEC
+			);
+			transformJavaExec( args, outputStream );
+			return;
+		}
+
+		final PrintStream printStream = new PrintStream(
+				outputStream == null ? new ByteArrayOutputStream() : outputStream,
+				true
+		);
+
+		// `JakartaTransformer#main` ignores the return code, so do the same here for parity with `javaexec`
+		final int rc = toolInvoker.invoke( args, printStream );
+		if ( rc != 0 ) {
+			log.warn(
+					"JakartaTransformer returned {}; see {}",
+					rc,
+					transformerLoggingOutput().getAbsolutePath()
+			);
+		}
+	}
+
+	private void transformInWorker(List<String> args, File target, String cacheKey, WorkerExecutor workerExecutor) {
+		final WorkQueue workQueue = workerExecutor.processIsolation(
+				(spec) -> {
+					spec.getClasspath().from( toolDependencies );
+					spec.forkOptions( (forkOptions) -> forkOptions.jvmArgs( toolJvmArgs.getOrElse( Collections.emptyList() ) ) );
+				}
+		);
+
+		workQueue.submit(
+				TransformationWorkAction.class,
+				(parameters) -> {
+					parameters.getArguments().set( args );
+					parameters.getLoggingOutput().set( transformerLoggingOutput() );
+					parameters.getTarget().set( target );
+					parameters.getReproducible().set( reproducible.getOrElse( false ) );
+					parameters.getProjectPath().set( projectPath );
+					parameters.getMetricsDirectory().set( metricsService.get().getSpoolDirectory() );
+					if ( cacheKey != null ) {
+						parameters.getCacheKey().set( cacheKey );
+						parameters.getCacheDirectory().set( transformationCache.get().getCacheDirectory() );
+					}
+				}
+		);
+	}
+
+	/**
+	 * The file the JakartaTransformer output is written to, named for the time the first transformation of
+	 * this build ran
+	 */
+	private File transformerLoggingOutput() {
+		File loggingOutput = transformerLoggingOutput;
+		if ( loggingOutput == null ) {
+			synchronized ( this ) {
+				loggingOutput = transformerLoggingOutput;
+				if ( loggingOutput == null ) {
+					final DateTimeFormatter formatter = ofPattern( "yyyy-MM-dd_HH-mm-ss" );
+					loggingOutput = new File( transformerLoggingDirectory, formatter.format( LocalDateTime.now() ) + ".txt" );
+					transformerLoggingOutput = loggingOutput;
+				}
+			}
 		}
+		return loggingOutput;
 	}
 
 	private OutputStream createOutputStream() {
-		final File outputAsFile = transformerLoggingOutput.getAsFile();
+		final File outputAsFile = transformerLoggingOutput();
 		if ( ! outputAsFile.exists() ) {
 			outputAsFile.getParentFile().mkdirs();
 			try {
 				outputAsFile.createNewFile();
 			}
 			catch (IOException e) {
-				project.getLogger().info( "Unable to generate JakartaTransformer output file {}", outputAsFile.getAbsolutePath() );
+				log.info( "Unable to generate JakartaTransformer output file {}", outputAsFile.getAbsolutePath() );
 			}
 		}
 
@@ -0,0 +1,71 @@
+package org.hibernate.build.gradle.jakarta.internal.jfr;
+
+import java.io.File;
+
+import org.hibernate.build.gradle.jakarta.internal.remap.TransformationStatistics;
+
+/**
+ * {@link TransformationEvents.Phase} backed by a {@link TransformationPhaseEvent}.  Only loaded when
+ * Flight Recorder is available.
+ *
+ * @author Steve Ebersole
+ */
+class JfrPhase implements TransformationEvents.Phase {
+	private final TransformationPhaseEvent event = new TransformationPhaseEvent();
+	private File input;
+	private File output;
+	private TransformationStatistics statistics;
+
+	static TransformationEvents.Phase begin(String phase, String projectPath, String taskName, File input) {
+		final JfrPhase jfrPhase = new JfrPhase();
+		if ( jfrPhase.event.isEnabled() ) {
+			jfrPhase.event.phase = phase;
+			jfrPhase.event.projectPath = projectPath;
+			jfrPhase.event.taskName = taskName;
+			jfrPhase.input = input;
+			jfrPhase.event.begin();
+		}
+		return jfrPhase;
+	}
+
+	@Override
+	public TransformationEvents.Phase detail(String detail) {
+		event.detail = detail;
+		return this;
+	}
+
+	@Override
+	public TransformationEvents.Phase output(File output) {
+		this.output = output;
+		return this;
+	}
+
+	@Override
+	public TransformationEvents.Phase statistics(TransformationStatistics statistics) {
+		this.statistics = statistics;
+		return this;
+	}
+
+	@Override
+	public void close() {
+		event.end();
+		if ( ! event.shouldCommit() ) {
+			return;
+		}
+
+		if ( input != null ) {
+			event.inputFile = input.getAbsolutePath();
+			event.inputSize = input.isFile() ? input.length() : 0;
+		}
+		if ( output != null ) {
+			event.outputSize = output.isFile() ? output.length() : 0;
+		}
+		if ( statistics != null ) {
+			event.classCount = statistics.getClassCount();
+			event.fastPathCount = statistics.getFastPathCount();
+			event.classRewriteTime = statistics.getClassRewriteNanos();
+			event.resourceRewriteTime = statistics.getResourceRewriteNanos();
+		}
+		event.commit();
+	}
+}
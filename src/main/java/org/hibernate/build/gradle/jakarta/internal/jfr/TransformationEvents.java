@@ -0,0 +1,154 @@
+package org.hibernate.build.gradle.jakarta.internal.jfr;
+
+import java.io.File;
+
+import org.gradle.api.Task;
+
+import org.hibernate.build.gradle.jakarta.internal.remap.TransformationStatistics;
+
+/**
+ * Emits JDK Flight Recorder events around the phases of transformations, so that a recording of the
+ * Gradle daemon (e.g. `org.gradle.jvmargs=-XX:StartFlightRecording`) shows where transformation time goes:
+ *
+ * * {@value #TASK} - a transformation task action
+ * * {@value #RESOLVE} - resolution of a dependency to transform
+ * * {@value #RULES} - loading and compiling the rule files
+ * * {@value #CACHE_RESTORE} - computing the local transformation cache key and restoring from the cache
+ * * {@value #SCAN} - the pre-flight scan deciding whether a file needs transforming at all
+ * * {@value #FORK} - a forked JVM (`java-exec`)
+ * * {@value #TRANSFORM} - the transformation itself
+ *
+ * Nothing is recorded (or even loaded) when Flight Recorder is not available in the JVM.
+ *
+ * @author Steve Ebersole
+ */
+public final class TransformationEvents {
+	public static final String TASK = "task";
+	public static final String RESOLVE = "resolve";
+	public static final String RULES = "rules";
+	public static final String CACHE_RESTORE = "cache-restore";
+	public static final String SCAN = "scan";
+	public static final String FORK = "fork";
+	public static final String TRANSFORM = "transform";
+
+	/**
+	 * A phase in progress.  Closing the phase commits its event
+	 */
+	public interface Phase extends AutoCloseable {
+		Phase detail(String detail);
+
+		Phase output(File output);
+
+		Phase statistics(TransformationStatistics statistics);
+
+		@Override
+		void close();
+	}
+
+	private static final Phase NO_OP = new Phase() {
+		@Override
+		public Phase detail(String detail) {
+			return this;
+		}
+
+		@Override
+		public Phase output(File output) {
+			return this;
+		}
+
+		@Override
+		public Phase statistics(TransformationStatistics statistics) {
+			return this;
+		}
+
+		@Override
+		public void close() {
+		}
+	};
+
+	private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+	/**
+	 * The task performing transformations on the current thread, for the events' task name
+	 */
+	private static final ThreadLocal<String> CURRENT_TASK = new ThreadLocal<>();
+
+	private TransformationEvents() {
+		// disallow direct instantiation
+	}
+
+	private static boolean isFlightRecorderAvailable() {
+		try {
+			Class.forName( "jdk.jfr.Event" );
+			return true;
+		}
+		catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Begin a phase
+	 *
+	 * @param projectPath The path of the project performing the transformation, if known
+	 * @param input The file being transformed or resolved, if known
+	 */
+	public static Phase begin(String phase, String projectPath, File input) {
+		if ( ! AVAILABLE ) {
+			return NO_OP;
+		}
+		return JfrPhase.begin( phase, projectPath, CURRENT_TASK.get(), input );
+	}
+
+	/**
+	 * Begin the {@value #TASK} phase for the task's action.  Phases begun on the same thread before it
+	 * is closed record the task name.
+	 */
+	public static Phase beginTask(Task task) {
+		if ( ! AVAILABLE ) {
+			return NO_OP;
+		}
+
+		final String previousTask = CURRENT_TASK.get();
+		CURRENT_TASK.set( task.getPath() );
+		final Phase phase = JfrPhase.begin( TASK, projectPath( task.getPath() ), task.getPath(), null );
+		return new Phase() {
+			@Override
+			public Phase detail(String detail) {
+				phase.detail( detail );
+				return this;
+			}
+
+			@Override
+			public Phase output(File output) {
+				phase.output( output );
+				return this;
+			}
+
+			@Override
+			public Phase statistics(TransformationStatistics statistics) {
+				phase.statistics( statistics );
+				return this;
+			}
+
+			@Override
+			public void close() {
+				try {
+					phase.close();
+				}
+				finally {
+					CURRENT_TASK.set( previousTask );
+				}
+			}
+		};
+	}
+
+	/**
+	 * The path of the project owning the task with the given path.  Derived from the task path
+	 * since the task's `Project` must not be accessed at execution time (configuration cache)
+	 */
+	private static String projectPath(String taskPath) {
+		final int lastColon = taskPath.lastIndexOf( ':' );
+		return lastColon <= 0 ? ":" : taskPath.substring( 0, lastColon );
+	}
+}
@@ -0,0 +1,60 @@
+package org.hibernate.build.gradle.jakarta.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder event for a phase of a transformation - see {@link TransformationEvents}
+ *
+ * @author Steve Ebersole
+ */
+@Name( "org.hibernate.jakarta.TransformationPhase" )
+@Label( "Jakarta Transformation Phase" )
+@Category( { "Hibernate", "Jakarta Transformer" } )
+@Description( "A phase of a Jakarta transformation - dependency resolution, rule loading, cache restore, JVM fork or the transformation itself" )
+@StackTrace( false )
+class TransformationPhaseEvent extends jdk.jfr.Event {
+	@Label( "Phase" )
+	String phase;
+
+	@Label( "Detail" )
+	@Description( "Engine and execution mode of a transformation" )
+	String detail;
+
+	@Label( "Project" )
+	String projectPath;
+
+	@Label( "Task" )
+	String taskName;
+
+	@Label( "Input" )
+	String inputFile;
+
+	@Label( "Input Size" )
+	@DataAmount
+	long inputSize;
+
+	@Label( "Output Size" )
+	@DataAmount
+	long outputSize;
+
+	@Label( "Classes" )
+	int classCount;
+
+	@Label( "Classes Skipped by Pre-scan" )
+	int fastPathCount;
+
+	@Label( "Class Rewrite Time" )
+	@Description( "Time spent scanning and rewriting classes (native engine); the remainder of a transformation is mostly archive reading and writing" )
+	@Timespan( Timespan.NANOSECONDS )
+	long classRewriteTime;
+
+	@Label( "Resource Rewrite Time" )
+	@Timespan( Timespan.NANOSECONDS )
+	long resourceRewriteTime;
+}
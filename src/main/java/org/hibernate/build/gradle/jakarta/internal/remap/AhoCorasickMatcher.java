@@ -0,0 +1,164 @@
+package org.hibernate.build.gradle.jakarta.internal.remap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over bytes, built once from a set of (ISO-8859-1) patterns.
+ * A scan is a single linear pass over the input with one table lookup per byte,
+ * regardless of the number of patterns.
+ *
+ * The automaton is compiled to a complete transition table over the (compacted) alphabet
+ * of bytes which appear in the patterns, so no failure links are followed while scanning.
+ *
+ * @author Steve Ebersole
+ */
+public class AhoCorasickMatcher {
+	/**
+	 * Receives each match as the start (inclusive) and end (exclusive) offsets within the input
+	 */
+	@FunctionalInterface
+	public interface MatchConsumer {
+		void match(int start, int end);
+	}
+
+	private static final int[] NO_OUTPUT = new int[0];
+
+	private final int[] byteClasses = new int[256];
+	private final int alphabetSize;
+
+	private final int[] transitions;
+	private final int[][] outputLengths;
+
+	public AhoCorasickMatcher(Collection<String> patterns) {
+		final List<byte[]> encodedPatterns = new ArrayList<>( patterns.size() );
+		for ( String pattern : patterns ) {
+			if ( ! pattern.isEmpty() ) {
+				encodedPatterns.add( pattern.getBytes( StandardCharsets.ISO_8859_1 ) );
+			}
+		}
+
+		// class 0 is every byte which does not appear in any pattern
+		int classCount = 1;
+		for ( byte[] pattern : encodedPatterns ) {
+			for ( byte b : pattern ) {
+				if ( byteClasses[b & 0xFF] == 0 ) {
+					byteClasses[b & 0xFF] = classCount++;
+				}
+			}
+		}
+		this.alphabetSize = classCount;
+
+		// build the trie
+		final List<int[]> goTo = new ArrayList<>();
+		final List<int[]> outputs = new ArrayList<>();
+		goTo.add( newRow() );
+		outputs.add( NO_OUTPUT );
+
+		for ( byte[] pattern : encodedPatterns ) {
+			int state = 0;
+			for ( byte b : pattern ) {
+				final int symbol = byteClasses[b & 0xFF];
+				int next = goTo.get( state )[symbol];
+				if ( next < 0 ) {
+					next = goTo.size();
+					goTo.add( newRow() );
+					outputs.add( NO_OUTPUT );
+					goTo.get( state )[symbol] = next;
+				}
+				state = next;
+			}
+			outputs.set( state, append( outputs.get( state ), pattern.length ) );
+		}
+
+		// breadth-first completion of the transition table, merging outputs along failure links
+		final int stateCount = goTo.size();
+		final int[] failure = new int[stateCount];
+		this.transitions = new int[ stateCount * alphabetSize ];
+		this.outputLengths = new int[stateCount][];
+
+		final Deque<Integer> queue = new ArrayDeque<>();
+		for ( int symbol = 0; symbol < alphabetSize; symbol++ ) {
+			final int next = goTo.get( 0 )[symbol];
+			if ( next < 0 ) {
+				transitions[symbol] = 0;
+			}
+			else {
+				transitions[symbol] = next;
+				failure[next] = 0;
+				queue.add( next );
+			}
+		}
+		outputLengths[0] = outputs.get( 0 );
+
+		while ( ! queue.isEmpty() ) {
+			final int state = queue.poll();
+			final int[] inherited = outputLengths[ failure[state] ];
+			outputLengths[state] = inherited.length == 0 ? outputs.get( state ) : merge( outputs.get( state ), inherited );
+
+			for ( int symbol = 0; symbol < alphabetSize; symbol++ ) {
+				final int next = goTo.get( state )[symbol];
+				if ( next < 0 ) {
+					transitions[ state * alphabetSize + symbol ] = transitions[ failure[state] * alphabetSize + symbol ];
+				}
+				else {
+					transitions[ state * alphabetSize + symbol ] = next;
+					failure[next] = transitions[ failure[state] * alphabetSize + symbol ];
+					queue.add( next );
+				}
+			}
+		}
+	}
+
+	private int[] newRow() {
+		final int[] row = new int[alphabetSize];
+		Arrays.fill( row, -1 );
+		return row;
+	}
+
+	private static int[] append(int[] values, int value) {
+		final int[] appended = Arrays.copyOf( values, values.length + 1 );
+		appended[values.length] = value;
+		return appended;
+	}
+
+	private static int[] merge(int[] own, int[] inherited) {
+		final int[] merged = Arrays.copyOf( own, own.length + inherited.length );
+		System.arraycopy( inherited, 0, merged, own.length, inherited.length );
+		return merged;
+	}
+
+	/**
+	 * Report every occurrence of any pattern within the given range of the input, in order of
+	 * their end offset
+	 */
+	public void scan(byte[] input, int from, int to, MatchConsumer consumer) {
+		int state = 0;
+		for ( int i = from; i < to; i++ ) {
+			state = transitions[ state * alphabetSize + byteClasses[ input[i] & 0xFF ] ];
+			final int[] lengths = outputLengths[state];
+			for ( int length : lengths ) {
+				consumer.match( i + 1 - length, i + 1 );
+			}
+		}
+	}
+
+	/**
+	 * Whether any pattern occurs within the given range of the input
+	 */
+	public boolean matches(byte[] input, int from, int to) {
+		int state = 0;
+		for ( int i = from; i < to; i++ ) {
+			state = transitions[ state * alphabetSize + byteClasses[ input[i] & 0xFF ] ];
+			if ( outputLengths[state].length > 0 ) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
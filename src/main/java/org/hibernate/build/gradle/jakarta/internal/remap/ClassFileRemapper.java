@@ -0,0 +1,156 @@
+package org.hibernate.build.gradle.jakarta.internal.remap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.hibernate.build.gradle.jakarta.TransformationException;
+
+/**
+ * Rewrites the UTF8 entries of a class file's constant pool.  Class names, descriptors,
+ * generic signatures, String constants and annotation String values all live in those
+ * entries, and no constant pool index changes, so everything after the constant pool is
+ * copied as-is.
+ *
+ * @author Steve Ebersole
+ */
+public class ClassFileRemapper {
+	public static final int MAGIC = 0xCAFEBABE;
+
+	public static final int CONSTANT_UTF8 = 1;
+	public static final int CONSTANT_INTEGER = 3;
+	public static final int CONSTANT_FLOAT = 4;
+	public static final int CONSTANT_LONG = 5;
+	public static final int CONSTANT_DOUBLE = 6;
+	public static final int CONSTANT_CLASS = 7;
+	public static final int CONSTANT_STRING = 8;
+	public static final int CONSTANT_FIELD_REF = 9;
+	public static final int CONSTANT_METHOD_REF = 10;
+	public static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+	public static final int CONSTANT_NAME_AND_TYPE = 12;
+	public static final int CONSTANT_METHOD_HANDLE = 15;
+	public static final int CONSTANT_METHOD_TYPE = 16;
+	public static final int CONSTANT_DYNAMIC = 17;
+	public static final int CONSTANT_INVOKE_DYNAMIC = 18;
+	public static final int CONSTANT_MODULE = 19;
+	public static final int CONSTANT_PACKAGE = 20;
+
+	/**
+	 * Offset of the constant pool count within a class file
+	 */
+	public static final int CONSTANT_POOL_COUNT_OFFSET = 8;
+
+	private final StringRemapper stringRemapper;
+
+	public ClassFileRemapper(StringRemapper stringRemapper) {
+		this.stringRemapper = stringRemapper;
+	}
+
+	/**
+	 * @return The remapped class bytes, or the same array if nothing changed
+	 */
+	public byte[] remap(byte[] classBytes) {
+		if ( readInt( classBytes, 0 ) != MAGIC ) {
+			return classBytes;
+		}
+
+		final int count = readUnsignedShort( classBytes, CONSTANT_POOL_COUNT_OFFSET );
+
+		ByteArrayOutputStream buffer = null;
+		DataOutputStream output = null;
+		int copiedTo = 0;
+
+		int offset = CONSTANT_POOL_COUNT_OFFSET + 2;
+		try {
+			for ( int index = 1; index < count; index++ ) {
+				final int tag = classBytes[offset];
+				if ( tag == CONSTANT_UTF8 ) {
+					final int entryLength = 3 + readUnsignedShort( classBytes, offset + 1 );
+					final String value = readUtf8( classBytes, offset + 1, entryLength - 1 );
+					final String remapped = stringRemapper.remap( value );
+
+					if ( remapped != value ) {
+						if ( buffer == null ) {
+							buffer = new ByteArrayOutputStream( classBytes.length + 256 );
+							output = new DataOutputStream( buffer );
+						}
+						output.write( classBytes, copiedTo, offset + 1 - copiedTo );
+						output.writeUTF( remapped );
+						copiedTo = offset + entryLength;
+					}
+
+					offset += entryLength;
+				}
+				else {
+					offset += constantLength( tag, offset );
+					if ( tag == CONSTANT_LONG || tag == CONSTANT_DOUBLE ) {
+						// 8-byte constants take two slots
+						index++;
+					}
+				}
+			}
+
+			if ( buffer == null ) {
+				return classBytes;
+			}
+
+			output.write( classBytes, copiedTo, classBytes.length - copiedTo );
+			output.flush();
+			return buffer.toByteArray();
+		}
+		catch (IOException e) {
+			throw new TransformationException( "Unable to remap class file", e );
+		}
+	}
+
+	/**
+	 * The length, including the tag, of a non-UTF8 constant pool entry
+	 */
+	public static int constantLength(int tag, int offset) {
+		switch ( tag ) {
+			case CONSTANT_CLASS:
+			case CONSTANT_STRING:
+			case CONSTANT_METHOD_TYPE:
+			case CONSTANT_MODULE:
+			case CONSTANT_PACKAGE:
+				return 3;
+			case CONSTANT_METHOD_HANDLE:
+				return 4;
+			case CONSTANT_INTEGER:
+			case CONSTANT_FLOAT:
+			case CONSTANT_FIELD_REF:
+			case CONSTANT_METHOD_REF:
+			case CONSTANT_INTERFACE_METHOD_REF:
+			case CONSTANT_NAME_AND_TYPE:
+			case CONSTANT_DYNAMIC:
+			case CONSTANT_INVOKE_DYNAMIC:
+				return 5;
+			case CONSTANT_LONG:
+			case CONSTANT_DOUBLE:
+				return 9;
+			default:
+				throw new TransformationException( "Unexpected constant pool tag " + tag + " at offset " + offset );
+		}
+	}
+
+	private static String readUtf8(byte[] bytes, int offset, int length) throws IOException {
+		// DataInputStream handles the class file "modified UTF-8" encoding
+		return new DataInputStream( new ByteArrayInputStream( bytes, offset, length ) ).readUTF();
+	}
+
+	public static int readUnsignedShort(byte[] bytes, int offset) {
+		return ( ( bytes[offset] & 0xFF ) << 8 ) | ( bytes[offset + 1] & 0xFF );
+	}
+
+	public static int readInt(byte[] bytes, int offset) {
+		if ( bytes.length < offset + 4 ) {
+			return 0;
+		}
+		return ( ( bytes[offset] & 0xFF ) << 24 )
+				| ( ( bytes[offset + 1] & 0xFF ) << 16 )
+				| ( ( bytes[offset + 2] & 0xFF ) << 8 )
+				| ( bytes[offset + 3] & 0xFF );
+	}
+}
@@ -0,0 +1,179 @@
+package org.hibernate.build.gradle.jakarta.internal.remap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.hibernate.build.gradle.jakarta.TransformationException;
+
+import static org.hibernate.build.gradle.jakarta.internal.remap.ClassFileRemapper.CONSTANT_DOUBLE;
+import static org.hibernate.build.gradle.jakarta.internal.remap.ClassFileRemapper.CONSTANT_LONG;
+import static org.hibernate.build.gradle.jakarta.internal.remap.ClassFileRemapper.CONSTANT_POOL_COUNT_OFFSET;
+import static org.hibernate.build.gradle.jakarta.internal.remap.ClassFileRemapper.CONSTANT_UTF8;
+import static org.hibernate.build.gradle.jakarta.internal.remap.ClassFileRemapper.constantLength;
+import static org.hibernate.build.gradle.jakarta.internal.remap.ClassFileRemapper.readUnsignedShort;
+
+/**
+ * Cheap pre-scan of a class file's constant pool which decides whether the class could
+ * possibly be affected by the rules, without decoding any of its entries.
+ *
+ * The raw (modified UTF-8) bytes of each UTF8 entry are matched against a byte trie of every
+ * rename rule package in both dotted and binary form (`javax.persistence` / `javax/persistence`)
+ * and every direct rule.  A package rename always contains the complete rule package starting
+ * at a name boundary, so a class with no hit can be copied as-is.
+ *
+ * @author Steve Ebersole
+ */
+public class ConstantPoolScanner {
+	private final Node[] roots = new Node[256];
+
+	public ConstantPoolScanner(RenameRules rules) {
+		final Set<String> patterns = new LinkedHashSet<>();
+		for ( String packageName : rules.getPackageRenames().keySet() ) {
+			patterns.add( packageName );
+			patterns.add( packageName.replace( '.', '/' ) );
+		}
+		for ( String packageName : rules.getWildcardRenames().keySet() ) {
+			patterns.add( packageName );
+			patterns.add( packageName.replace( '.', '/' ) );
+		}
+		patterns.addAll( rules.getDirectStrings().keySet() );
+
+		for ( String pattern : patterns ) {
+			if ( ! pattern.isEmpty() ) {
+				add( encode( pattern ) );
+			}
+		}
+	}
+
+	private void add(byte[] pattern) {
+		final int firstIndex = pattern[0] & 0xFF;
+		if ( roots[firstIndex] == null ) {
+			roots[firstIndex] = new Node();
+		}
+
+		Node node = roots[firstIndex];
+		for ( int i = 1; i < pattern.length; i++ ) {
+			node = node.childOrCreate( pattern[i] );
+		}
+		node.terminal = true;
+	}
+
+	/**
+	 * Encode the pattern the same way class files store UTF8 constants
+	 */
+	private static byte[] encode(String pattern) {
+		try {
+			final ByteArrayOutputStream buffer = new ByteArrayOutputStream( pattern.length() + 2 );
+			new DataOutputStream( buffer ).writeUTF( pattern );
+			final byte[] bytes = buffer.toByteArray();
+			// drop the 2-byte length prefix
+			return Arrays.copyOfRange( bytes, 2, bytes.length );
+		}
+		catch (IOException e) {
+			throw new TransformationException( "Unable to encode pre-scan pattern : " + pattern, e );
+		}
+	}
+
+	/**
+	 * Whether any UTF8 constant in the class could be affected by the rules.  Returns true
+	 * for anything which does not look like a class file so that the full remapping decides.
+	 */
+	public boolean mayRequireRemapping(byte[] classBytes) {
+		if ( ClassFileRemapper.readInt( classBytes, 0 ) != ClassFileRemapper.MAGIC ) {
+			return true;
+		}
+
+		final int count = readUnsignedShort( classBytes, CONSTANT_POOL_COUNT_OFFSET );
+		int offset = CONSTANT_POOL_COUNT_OFFSET + 2;
+		for ( int index = 1; index < count; index++ ) {
+			final int tag = classBytes[offset];
+			if ( tag == CONSTANT_UTF8 ) {
+				final int length = readUnsignedShort( classBytes, offset + 1 );
+				if ( containsPattern( classBytes, offset + 3, offset + 3 + length ) ) {
+					return true;
+				}
+				offset += 3 + length;
+			}
+			else {
+				offset += constantLength( tag, offset );
+				if ( tag == CONSTANT_LONG || tag == CONSTANT_DOUBLE ) {
+					// 8-byte constants take two slots
+					index++;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	private boolean containsPattern(byte[] bytes, int start, int end) {
+		for ( int i = start; i < end; i++ ) {
+			if ( i > start && ! isPossibleNameStart( bytes[i - 1] ) ) {
+				continue;
+			}
+
+			Node node = roots[bytes[i] & 0xFF];
+			int position = i + 1;
+			while ( node != null ) {
+				if ( node.terminal ) {
+					return true;
+				}
+				if ( position >= end ) {
+					break;
+				}
+				node = node.child( bytes[position++] );
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Whether a rule match could start after the given byte.  Matches start at a name boundary
+	 * or just after the `L` of a descriptor; non-ASCII bytes are treated as boundaries.
+	 */
+	private static boolean isPossibleNameStart(byte previous) {
+		if ( previous == 'L' ) {
+			return true;
+		}
+		return ! ( ( previous >= 'a' && previous <= 'z' )
+				|| ( previous >= 'A' && previous <= 'Z' )
+				|| ( previous >= '0' && previous <= '9' )
+				|| previous == '_'
+				|| previous == '$'
+				|| previous == '.'
+				|| previous == '/' );
+	}
+
+	private static class Node {
+		private byte[] labels = new byte[0];
+		private Node[] children = new Node[0];
+		private boolean terminal;
+
+		private Node child(byte label) {
+			for ( int i = 0; i < labels.length; i++ ) {
+				if ( labels[i] == label ) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+
+		private Node childOrCreate(byte label) {
+			final Node existing = child( label );
+			if ( existing != null ) {
+				return existing;
+			}
+
+			final Node created = new Node();
+			labels = Arrays.copyOf( labels, labels.length + 1 );
+			children = Arrays.copyOf( children, children.length + 1 );
+			labels[labels.length - 1] = label;
+			children[children.length - 1] = created;
+			return created;
+		}
+	}
+}
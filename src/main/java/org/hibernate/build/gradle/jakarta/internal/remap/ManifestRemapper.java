@@ -0,0 +1,188 @@
+package org.hibernate.build.gradle.jakarta.internal.remap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies package renames and version rules to a `META-INF/MANIFEST.MF`.
+ *
+ * Only the headers which actually change are re-written (and re-wrapped at 72 bytes);
+ * everything else is kept byte-for-byte.
+ *
+ * @author Steve Ebersole
+ */
+public class ManifestRemapper {
+	public static final String MANIFEST_PATH = "META-INF/MANIFEST.MF";
+
+	public static final Set<String> VERSIONED_HEADERS = new HashSet<>(
+			Arrays.asList( "Import-Package", "Export-Package", "DynamicImport-Package" )
+	);
+
+	private static final int MAX_LINE_LENGTH = 72;
+
+	private final StringRemapper stringRemapper;
+
+	public ManifestRemapper(StringRemapper stringRemapper) {
+		this.stringRemapper = stringRemapper;
+	}
+
+	/**
+	 * @return The remapped bytes, or the same array if nothing changed
+	 */
+	public byte[] remap(byte[] bytes) {
+		final String text = new String( bytes, StandardCharsets.UTF_8 );
+		final String lineSeparator = text.contains( "\r\n" ) ? "\r\n" : "\n";
+		final String[] lines = text.split( "\r?\n", -1 );
+
+		final StringBuilder buffer = new StringBuilder( text.length() + 64 );
+		boolean changed = false;
+
+		int index = 0;
+		while ( index < lines.length ) {
+			// gather a header along with its continuation lines
+			final int headerStart = index;
+			final StringBuilder header = new StringBuilder( lines[index] );
+			index++;
+			while ( index < lines.length && lines[index].startsWith( " " ) ) {
+				header.append( lines[index], 1, lines[index].length() );
+				index++;
+			}
+
+			final String original = header.toString();
+			final String remapped = remapHeader( original );
+			if ( remapped.equals( original ) ) {
+				for ( int i = headerStart; i < index; i++ ) {
+					buffer.append( lines[i] );
+					if ( i < lines.length - 1 ) {
+						buffer.append( lineSeparator );
+					}
+				}
+			}
+			else {
+				changed = true;
+				appendWrapped( remapped, lineSeparator, buffer );
+				if ( index < lines.length ) {
+					buffer.append( lineSeparator );
+				}
+			}
+		}
+
+		if ( ! changed ) {
+			return bytes;
+		}
+		return buffer.toString().getBytes( StandardCharsets.UTF_8 );
+	}
+
+	private String remapHeader(String header) {
+		final int colon = header.indexOf( ": " );
+		if ( colon <= 0 ) {
+			return header;
+		}
+
+		final String name = header.substring( 0, colon );
+		final String value = header.substring( colon + 2 );
+		if ( ! VERSIONED_HEADERS.contains( name ) ) {
+			final String remapped = stringRemapper.remapPackages( value );
+			return remapped == value ? header : name + ": " + remapped;
+		}
+
+		final List<String> clauses = splitClauses( value );
+		final StringBuilder remapped = new StringBuilder( value.length() + 32 );
+		for ( String clause : clauses ) {
+			if ( remapped.length() > 0 ) {
+				remapped.append( ',' );
+			}
+			remapped.append( remapClause( clause ) );
+		}
+		return name + ": " + remapped;
+	}
+
+	private String remapClause(String clause) {
+		final int attributesStart = clause.indexOf( ';' );
+		final String packageName = ( attributesStart < 0 ? clause : clause.substring( 0, attributesStart ) ).trim();
+		final String renamed = stringRemapper.getRules().renamePackage( packageName );
+		if ( renamed == null ) {
+			return clause;
+		}
+
+		final String attributes = attributesStart < 0 ? "" : clause.substring( attributesStart );
+		final String version = stringRemapper.getRules().packageVersion( renamed );
+		if ( version == null ) {
+			return renamed + attributes;
+		}
+
+		final StringBuilder result = new StringBuilder( renamed );
+		boolean versionApplied = false;
+		for ( String attribute : splitAttributes( attributes ) ) {
+			if ( attribute.trim().startsWith( "version=" ) ) {
+				result.append( ";version=\"" ).append( version ).append( '"' );
+				versionApplied = true;
+			}
+			else {
+				result.append( ';' ).append( attribute );
+			}
+		}
+		if ( ! versionApplied ) {
+			result.append( ";version=\"" ).append( version ).append( '"' );
+		}
+		return result.toString();
+	}
+
+	private static List<String> splitClauses(String value) {
+		return split( value, ',' );
+	}
+
+	private static List<String> splitAttributes(String attributes) {
+		final List<String> split = split( attributes, ';' );
+		// the text before the first `;` is empty
+		return split.isEmpty() ? split : split.subList( 1, split.size() );
+	}
+
+	/**
+	 * Split on the delimiter, ignoring delimiters within quotes
+	 */
+	private static List<String> split(String value, char delimiter) {
+		final List<String> parts = new ArrayList<>();
+		boolean quoted = false;
+		int start = 0;
+		for ( int i = 0; i < value.length(); i++ ) {
+			final char c = value.charAt( i );
+			if ( c == '"' ) {
+				quoted = ! quoted;
+			}
+			else if ( c == delimiter && ! quoted ) {
+				parts.add( value.substring( start, i ) );
+				start = i + 1;
+			}
+		}
+		if ( start <= value.length() && ! value.isEmpty() ) {
+			parts.add( value.substring( start ) );
+		}
+		return parts;
+	}
+
+	private static void appendWrapped(String header, String lineSeparator, StringBuilder buffer) {
+		final byte[] bytes = header.getBytes( StandardCharsets.UTF_8 );
+		int start = 0;
+		int lineLength = MAX_LINE_LENGTH;
+		while ( start < bytes.length ) {
+			int end = Math.min( start + lineLength, bytes.length );
+			// do not split a multi-byte character
+			while ( end < bytes.length && ( bytes[end] & 0xC0 ) == 0x80 ) {
+				end--;
+			}
+
+			if ( start > 0 ) {
+				buffer.append( lineSeparator ).append( ' ' );
+			}
+			buffer.append( new String( bytes, start, end - start, StandardCharsets.UTF_8 ) );
+
+			start = end;
+			lineLength = MAX_LINE_LENGTH - 1;
+		}
+	}
+}
@@ -0,0 +1,487 @@
+package org.hibernate.build.gradle.jakarta.internal.remap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Enumeration;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.hibernate.build.gradle.jakarta.TransformationException;
+import org.hibernate.build.gradle.jakarta.internal.Helper;
+
+/**
+ * Plugin-native javax -> jakarta transformation engine.  Handles archives (recursively),
+ * directories and single files using the same rule files as the JakartaTransformer tool,
+ * without forking or loading the tool.
+ *
+ * Files of a directory whose content does not change are copied to the target through
+ * {@link java.nio.channels.FileChannel#transferTo} or, when allowed, hardlinked rather than written.
+ *
+ * A reproducible transformer writes archives whose bytes depend only on the names and content of
+ * their entries (see {@link ZipTransformer}); {@link #normalize} applies the same to archives
+ * produced by the JakartaTransformer tool.
+ *
+ * @author Steve Ebersole
+ */
+public class NativeTransformer {
+	public static final String CLASS_EXTENSION = ".class";
+	public static final String SERVICES_PREFIX = "META-INF/services/";
+
+	public static final Set<String> ARCHIVE_EXTENSIONS = new HashSet<>(
+			Arrays.asList( ".jar", ".war", ".rar", ".ear", ".zip" )
+	);
+
+	public static final Set<String> TEXT_EXTENSIONS = new HashSet<>(
+			Arrays.asList( ".java", ".xml", ".properties", ".jsp", ".jspf", ".tld" )
+	);
+
+	/**
+	 * Time of reproducible entries written by the fallback streams - 1980-02-01 00:00 local time, as
+	 * used by Gradle's reproducible archives
+	 */
+	public static final long REPRODUCIBLE_ENTRY_TIME = new GregorianCalendar( 1980, Calendar.FEBRUARY, 1 ).getTimeInMillis();
+
+	private final StringRemapper stringRemapper;
+	private final ClassFileRemapper classFileRemapper;
+	private final TextRemapper textRemapper;
+	private final ManifestRemapper manifestRemapper;
+	private final ConstantPoolScanner constantPoolScanner;
+	private final ZipTransformer zipTransformer;
+	private final boolean reproducible;
+	private final boolean linkUnchangedFiles;
+
+	private final TransformationStatistics statistics = new TransformationStatistics();
+
+	public NativeTransformer(RenameRules rules) {
+		this( rules, false );
+	}
+
+	public NativeTransformer(RenameRules rules, boolean reproducible) {
+		this( rules, reproducible, false );
+	}
+
+	/**
+	 * @param linkUnchangedFiles Whether the unchanged files of a directory are hardlinked to the target rather than
+	 * copied.  A hardlinked output changes with its source, so this is only safe for sources nothing rewrites in
+	 * place behind the target's back - not, e.g., another project's build output or source files
+	 */
+	public NativeTransformer(RenameRules rules, boolean reproducible, boolean linkUnchangedFiles) {
+		this.stringRemapper = new StringRemapper( rules );
+		this.classFileRemapper = new ClassFileRemapper( stringRemapper );
+		this.constantPoolScanner = new ConstantPoolScanner( rules );
+		this.zipTransformer = new ZipTransformer( this, statistics, reproducible );
+		this.textRemapper = new TextRemapper( stringRemapper );
+		this.manifestRemapper = new ManifestRemapper( stringRemapper );
+		this.reproducible = reproducible;
+		this.linkUnchangedFiles = linkUnchangedFiles;
+	}
+
+	/**
+	 * Whether the given file is an archive, by its extension
+	 */
+	public static boolean isArchive(File file) {
+		return ARCHIVE_EXTENSIONS.contains( extension( file.getName().toLowerCase( Locale.ROOT ) ) );
+	}
+
+	/**
+	 * Write the source archive to the target as reproducible, without applying any rules.  Entries are
+	 * copied as their compressed bytes; nested archives are normalized as well
+	 */
+	public static void normalize(File source, File target) {
+		new NativeTransformer( RenameRules.compile( null, null, null ), true ).transform( source, target );
+	}
+
+	/**
+	 * Normalize the given archive (see {@link #normalize(File, File)}) in place
+	 */
+	public static void normalize(File archive) {
+		final File normalized = new File( archive.getParentFile(), archive.getName() + ".normalized" );
+		normalize( archive, normalized );
+		try {
+			Files.move( normalized.toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING );
+		}
+		catch (IOException e) {
+			throw new TransformationException( "Unable to replace " + archive.getAbsolutePath() + " with its normalized form", e );
+		}
+	}
+
+	/**
+	 * The counters collected by this transformer
+	 */
+	public TransformationStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Transform the source (directory, archive or single file) into the target
+	 */
+	public void transform(File source, File target) {
+		try {
+			if ( ! source.isDirectory() ) {
+				// never write through an existing target - it may be hardlinked into the local transformation cache
+				Files.deleteIfExists( target.toPath() );
+			}
+
+			if ( source.isDirectory() ) {
+				transformDirectory( source.toPath(), target.toPath() );
+			}
+			else if ( isArchive( source ) ) {
+				target.getAbsoluteFile().getParentFile().mkdirs();
+				transformArchiveFile( source.toPath(), target.toPath() );
+			}
+			else {
+				target.getAbsoluteFile().getParentFile().mkdirs();
+				final byte[] bytes = Files.readAllBytes( source.toPath() );
+				try ( OutputStream output = Files.newOutputStream( target.toPath() ) ) {
+					output.write( remapContent( source.getName(), bytes ) );
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new TransformationException( "Unable to transform " + source.getAbsolutePath(), e );
+		}
+	}
+
+	/**
+	 * Pre-flight scan deciding whether transforming the source (directory, archive or single file)
+	 * could change anything, without transforming it.  Nested archives are scanned recursively.
+	 *
+	 * Only entry names and the raw content of transformable entries are checked - class files
+	 * through the {@link ConstantPoolScanner}, manifests and text resources by remapping them - so
+	 * a source without any match can be used as-is.
+	 */
+	public boolean mayRequireTransformation(File source) {
+		try {
+			if ( source.isDirectory() ) {
+				return mayRequireDirectoryTransformation( source.toPath() );
+			}
+			if ( isArchive( source ) ) {
+				return mayRequireArchiveTransformation( source );
+			}
+			return isTransformable( source.getName() )
+					&& mayChangeContent( source.getName(), Files.readAllBytes( source.toPath() ) );
+		}
+		catch (IOException e) {
+			throw new TransformationException( "Unable to scan " + source.getAbsolutePath(), e );
+		}
+	}
+
+	private boolean mayRequireDirectoryTransformation(Path sourceDirectory) throws IOException {
+		final List<Path> files;
+		try ( Stream<Path> stream = Files.walk( sourceDirectory ) ) {
+			files = stream.filter( Files::isRegularFile ).collect( Collectors.toList() );
+		}
+
+		for ( Path file : files ) {
+			if ( mayRequireTransformation( sourceDirectory.relativize( file ).toString().replace( File.separatorChar, '/' ), file ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Pre-flight scan of a single file of a directory, by its path relative to the directory
+	 */
+	private boolean mayRequireTransformation(String relativePath, Path file) throws IOException {
+		return ! remapPath( relativePath ).equals( relativePath )
+				|| ( isTransformable( relativePath ) && mayChangeContent( relativePath, Files.readAllBytes( file ) ) );
+	}
+
+	private boolean mayRequireArchiveTransformation(File source) throws IOException {
+		try ( ZipFile zipFile = new ZipFile( source ) ) {
+			final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while ( entries.hasMoreElements() ) {
+				final ZipEntry entry = entries.nextElement();
+				if ( ! remapPath( entry.getName() ).equals( entry.getName() ) ) {
+					return true;
+				}
+				if ( entry.isDirectory() || ! isTransformable( entry.getName() ) ) {
+					continue;
+				}
+
+				final byte[] bytes;
+				try ( InputStream input = zipFile.getInputStream( entry ) ) {
+					bytes = readAll( input );
+				}
+				if ( mayChangeContent( entry.getName(), bytes ) ) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean mayRequireNestedArchiveTransformation(byte[] archive) throws IOException {
+		final ZipInputStream zipInput = new ZipInputStream( new ByteArrayInputStream( archive ) );
+		ZipEntry entry;
+		while ( ( entry = zipInput.getNextEntry() ) != null ) {
+			if ( ! remapPath( entry.getName() ).equals( entry.getName() ) ) {
+				return true;
+			}
+			if ( ! entry.isDirectory()
+					&& isTransformable( entry.getName() )
+					&& mayChangeContent( entry.getName(), readAll( zipInput ) ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Whether {@link #remapContent} could change the given content.  Does not count towards the
+	 * {@linkplain #getStatistics() statistics}
+	 */
+	private boolean mayChangeContent(String path, byte[] bytes) throws IOException {
+		final String lowerCasePath = path.toLowerCase( Locale.ROOT );
+
+		if ( lowerCasePath.endsWith( CLASS_EXTENSION ) ) {
+			return constantPoolScanner.mayRequireRemapping( bytes );
+		}
+
+		if ( path.equals( ManifestRemapper.MANIFEST_PATH ) || lowerCasePath.endsWith( ".mf" ) ) {
+			return manifestRemapper.remap( bytes ) != bytes;
+		}
+
+		if ( ARCHIVE_EXTENSIONS.contains( extension( lowerCasePath ) ) ) {
+			return mayRequireNestedArchiveTransformation( bytes );
+		}
+
+		return textRemapper.remap( bytes ) != bytes;
+	}
+
+	private void transformDirectory(Path sourceDirectory, Path targetDirectory) throws IOException {
+		final List<Path> files;
+		try ( Stream<Path> stream = Files.walk( sourceDirectory ) ) {
+			files = stream.filter( Files::isRegularFile ).collect( Collectors.toList() );
+		}
+
+		for ( Path file : files ) {
+			final String relativePath = sourceDirectory.relativize( file ).toString().replace( File.separatorChar, '/' );
+			final Path targetFile = targetDirectory.resolve( remapPath( relativePath ) );
+
+			final byte[] bytes = isTransformable( relativePath ) ? Files.readAllBytes( file ) : null;
+			final byte[] remapped = bytes == null ? null : remapContent( relativePath, bytes );
+			if ( remapped == bytes ) {
+				// unchanged content (even if moved to a renamed package directory) - no need to write it
+				if ( linkUnchangedFiles ) {
+					Helper.linkOrCopy( file, targetFile );
+				}
+				else {
+					Files.createDirectories( targetFile.getParent() );
+					Files.deleteIfExists( targetFile );
+					Helper.transfer( file, targetFile );
+				}
+				statistics.fileLinked();
+				continue;
+			}
+
+			Files.createDirectories( targetFile.getParent() );
+			Files.deleteIfExists( targetFile );
+			Files.write( targetFile, remapped );
+			statistics.fileRewritten();
+		}
+	}
+
+	private void transformArchiveFile(Path source, Path target) throws IOException {
+		try ( FileChannel channel = FileChannel.open( source, StandardOpenOption.READ ) ) {
+			if ( channel.size() <= Integer.MAX_VALUE ) {
+				final ByteBuffer mapped = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+				try ( OutputStream output = new BufferedOutputStream( Files.newOutputStream( target ), 64 * 1024 ) ) {
+					if ( zipTransformer.transform( mapped, output ) ) {
+						return;
+					}
+				}
+			}
+		}
+
+		try ( InputStream input = new BufferedInputStream( Files.newInputStream( source ) );
+				OutputStream output = new BufferedOutputStream( Files.newOutputStream( target ) ) ) {
+			transformArchive( input, output );
+		}
+	}
+
+	/**
+	 * Fallback for archives which {@link ZipTransformer} cannot handle (zip64, ...) - every
+	 * entry is inflated and compressed again.  Entries are streamed, so a reproducible transformer
+	 * fixes their time but keeps the source order
+	 */
+	private void transformArchive(InputStream source, OutputStream target) throws IOException {
+		final ZipInputStream zipInput = new ZipInputStream( source );
+		final ZipOutputStream zipOutput = new ZipOutputStream( target );
+
+		final Set<String> written = new HashSet<>();
+		ZipEntry entry;
+		while ( ( entry = zipInput.getNextEntry() ) != null ) {
+			final String path = remapPath( entry.getName() );
+			if ( ! written.add( path ) ) {
+				continue;
+			}
+
+			final ZipEntry outputEntry = new ZipEntry( path );
+			outputEntry.setTime( reproducible ? REPRODUCIBLE_ENTRY_TIME : entry.getTime() );
+			if ( entry.getComment() != null ) {
+				outputEntry.setComment( entry.getComment() );
+			}
+
+			if ( entry.isDirectory() ) {
+				zipOutput.putNextEntry( outputEntry );
+				zipOutput.closeEntry();
+				continue;
+			}
+
+			final byte[] bytes = remapContent( entry.getName(), readAll( zipInput ) );
+			if ( entry.getMethod() == ZipEntry.STORED ) {
+				final CRC32 crc = new CRC32();
+				crc.update( bytes );
+				outputEntry.setMethod( ZipEntry.STORED );
+				outputEntry.setSize( bytes.length );
+				outputEntry.setCompressedSize( bytes.length );
+				outputEntry.setCrc( crc.getValue() );
+			}
+
+			zipOutput.putNextEntry( outputEntry );
+			zipOutput.write( bytes );
+			zipOutput.closeEntry();
+		}
+
+		zipOutput.finish();
+	}
+
+	/**
+	 * The (possibly renamed) path for a file or archive entry
+	 */
+	public String remapPath(String path) {
+		return remapPath( stringRemapper, path );
+	}
+
+	/**
+	 * The (possibly renamed) path for a file or archive entry - a renamed package directory or
+	 * service file name
+	 */
+	public static String remapPath(StringRemapper stringRemapper, String path) {
+		if ( path.startsWith( SERVICES_PREFIX ) && path.length() > SERVICES_PREFIX.length() ) {
+			final String serviceName = path.substring( SERVICES_PREFIX.length() );
+			return SERVICES_PREFIX + stringRemapper.remap( serviceName );
+		}
+
+		final int lastSlash = path.lastIndexOf( '/' );
+		if ( lastSlash <= 0 ) {
+			return path;
+		}
+
+		final String packageName = path.substring( 0, lastSlash ).replace( '/', '.' );
+		final String renamed = stringRemapper.getRules().renamePackage( packageName );
+		if ( renamed == null ) {
+			return path;
+		}
+		return renamed.replace( '.', '/' ) + path.substring( lastSlash );
+	}
+
+	/**
+	 * The (possibly) transformed content of a file or archive entry
+	 */
+	public byte[] remapContent(String path, byte[] bytes) throws IOException {
+		final String lowerCasePath = path.toLowerCase( Locale.ROOT );
+
+		if ( lowerCasePath.endsWith( CLASS_EXTENSION ) ) {
+			final long start = System.nanoTime();
+			try {
+				if ( ! constantPoolScanner.mayRequireRemapping( bytes ) ) {
+					// fast path - nothing in the constant pool matches the rules
+					statistics.classScanned( true );
+					return bytes;
+				}
+				statistics.classScanned( false );
+				final byte[] remapped = classFileRemapper.remap( bytes );
+				if ( remapped != bytes ) {
+					statistics.classRewritten();
+				}
+				return remapped;
+			}
+			finally {
+				statistics.classTime( System.nanoTime() - start );
+			}
+		}
+
+		if ( path.equals( ManifestRemapper.MANIFEST_PATH ) || lowerCasePath.endsWith( ".mf" ) ) {
+			final long start = System.nanoTime();
+			final byte[] remapped = manifestRemapper.remap( bytes );
+			statistics.resourceTime( System.nanoTime() - start );
+			statistics.resourceScanned( remapped != bytes );
+			return remapped;
+		}
+
+		if ( path.startsWith( SERVICES_PREFIX ) || TEXT_EXTENSIONS.contains( extension( lowerCasePath ) ) ) {
+			final long start = System.nanoTime();
+			final byte[] remapped = textRemapper.remap( bytes );
+			statistics.resourceTime( System.nanoTime() - start );
+			statistics.resourceScanned( remapped != bytes );
+			return remapped;
+		}
+
+		if ( ARCHIVE_EXTENSIONS.contains( extension( lowerCasePath ) ) ) {
+			final ByteArrayOutputStream output = new ByteArrayOutputStream( bytes.length );
+			if ( ! zipTransformer.transform( ByteBuffer.wrap( bytes ), output ) ) {
+				output.reset();
+				transformArchive( new ByteArrayInputStream( bytes ), output );
+			}
+			return output.toByteArray();
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * Whether {@link #remapContent} could change the content of the given file or archive entry
+	 */
+	public boolean isTransformable(String path) {
+		final String lowerCasePath = path.toLowerCase( Locale.ROOT );
+		final String extension = extension( lowerCasePath );
+		return lowerCasePath.endsWith( CLASS_EXTENSION )
+				|| path.equals( ManifestRemapper.MANIFEST_PATH )
+				|| lowerCasePath.endsWith( ".mf" )
+				|| path.startsWith( SERVICES_PREFIX )
+				|| TEXT_EXTENSIONS.contains( extension )
+				|| ARCHIVE_EXTENSIONS.contains( extension );
+	}
+
+	private static String extension(String path) {
+		final int lastDot = path.lastIndexOf( '.' );
+		return lastDot < 0 ? "" : path.substring( lastDot );
+	}
+
+	private static byte[] readAll(InputStream input) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[8192];
+		int read;
+		while ( ( read = input.read( buffer ) ) != -1 ) {
+			output.write( buffer, 0, read );
+		}
+		return output.toByteArray();
+	}
+}
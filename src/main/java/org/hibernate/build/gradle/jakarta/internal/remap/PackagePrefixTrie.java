@@ -0,0 +1,83 @@
+package org.hibernate.build.gradle.jakarta.internal.remap;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable trie of (dotted) package name segments used to resolve wildcard rename rules.
+ * A lookup walks the segments of a package name once and returns the rename for the
+ * longest matching rule package.
+ *
+ * @author Steve Ebersole
+ */
+public class PackagePrefixTrie {
+	private final Node root;
+
+	public PackagePrefixTrie(Map<String, String> prefixRenames) {
+		final Node mutableRoot = new Node();
+		prefixRenames.forEach(
+				(prefix, replacement) -> {
+					Node node = mutableRoot;
+					for ( String segment : prefix.split( "\\." ) ) {
+						node = node.children.computeIfAbsent( segment, (s) -> new Node() );
+					}
+					node.replacement = replacement;
+				}
+		);
+		this.root = mutableRoot.freeze();
+	}
+
+	/**
+	 * The renamed package, or null if no rule package is a prefix of the given one
+	 */
+	public String rename(String packageName) {
+		Node node = root;
+		String replacement = null;
+		int matchedLength = 0;
+
+		int segmentStart = 0;
+		while ( segmentStart <= packageName.length() ) {
+			int segmentEnd = packageName.indexOf( '.', segmentStart );
+			if ( segmentEnd < 0 ) {
+				segmentEnd = packageName.length();
+			}
+
+			node = node.children.get( packageName.substring( segmentStart, segmentEnd ) );
+			if ( node == null ) {
+				break;
+			}
+			if ( node.replacement != null ) {
+				replacement = node.replacement;
+				matchedLength = segmentEnd;
+			}
+
+			segmentStart = segmentEnd + 1;
+		}
+
+		if ( replacement == null ) {
+			return null;
+		}
+		return replacement + packageName.substring( matchedLength );
+	}
+
+	public boolean isEmpty() {
+		return root.children.isEmpty();
+	}
+
+	private static class Node {
+		private Map<String, Node> children = new HashMap<>();
+		private String replacement;
+
+		private Node freeze() {
+			if ( children.isEmpty() ) {
+				children = Collections.emptyMap();
+			}
+			else {
+				children.replaceAll( (segment, child) -> child.freeze() );
+				children = Collections.unmodifiableMap( children );
+			}
+			return this;
+		}
+	}
+}
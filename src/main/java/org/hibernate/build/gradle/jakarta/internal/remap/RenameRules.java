@@ -0,0 +1,158 @@
+package org.hibernate.build.gradle.jakarta.internal.remap;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.build.gradle.jakarta.TransformationException;
+
+/**
+ * The rename, version and direct rules used by the native engine, in an immutable compiled
+ * form - exact-match maps for package renames, versions and direct strings plus a
+ * {@linkplain PackagePrefixTrie package-prefix trie} for the wildcard renames.  Reads the same
+ * (properties) rule files as the JakartaTransformer tool.
+ *
+ * @author Steve Ebersole
+ */
+public class RenameRules {
+	public static final String WILDCARD_SUFFIX = ".*";
+
+	private final Map<String, String> packageRenames;
+	private final Map<String, String> wildcardRenames;
+	private final Map<String, String> versions;
+	private final Map<String, String> directStrings;
+
+	private final PackagePrefixTrie wildcardTrie;
+
+	public RenameRules(
+			Map<String, String> packageRenames,
+			Map<String, String> wildcardRenames,
+			Map<String, String> versions,
+			Map<String, String> directStrings) {
+		this.packageRenames = packageRenames;
+		this.wildcardRenames = wildcardRenames;
+		this.versions = versions;
+		this.directStrings = directStrings;
+
+		this.wildcardTrie = new PackagePrefixTrie( wildcardRenames );
+	}
+
+	/**
+	 * Load the rules from the given files, any of which may be null
+	 */
+	public static RenameRules load(File renameRules, File versionRules, File directRules) {
+		return compile( readBytes( renameRules ), readBytes( versionRules ), readBytes( directRules ) );
+	}
+
+	/**
+	 * Compile the rules from the given (properties) rule file contents, any of which may be null
+	 */
+	public static RenameRules compile(byte[] renameRules, byte[] versionRules, byte[] directRules) {
+		final Map<String, String> packageRenames = new HashMap<>();
+		final Map<String, String> wildcardRenames = new HashMap<>();
+		parseProperties( renameRules ).forEach(
+				(key, value) -> {
+					if ( key.endsWith( WILDCARD_SUFFIX ) ) {
+						wildcardRenames.put(
+								key.substring( 0, key.length() - WILDCARD_SUFFIX.length() ),
+								value.endsWith( WILDCARD_SUFFIX ) ? value.substring( 0, value.length() - WILDCARD_SUFFIX.length() ) : value
+						);
+					}
+					else {
+						packageRenames.put( key, value );
+					}
+				}
+		);
+
+		return new RenameRules(
+				Collections.unmodifiableMap( packageRenames ),
+				Collections.unmodifiableMap( wildcardRenames ),
+				Collections.unmodifiableMap( parseProperties( versionRules ) ),
+				Collections.unmodifiableMap( parseProperties( directRules ) )
+		);
+	}
+
+	/**
+	 * The content of the given rule file, or null if the file is null
+	 */
+	public static byte[] readBytes(File rulesFile) {
+		if ( rulesFile == null ) {
+			return null;
+		}
+
+		try {
+			return Files.readAllBytes( rulesFile.toPath() );
+		}
+		catch (IOException e) {
+			throw new TransformationException( "Unable to read transformation rules : " + rulesFile.getAbsolutePath(), e );
+		}
+	}
+
+	private static Map<String, String> parseProperties(byte[] rules) {
+		if ( rules == null ) {
+			return Collections.emptyMap();
+		}
+
+		final Properties properties = new Properties();
+		try {
+			properties.load( new ByteArrayInputStream( rules ) );
+		}
+		catch (IOException e) {
+			throw new TransformationException( "Unable to parse transformation rules", e );
+		}
+
+		final Map<String, String> map = new HashMap<>();
+		properties.forEach( (key, value) -> map.put( key.toString().trim(), value.toString().trim() ) );
+		return map;
+	}
+
+	/**
+	 * The new (dotted) name for the given (dotted) package name, or null if it is not renamed
+	 */
+	public String renamePackage(String packageName) {
+		final String renamed = packageRenames.get( packageName );
+		if ( renamed != null ) {
+			return renamed;
+		}
+
+		if ( wildcardTrie.isEmpty() ) {
+			return null;
+		}
+		return wildcardTrie.rename( packageName );
+	}
+
+	/**
+	 * The replacement for a string which exactly matches a direct rule, or null
+	 */
+	public String directReplacement(String value) {
+		return directStrings.get( value );
+	}
+
+	/**
+	 * The version to apply to the given (already renamed) package, or null
+	 */
+	public String packageVersion(String packageName) {
+		return versions.get( packageName );
+	}
+
+	public boolean isEmpty() {
+		return packageRenames.isEmpty() && wildcardRenames.isEmpty() && directStrings.isEmpty();
+	}
+
+	public Map<String, String> getPackageRenames() {
+		return packageRenames;
+	}
+
+	public Map<String, String> getWildcardRenames() {
+		return wildcardRenames;
+	}
+
+	public Map<String, String> getDirectStrings() {
+		return directStrings;
+	}
+}
@@ -0,0 +1,234 @@
+package org.hibernate.build.gradle.jakarta.internal.remap;
+
+import java.util.Arrays;
+
+/**
+ * Applies package renames to text in which package names may appear in either
+ * dotted (`javax.persistence.Entity`), binary (`javax/persistence/Entity`) or
+ * descriptor (`Ljavax/persistence/Entity;`) form.
+ *
+ * Only exact package matches are renamed - a rule for `javax.annotation` does not
+ * apply to `javax.annotation.processing` (unless it is a wildcard rule).  The package
+ * may be followed by any number of class, nested class or member segments.
+ *
+ * @author Steve Ebersole
+ */
+public class StringRemapper {
+	private final RenameRules rules;
+
+	public StringRemapper(RenameRules rules) {
+		this.rules = rules;
+	}
+
+	public RenameRules getRules() {
+		return rules;
+	}
+
+	/**
+	 * Remap a complete String value, first checking the direct rules.
+	 *
+	 * @return The remapped String, or the same instance if nothing changed
+	 */
+	public String remap(String value) {
+		final String direct = rules.directReplacement( value );
+		if ( direct != null ) {
+			return direct;
+		}
+		return remapPackages( value );
+	}
+
+	/**
+	 * Apply the package renames to any package names found in the given text
+	 *
+	 * @return The remapped text, or the same instance if nothing changed
+	 */
+	public String remapPackages(String text) {
+		final int length = text.length();
+
+		StringBuilder buffer = null;
+		int copiedTo = 0;
+
+		int position = 0;
+		while ( position < length ) {
+			if ( ! Character.isJavaIdentifierStart( text.charAt( position ) ) || ! isBoundary( text, position ) ) {
+				position++;
+				continue;
+			}
+
+			final Match match = matchAt( text, position );
+			if ( match != null ) {
+				if ( buffer == null ) {
+					buffer = new StringBuilder( length + 16 );
+				}
+				buffer.append( text, copiedTo, match.start );
+				buffer.append( match.replacement );
+				copiedTo = match.getEnd();
+				position = copiedTo;
+			}
+			else {
+				position = skipRun( text, position );
+			}
+		}
+
+		if ( buffer == null ) {
+			return text;
+		}
+
+		buffer.append( text, copiedTo, length );
+		return buffer.toString();
+	}
+
+	/**
+	 * Check for a package name (dotted, binary or within a descriptor) to rename at the given
+	 * position, which is expected to be a {@linkplain #isBoundary boundary}.
+	 *
+	 * @return The match, or null
+	 */
+	public Match matchAt(CharSequence text, int position) {
+		if ( position >= text.length() || ! Character.isJavaIdentifierStart( text.charAt( position ) ) ) {
+			return null;
+		}
+
+		if ( text.charAt( position ) == 'L' && position + 1 < text.length() ) {
+			// possibly a descriptor - `Ljavax/persistence/Entity;`
+			final Match match = match( text, position + 1, '/' );
+			if ( match != null ) {
+				return match;
+			}
+		}
+		return match( text, position, (char) 0 );
+	}
+
+	/**
+	 * Whether a package name may start at the given position - i.e. it is not preceded by
+	 * a separator or part of an identifier
+	 */
+	public static boolean isBoundary(CharSequence text, int position) {
+		if ( position == 0 ) {
+			return true;
+		}
+
+		final char previous = text.charAt( position - 1 );
+		return previous != '.' && previous != '/' && ! Character.isJavaIdentifierPart( previous );
+	}
+
+	private static int skipRun(CharSequence text, int position) {
+		final int length = text.length();
+		int index = position;
+		while ( index < length ) {
+			final char c = text.charAt( index );
+			if ( ! Character.isJavaIdentifierPart( c ) && c != '.' && c != '/' ) {
+				break;
+			}
+			index++;
+		}
+		return Math.max( index, position + 1 );
+	}
+
+	/**
+	 * Scan the run of identifier segments starting at `start` and check its segment prefixes, from the
+	 * longest to the shortest, against the rename rules - renaming the longest one known.
+	 *
+	 * Besides the whole run and the run minus its last segment (a class or file name), a prefix is only
+	 * considered when followed by a segment not starting lower case - a (nested) class name or constant, as
+	 * in `javax.persistence.criteria.CriteriaBuilder.In` or `javax.persistence.GenerationType.IDENTITY`.  A
+	 * prefix followed by a lower case segment is part of a sub-package name (`javax.persistence.jdbc.driver`)
+	 * which, like the JakartaTransformer tool, is left alone unless the rules know the sub-package.
+	 *
+	 * @param requiredSeparator The separator the run must use, or `0` for either
+	 */
+	private Match match(CharSequence text, int start, char requiredSeparator) {
+		final int length = text.length();
+
+		char separator = requiredSeparator;
+		int[] segmentStarts = new int[8];
+		int segmentCount = 0;
+		int index = start;
+
+		while ( true ) {
+			// consume a segment
+			if ( index >= length || ! Character.isJavaIdentifierStart( text.charAt( index ) ) ) {
+				return null;
+			}
+			if ( segmentCount == segmentStarts.length ) {
+				segmentStarts = Arrays.copyOf( segmentStarts, segmentCount * 2 );
+			}
+			segmentStarts[segmentCount++] = index;
+			index++;
+			while ( index < length && Character.isJavaIdentifierPart( text.charAt( index ) ) ) {
+				index++;
+			}
+
+			if ( index + 1 < length ) {
+				final char next = text.charAt( index );
+				if ( ( next == '.' || next == '/' )
+						&& ( separator == 0 || separator == next )
+						&& Character.isJavaIdentifierStart( text.charAt( index + 1 ) ) ) {
+					separator = next;
+					index++;
+					continue;
+				}
+			}
+			break;
+		}
+
+		if ( segmentCount < 2 ) {
+			// single segment
+			return null;
+		}
+
+		final int runEnd = index;
+		if ( requiredSeparator != 0 && ( runEnd >= length || ( text.charAt( runEnd ) != ';' && text.charAt( runEnd ) != '<' ) ) ) {
+			// not a descriptor after all
+			return null;
+		}
+
+		final String run = text.subSequence( start, runEnd ).toString();
+		final String dotted = separator == '.' ? run : run.replace( separator, '.' );
+
+		for ( int prefixSegments = segmentCount; prefixSegments > 0; prefixSegments-- ) {
+			if ( prefixSegments < segmentCount - 1
+					&& Character.isLowerCase( text.charAt( segmentStarts[prefixSegments] ) ) ) {
+				continue;
+			}
+
+			final int prefixLength = prefixSegments == segmentCount
+					? runEnd - start
+					: segmentStarts[prefixSegments] - 1 - start;
+			final String renamed = rules.renamePackage( dotted.substring( 0, prefixLength ) );
+			if ( renamed != null ) {
+				return new Match( start, prefixLength, separator == '.' ? renamed : renamed.replace( '.', separator ) );
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * A package name to rename - the text from {@link #getStart()} to {@link #getEnd()}
+	 * is replaced by {@link #getReplacement()}
+	 */
+	public static class Match {
+		private final int start;
+		private final int length;
+		private final String replacement;
+
+		private Match(int start, int length, String replacement) {
+			this.start = start;
+			this.length = length;
+			this.replacement = replacement;
+		}
+
+		public int getStart() {
+			return start;
+		}
+
+		public int getEnd() {
+			return start + length;
+		}
+
+		public String getReplacement() {
+			return replacement;
+		}
+	}
+}
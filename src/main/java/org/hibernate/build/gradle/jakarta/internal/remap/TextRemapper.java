@@ -0,0 +1,161 @@
+package org.hibernate.build.gradle.jakarta.internal.remap;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Applies package renames to text resources (Java sources, XML descriptors, properties, ...).
+ *
+ * The content is handled as ISO-8859-1 so that every byte round-trips unchanged - the rule
+ * patterns are ASCII, which UTF-8 encodes identically.
+ *
+ * Candidate positions are located by a single {@linkplain AhoCorasickMatcher Aho-Corasick} pass
+ * over the bytes for every rule package (dotted and binary form); only those positions are then
+ * checked against the {@link StringRemapper} rules, over a view of the bytes rather than a decoded
+ * String.  Content without any candidate is returned as-is.
+ *
+ * Used by the native engine only; the JakartaTransformer tool (the default engine) scans text
+ * resources itself.
+ *
+ * @author Steve Ebersole
+ */
+public class TextRemapper {
+	private final StringRemapper stringRemapper;
+	private final AhoCorasickMatcher matcher;
+
+	public TextRemapper(StringRemapper stringRemapper) {
+		this.stringRemapper = stringRemapper;
+		this.matcher = new AhoCorasickMatcher( packagePatterns( stringRemapper.getRules() ) );
+	}
+
+	private static Set<String> packagePatterns(RenameRules rules) {
+		final Set<String> patterns = new LinkedHashSet<>();
+		for ( String packageName : rules.getPackageRenames().keySet() ) {
+			patterns.add( packageName );
+			patterns.add( packageName.replace( '.', '/' ) );
+		}
+		for ( String packageName : rules.getWildcardRenames().keySet() ) {
+			patterns.add( packageName );
+			patterns.add( packageName.replace( '.', '/' ) );
+		}
+		return patterns;
+	}
+
+	/**
+	 * @return The remapped bytes, or the same array if nothing changed
+	 */
+	public byte[] remap(byte[] bytes) {
+		final CandidateCollector candidates = new CandidateCollector();
+		matcher.scan( bytes, 0, bytes.length, candidates );
+		if ( candidates.size == 0 ) {
+			return bytes;
+		}
+
+		final int[] starts = candidates.sortedStarts();
+		final Latin1Sequence text = new Latin1Sequence( bytes );
+
+		ByteArrayOutputStream output = null;
+		int copiedTo = 0;
+
+		for ( int i = 0; i < starts.length; i++ ) {
+			final int start = starts[i];
+			if ( start < copiedTo || ( i > 0 && start == starts[i - 1] ) ) {
+				continue;
+			}
+
+			// a rule package starts here - check for a package name to rename either starting at this
+			// position or, for a descriptor (`Ljavax/...;`), at the preceding `L`
+			StringRemapper.Match match = null;
+			if ( StringRemapper.isBoundary( text, start ) ) {
+				match = stringRemapper.matchAt( text, start );
+			}
+			else if ( start > copiedTo && bytes[start - 1] == 'L' && StringRemapper.isBoundary( text, start - 1 ) ) {
+				match = stringRemapper.matchAt( text, start - 1 );
+			}
+
+			if ( match == null ) {
+				continue;
+			}
+
+			if ( output == null ) {
+				output = new ByteArrayOutputStream( bytes.length + 64 );
+			}
+			output.write( bytes, copiedTo, match.getStart() - copiedTo );
+			final byte[] replacement = match.getReplacement().getBytes( StandardCharsets.ISO_8859_1 );
+			output.write( replacement, 0, replacement.length );
+			copiedTo = match.getEnd();
+		}
+
+		if ( output == null ) {
+			return bytes;
+		}
+
+		output.write( bytes, copiedTo, bytes.length - copiedTo );
+		return output.toByteArray();
+	}
+
+	/**
+	 * Collects the start offset of each pattern occurrence
+	 */
+	private static class CandidateCollector implements AhoCorasickMatcher.MatchConsumer {
+		private int[] starts = new int[16];
+		private int size;
+
+		@Override
+		public void match(int start, int end) {
+			if ( size == starts.length ) {
+				starts = Arrays.copyOf( starts, size * 2 );
+			}
+			starts[size++] = start;
+		}
+
+		private int[] sortedStarts() {
+			// occurrences are reported by end offset, so overlapping patterns may be out of order
+			final int[] sorted = Arrays.copyOf( starts, size );
+			Arrays.sort( sorted );
+			return sorted;
+		}
+	}
+
+	/**
+	 * ISO-8859-1 view over a byte array, without copying it
+	 */
+	private static class Latin1Sequence implements CharSequence {
+		private final byte[] bytes;
+		private final int offset;
+		private final int length;
+
+		private Latin1Sequence(byte[] bytes) {
+			this( bytes, 0, bytes.length );
+		}
+
+		private Latin1Sequence(byte[] bytes, int offset, int length) {
+			this.bytes = bytes;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return (char) ( bytes[offset + index] & 0xFF );
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return new Latin1Sequence( bytes, offset + start, end - start );
+		}
+
+		@Override
+		public String toString() {
+			return new String( bytes, offset, length, StandardCharsets.ISO_8859_1 );
+		}
+	}
+}
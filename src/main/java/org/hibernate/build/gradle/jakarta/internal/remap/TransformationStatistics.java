@@ -0,0 +1,155 @@
+package org.hibernate.build.gradle.jakarta.internal.remap;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters collected by the native engine over a single transformation
+ *
+ * @author Steve Ebersole
+ */
+public class TransformationStatistics {
+	private final AtomicInteger classCount = new AtomicInteger();
+	private final AtomicInteger fastPathCount = new AtomicInteger();
+	private final AtomicInteger rewrittenClassCount = new AtomicInteger();
+	private final AtomicInteger resourceCount = new AtomicInteger();
+	private final AtomicInteger rewrittenResourceCount = new AtomicInteger();
+	private final AtomicLong classRewriteNanos = new AtomicLong();
+	private final AtomicLong resourceRewriteNanos = new AtomicLong();
+	private final AtomicInteger rawCopiedEntryCount = new AtomicInteger();
+	private final AtomicInteger recompressedEntryCount = new AtomicInteger();
+	private final AtomicInteger linkedFileCount = new AtomicInteger();
+	private final AtomicInteger rewrittenFileCount = new AtomicInteger();
+
+	public void classScanned(boolean fastPath) {
+		classCount.incrementAndGet();
+		if ( fastPath ) {
+			fastPathCount.incrementAndGet();
+		}
+	}
+
+	public void classRewritten() {
+		rewrittenClassCount.incrementAndGet();
+	}
+
+	public void resourceScanned(boolean rewritten) {
+		resourceCount.incrementAndGet();
+		if ( rewritten ) {
+			rewrittenResourceCount.incrementAndGet();
+		}
+	}
+
+	public void classTime(long nanos) {
+		classRewriteNanos.addAndGet( nanos );
+	}
+
+	public void resourceTime(long nanos) {
+		resourceRewriteNanos.addAndGet( nanos );
+	}
+
+	public void entryRawCopied() {
+		rawCopiedEntryCount.incrementAndGet();
+	}
+
+	public void entryRecompressed() {
+		recompressedEntryCount.incrementAndGet();
+	}
+
+	public void fileLinked() {
+		linkedFileCount.incrementAndGet();
+	}
+
+	public void fileRewritten() {
+		rewrittenFileCount.incrementAndGet();
+	}
+
+	/**
+	 * The number of class files processed
+	 */
+	public int getClassCount() {
+		return classCount.get();
+	}
+
+	/**
+	 * The number of class files which the constant-pool pre-scan showed to be unaffected,
+	 * and which were therefore copied without being decoded
+	 */
+	public int getFastPathCount() {
+		return fastPathCount.get();
+	}
+
+	/**
+	 * The number of class files whose content was changed
+	 */
+	public int getRewrittenClassCount() {
+		return rewrittenClassCount.get();
+	}
+
+	/**
+	 * The number of text resources and manifests processed
+	 */
+	public int getResourceCount() {
+		return resourceCount.get();
+	}
+
+	/**
+	 * The number of text resources and manifests whose content was changed
+	 */
+	public int getRewrittenResourceCount() {
+		return rewrittenResourceCount.get();
+	}
+
+	/**
+	 * Time spent pre-scanning and rewriting class files
+	 */
+	public long getClassRewriteNanos() {
+		return classRewriteNanos.get();
+	}
+
+	/**
+	 * Time spent rewriting text resources and manifests
+	 */
+	public long getResourceRewriteNanos() {
+		return resourceRewriteNanos.get();
+	}
+
+	/**
+	 * The number of archive entries copied as their already-compressed bytes
+	 */
+	public int getRawCopiedEntryCount() {
+		return rawCopiedEntryCount.get();
+	}
+
+	/**
+	 * The number of archive entries which changed and so were compressed again
+	 */
+	public int getRecompressedEntryCount() {
+		return recompressedEntryCount.get();
+	}
+
+	/**
+	 * The number of unchanged files of a directory transformation which were hardlinked (or copied) as-is
+	 */
+	public int getLinkedFileCount() {
+		return linkedFileCount.get();
+	}
+
+	/**
+	 * The number of files of a directory transformation which changed and so were written
+	 */
+	public int getRewrittenFileCount() {
+		return rewrittenFileCount.get();
+	}
+
+	@Override
+	public String toString() {
+		String summary = getFastPathCount() + " of " + getClassCount() + " classes copied unchanged via pre-scan";
+		if ( getRawCopiedEntryCount() != 0 || getRecompressedEntryCount() != 0 ) {
+			summary += "; " + getRawCopiedEntryCount() + " archive entries copied raw, " + getRecompressedEntryCount() + " recompressed";
+		}
+		if ( getLinkedFileCount() != 0 || getRewrittenFileCount() != 0 ) {
+			summary += "; " + getLinkedFileCount() + " files linked, " + getRewrittenFileCount() + " rewritten";
+		}
+		return summary;
+	}
+}
@@ -0,0 +1,485 @@
+package org.hibernate.build.gradle.jakarta.internal.remap;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.hibernate.build.gradle.jakarta.TransformationException;
+
+/**
+ * Zip-to-zip transformation driven by the source archive's central directory.
+ *
+ * Entries are streamed to the output in central directory order (unless reproducible, see below).  Entries whose content the
+ * {@link NativeTransformer} does not change are copied as their already-compressed bytes, with
+ * CRC and sizes preserved - entries of a kind which is never transformed are not even inflated.
+ * Only entries whose content changes are compressed again.
+ *
+ * When reproducible, entries are written ordered by name (the manifest first, as `JarInputStream`
+ * expects) with a fixed time and without extra fields (which may hold further timestamps), so that
+ * the output depends only on the names and content of the entries.
+ *
+ * Zip64 archives are not handled here; {@link #transform} returns `false` for them (and for
+ * anything else it cannot read) so that the caller can fall back to plain zip streams.
+ *
+ * @author Steve Ebersole
+ */
+public class ZipTransformer {
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+	private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+	private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+
+	private static final int LOCAL_HEADER_LENGTH = 30;
+	private static final int CENTRAL_HEADER_LENGTH = 46;
+	private static final int END_OF_CENTRAL_DIRECTORY_LENGTH = 22;
+
+	private static final int FLAG_ENCRYPTED = 1;
+	private static final int FLAG_DATA_DESCRIPTOR = 1 << 3;
+	private static final int FLAG_UTF8 = 1 << 11;
+
+	private static final int METHOD_STORED = 0;
+	private static final int METHOD_DEFLATED = 8;
+
+	private static final long MAX_32_BIT = 0xFFFFFFFFL;
+
+	/**
+	 * MS-DOS time and date of reproducible entries - 1980-02-01 00:00, as used by Gradle's reproducible archives
+	 */
+	private static final short REPRODUCIBLE_TIME = 0;
+	private static final short REPRODUCIBLE_DATE = ( 2 << 5 ) | 1;
+
+	private static final String META_INF = "META-INF/";
+
+	private final NativeTransformer transformer;
+	private final TransformationStatistics statistics;
+	private final boolean reproducible;
+
+	public ZipTransformer(NativeTransformer transformer, TransformationStatistics statistics, boolean reproducible) {
+		this.transformer = transformer;
+		this.statistics = statistics;
+		this.reproducible = reproducible;
+	}
+
+	/**
+	 * Transform the archive in the given buffer, writing the result to the output
+	 *
+	 * @return `false` if the archive could not be handled, in which case nothing was written
+	 */
+	public boolean transform(ByteBuffer source, OutputStream output) throws IOException {
+		final ByteBuffer archive = source.duplicate().order( ByteOrder.LITTLE_ENDIAN );
+
+		final List<CentralEntry> entries = readCentralDirectory( archive );
+		if ( entries == null ) {
+			return false;
+		}
+
+		// the first entry of a (remapped) name wins
+		final List<CentralEntry> outputEntries = new ArrayList<>( entries.size() );
+		final Set<String> names = new HashSet<>();
+		for ( CentralEntry entry : entries ) {
+			final String name = transformer.remapPath( entry.name );
+			if ( names.add( name ) ) {
+				final CentralEntry outputEntry = entry.renamed( name );
+				outputEntry.source = entry;
+				if ( reproducible ) {
+					outputEntry.time = REPRODUCIBLE_TIME;
+					outputEntry.date = REPRODUCIBLE_DATE;
+					outputEntry.extra = new byte[0];
+				}
+				outputEntries.add( outputEntry );
+			}
+		}
+		if ( reproducible ) {
+			outputEntries.sort( Comparator.comparingInt( ZipTransformer::orderGroup ).thenComparing( (entry) -> entry.name ) );
+		}
+
+		final CountingOutputStream counting = new CountingOutputStream( output );
+		for ( CentralEntry outputEntry : outputEntries ) {
+			final CentralEntry entry = outputEntry.source;
+
+			final int dataStart = localDataStart( archive, entry );
+			final ByteBuffer compressed = slice( archive, dataStart, (int) entry.compressedSize );
+
+			outputEntry.localHeaderOffset = counting.count;
+
+			if ( entry.isDirectory() || ! transformer.isTransformable( entry.name ) ) {
+				writeEntry( outputEntry, compressed, counting );
+				statistics.entryRawCopied();
+				continue;
+			}
+
+			final byte[] content = inflate( entry, compressed );
+			final byte[] transformed = transformer.remapContent( entry.name, content );
+			if ( transformed == content ) {
+				writeEntry( outputEntry, compressed, counting );
+				statistics.entryRawCopied();
+				continue;
+			}
+
+			final CRC32 crc = new CRC32();
+			crc.update( transformed );
+			outputEntry.crc = crc.getValue();
+			outputEntry.uncompressedSize = transformed.length;
+
+			final ByteBuffer recompressed;
+			if ( entry.method == METHOD_DEFLATED ) {
+				recompressed = ByteBuffer.wrap( deflate( transformed ) );
+			}
+			else {
+				recompressed = ByteBuffer.wrap( transformed );
+			}
+			outputEntry.compressedSize = recompressed.remaining();
+
+			writeEntry( outputEntry, recompressed, counting );
+			statistics.entryRecompressed();
+		}
+
+		final long centralDirectoryOffset = counting.count;
+		for ( CentralEntry entry : outputEntries ) {
+			writeCentralHeader( entry, counting );
+		}
+		writeEndOfCentralDirectory( outputEntries.size(), counting.count - centralDirectoryOffset, centralDirectoryOffset, counting );
+
+		counting.flush();
+		return true;
+	}
+
+	/**
+	 * Reproducible ordering - `META-INF/` and the manifest ahead of all other entries
+	 */
+	private static int orderGroup(CentralEntry entry) {
+		if ( entry.name.equals( META_INF ) ) {
+			return 0;
+		}
+		if ( entry.name.equals( ManifestRemapper.MANIFEST_PATH ) ) {
+			return 1;
+		}
+		return 2;
+	}
+
+	private static List<CentralEntry> readCentralDirectory(ByteBuffer archive) {
+		final int endOfCentralDirectory = findEndOfCentralDirectory( archive );
+		if ( endOfCentralDirectory < 0 ) {
+			return null;
+		}
+
+		final int entryCount = Short.toUnsignedInt( archive.getShort( endOfCentralDirectory + 10 ) );
+		final long centralDirectoryOffset = Integer.toUnsignedLong( archive.getInt( endOfCentralDirectory + 16 ) );
+		if ( entryCount == 0xFFFF || centralDirectoryOffset == MAX_32_BIT ) {
+			// zip64
+			return null;
+		}
+
+		final List<CentralEntry> entries = new ArrayList<>( entryCount );
+		int offset = (int) centralDirectoryOffset;
+		for ( int i = 0; i < entryCount; i++ ) {
+			if ( offset + CENTRAL_HEADER_LENGTH > archive.limit() || archive.getInt( offset ) != CENTRAL_HEADER_SIGNATURE ) {
+				return null;
+			}
+
+			final CentralEntry entry = new CentralEntry();
+			entry.versionMadeBy = archive.getShort( offset + 4 );
+			entry.versionNeeded = archive.getShort( offset + 6 );
+			entry.flags = Short.toUnsignedInt( archive.getShort( offset + 8 ) );
+			entry.method = Short.toUnsignedInt( archive.getShort( offset + 10 ) );
+			entry.time = archive.getShort( offset + 12 );
+			entry.date = archive.getShort( offset + 14 );
+			entry.crc = Integer.toUnsignedLong( archive.getInt( offset + 16 ) );
+			entry.compressedSize = Integer.toUnsignedLong( archive.getInt( offset + 20 ) );
+			entry.uncompressedSize = Integer.toUnsignedLong( archive.getInt( offset + 24 ) );
+			final int nameLength = Short.toUnsignedInt( archive.getShort( offset + 28 ) );
+			final int extraLength = Short.toUnsignedInt( archive.getShort( offset + 30 ) );
+			final int commentLength = Short.toUnsignedInt( archive.getShort( offset + 32 ) );
+			entry.internalAttributes = archive.getShort( offset + 36 );
+			entry.externalAttributes = archive.getInt( offset + 38 );
+			entry.localHeaderOffset = Integer.toUnsignedLong( archive.getInt( offset + 42 ) );
+
+			if ( entry.compressedSize == MAX_32_BIT
+					|| entry.uncompressedSize == MAX_32_BIT
+					|| entry.localHeaderOffset == MAX_32_BIT ) {
+				// zip64
+				return null;
+			}
+			if ( ( entry.method != METHOD_STORED && entry.method != METHOD_DEFLATED )
+					|| ( entry.flags & FLAG_ENCRYPTED ) != 0 ) {
+				return null;
+			}
+
+			final int nameStart = offset + CENTRAL_HEADER_LENGTH;
+			entry.name = new String( bytes( archive, nameStart, nameLength ), StandardCharsets.UTF_8 );
+			entry.extra = bytes( archive, nameStart + nameLength, extraLength );
+			entry.comment = bytes( archive, nameStart + nameLength + extraLength, commentLength );
+
+			entries.add( entry );
+			offset = nameStart + nameLength + extraLength + commentLength;
+		}
+
+		return entries;
+	}
+
+	private static int findEndOfCentralDirectory(ByteBuffer archive) {
+		// the record is at the very end, followed only by an optional comment of up to 64k
+		final int lowest = Math.max( 0, archive.limit() - END_OF_CENTRAL_DIRECTORY_LENGTH - 0xFFFF );
+		for ( int offset = archive.limit() - END_OF_CENTRAL_DIRECTORY_LENGTH; offset >= lowest; offset-- ) {
+			if ( archive.getInt( offset ) == END_OF_CENTRAL_DIRECTORY_SIGNATURE ) {
+				return offset;
+			}
+		}
+		return -1;
+	}
+
+	private static int localDataStart(ByteBuffer archive, CentralEntry entry) {
+		final int offset = (int) entry.localHeaderOffset;
+		if ( archive.getInt( offset ) != LOCAL_HEADER_SIGNATURE ) {
+			throw new TransformationException( "Invalid local header for archive entry " + entry.name );
+		}
+		final int nameLength = Short.toUnsignedInt( archive.getShort( offset + 26 ) );
+		final int extraLength = Short.toUnsignedInt( archive.getShort( offset + 28 ) );
+		return offset + LOCAL_HEADER_LENGTH + nameLength + extraLength;
+	}
+
+	private static byte[] inflate(CentralEntry entry, ByteBuffer compressed) {
+		final byte[] input = bytes( compressed, compressed.position(), compressed.remaining() );
+		if ( entry.method == METHOD_STORED ) {
+			return input;
+		}
+
+		final byte[] output = new byte[ (int) entry.uncompressedSize ];
+		final Inflater inflater = new Inflater( true );
+		try {
+			inflater.setInput( input );
+			int produced = 0;
+			while ( produced < output.length ) {
+				final int inflated = inflater.inflate( output, produced, output.length - produced );
+				if ( inflated == 0 && ( inflater.finished() || inflater.needsInput() || inflater.needsDictionary() ) ) {
+					break;
+				}
+				produced += inflated;
+			}
+			if ( produced != output.length ) {
+				throw new TransformationException( "Unexpected size for archive entry " + entry.name );
+			}
+			return output;
+		}
+		catch (DataFormatException e) {
+			throw new TransformationException( "Unable to inflate archive entry " + entry.name, e );
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+	private static byte[] deflate(byte[] content) {
+		final Deflater deflater = new Deflater( Deflater.DEFAULT_COMPRESSION, true );
+		try {
+			deflater.setInput( content );
+			deflater.finish();
+
+			byte[] output = new byte[ Math.max( 64, content.length / 2 ) ];
+			int produced = 0;
+			while ( ! deflater.finished() ) {
+				if ( produced == output.length ) {
+					output = Arrays.copyOf( output, output.length * 2 );
+				}
+				produced += deflater.deflate( output, produced, output.length - produced );
+			}
+			return Arrays.copyOf( output, produced );
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	private static void writeEntry(CentralEntry entry, ByteBuffer data, CountingOutputStream output) throws IOException {
+		final byte[] name = entry.name.getBytes( StandardCharsets.UTF_8 );
+
+		final ByteBuffer header = ByteBuffer.allocate( LOCAL_HEADER_LENGTH ).order( ByteOrder.LITTLE_ENDIAN );
+		header.putInt( LOCAL_HEADER_SIGNATURE );
+		header.putShort( entry.versionNeeded );
+		header.putShort( (short) entry.flags );
+		header.putShort( (short) entry.method );
+		header.putShort( entry.time );
+		header.putShort( entry.date );
+		header.putInt( (int) entry.crc );
+		header.putInt( (int) entry.compressedSize );
+		header.putInt( (int) entry.uncompressedSize );
+		header.putShort( (short) name.length );
+		header.putShort( (short) 0 );
+
+		output.write( header.array() );
+		output.write( name );
+		write( data, output );
+
+		if ( output.count > MAX_32_BIT ) {
+			throw new TransformationException( "Transformed archive exceeds the 4GB (non-zip64) limit" );
+		}
+	}
+
+	private static void writeCentralHeader(CentralEntry entry, CountingOutputStream output) throws IOException {
+		final byte[] name = entry.name.getBytes( StandardCharsets.UTF_8 );
+
+		final ByteBuffer header = ByteBuffer.allocate( CENTRAL_HEADER_LENGTH ).order( ByteOrder.LITTLE_ENDIAN );
+		header.putInt( CENTRAL_HEADER_SIGNATURE );
+		header.putShort( entry.versionMadeBy );
+		header.putShort( entry.versionNeeded );
+		header.putShort( (short) entry.flags );
+		header.putShort( (short) entry.method );
+		header.putShort( entry.time );
+		header.putShort( entry.date );
+		header.putInt( (int) entry.crc );
+		header.putInt( (int) entry.compressedSize );
+		header.putInt( (int) entry.uncompressedSize );
+		header.putShort( (short) name.length );
+		header.putShort( (short) entry.extra.length );
+		header.putShort( (short) entry.comment.length );
+		header.putShort( (short) 0 );
+		header.putShort( entry.internalAttributes );
+		header.putInt( entry.externalAttributes );
+		header.putInt( (int) entry.localHeaderOffset );
+
+		output.write( header.array() );
+		output.write( name );
+		output.write( entry.extra );
+		output.write( entry.comment );
+	}
+
+	private static void writeEndOfCentralDirectory(
+			int entryCount,
+			long centralDirectorySize,
+			long centralDirectoryOffset,
+			CountingOutputStream output) throws IOException {
+		if ( entryCount >= 0xFFFF ) {
+			throw new TransformationException( "Transformed archive exceeds the 65535 entry (non-zip64) limit" );
+		}
+
+		final ByteBuffer record = ByteBuffer.allocate( END_OF_CENTRAL_DIRECTORY_LENGTH ).order( ByteOrder.LITTLE_ENDIAN );
+		record.putInt( END_OF_CENTRAL_DIRECTORY_SIGNATURE );
+		record.putShort( (short) 0 );
+		record.putShort( (short) 0 );
+		record.putShort( (short) entryCount );
+		record.putShort( (short) entryCount );
+		record.putInt( (int) centralDirectorySize );
+		record.putInt( (int) centralDirectoryOffset );
+		record.putShort( (short) 0 );
+
+		output.write( record.array() );
+	}
+
+	private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+		final ByteBuffer duplicate = buffer.duplicate();
+		duplicate.position( offset );
+		duplicate.limit( offset + length );
+		return duplicate.slice();
+	}
+
+	private static byte[] bytes(ByteBuffer buffer, int offset, int length) {
+		final byte[] bytes = new byte[length];
+		final ByteBuffer duplicate = buffer.duplicate();
+		duplicate.position( offset );
+		duplicate.get( bytes );
+		return bytes;
+	}
+
+	private static void write(ByteBuffer data, OutputStream output) throws IOException {
+		if ( data.hasArray() ) {
+			output.write( data.array(), data.arrayOffset() + data.position(), data.remaining() );
+			return;
+		}
+
+		final ByteBuffer duplicate = data.duplicate();
+		final byte[] chunk = new byte[ Math.min( 64 * 1024, duplicate.remaining() ) ];
+		while ( duplicate.hasRemaining() ) {
+			final int length = Math.min( chunk.length, duplicate.remaining() );
+			duplicate.get( chunk, 0, length );
+			output.write( chunk, 0, length );
+		}
+	}
+
+	private static class CentralEntry {
+		private short versionMadeBy;
+		private short versionNeeded;
+		private int flags;
+		private int method;
+		private short time;
+		private short date;
+		private long crc;
+		private long compressedSize;
+		private long uncompressedSize;
+		private short internalAttributes;
+		private int externalAttributes;
+		private long localHeaderOffset;
+
+		private String name;
+		private byte[] extra;
+		private byte[] comment;
+
+		/**
+		 * For an output entry, the source entry it is written from
+		 */
+		private CentralEntry source;
+
+		private boolean isDirectory() {
+			return name.endsWith( "/" );
+		}
+
+		/**
+		 * A copy for the output, under the given name.  Sizes are always written to the local
+		 * header, so no data descriptor is used.
+		 */
+		private CentralEntry renamed(String name) {
+			final CentralEntry copy = new CentralEntry();
+			copy.versionMadeBy = versionMadeBy;
+			copy.versionNeeded = versionNeeded;
+			copy.flags = ( flags & ~FLAG_DATA_DESCRIPTOR ) | FLAG_UTF8;
+			copy.method = method;
+			copy.time = time;
+			copy.date = date;
+			copy.crc = crc;
+			copy.compressedSize = compressedSize;
+			copy.uncompressedSize = uncompressedSize;
+			copy.internalAttributes = internalAttributes;
+			copy.externalAttributes = externalAttributes;
+			copy.name = name;
+			copy.extra = extra;
+			copy.comment = comment;
+			return copy;
+		}
+	}
+
+	private static class CountingOutputStream extends OutputStream {
+		private final OutputStream delegate;
+		private long count;
+
+		private CountingOutputStream(OutputStream delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			delegate.write( b );
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			delegate.write( b, off, len );
+			count += len;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			delegate.flush();
+		}
+	}
+}
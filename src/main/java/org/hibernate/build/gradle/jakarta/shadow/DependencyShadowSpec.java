@@ -1,39 +1,64 @@
 package org.hibernate.build.gradle.jakarta.shadow;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.inject.Inject;
 
 import org.gradle.api.Action;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
+import org.gradle.api.artifacts.ArtifactView;
+import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.attributes.Usage;
 import org.gradle.api.file.Directory;
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.plugins.BasePluginConvention;
 import org.gradle.api.plugins.JavaPluginExtension;
 import org.gradle.api.provider.Provider;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.api.publish.tasks.GenerateModuleMetadata;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.OutputDirectory;
-import org.gradle.api.tasks.bundling.Jar;
+import org.gradle.api.tasks.Sync;
+import org.gradle.api.tasks.TaskProvider;
 import org.gradle.util.ConfigureUtil;
 
 import org.hibernate.build.gradle.jakarta.TransformationException;
 import org.hibernate.build.gradle.jakarta.internal.TransformerConfig;
 
 import groovy.lang.Closure;
+import groovy.util.Node;
+import groovy.util.NodeList;
 
 /**
  * @author Steve Ebersole
  */
 public class DependencyShadowSpec implements ShadowSpec {
+	public static final String TRANSITIVE_CONFIGURATION = "shadowTransitiveClosure";
+	public static final String TRANSITIVE_TASK = "shadowTransitiveDependencies";
+	public static final String TRANSITIVE_CLASSIFIER = "transitive";
+	public static final String TRANSITIVE_ARTIFACT_SUFFIX = "-jakarta";
+
 	private final Dependency mainSourceDependency;
 	private final Project shadowProject;
 	private final TransformerConfig transformerConfig;
 
 	private final DirectoryProperty libsDirectoryProperty;
 
-	private DependencyTransformerTask sourcesTask;
-	private DependencyTransformerTask javadocsTask;
+	private final TaskProvider<Task> groupingTask;
+
+	private TaskProvider<DependencyTransformerTask> sourcesTask;
+	private TaskProvider<DependencyTransformerTask> javadocsTask;
+	private TaskProvider<Sync> transitiveTask;
 
 	private ShadowTestSpec testSpec;
 
@@ -48,26 +73,30 @@ public class DependencyShadowSpec implements ShadowSpec {
 
 		shadowProject.getPluginManager().apply( "java-library" );
 
-		final Jar jarTask = (Jar) shadowProject.getTasks().getByName( "jar" );
+		// the `jar` task's destination, without realizing it
+		libsDirectoryProperty = shadowProject.getConvention().getPlugin( BasePluginConvention.class ).getLibsDirectory();
 
-		libsDirectoryProperty = jarTask.getDestinationDirectory();
-
-		final DependencyTransformerTask mainShadowTask = shadowProject.getTasks().create(
+		final TaskProvider<DependencyTransformerTask> mainShadowTask = shadowProject.getTasks().register(
 				"shadowMainDependency",
 				DependencyTransformerTask.class,
 				mainSourceDependency,
+				requestArtifact( mainSourceDependency ),
 				libsDirectoryProperty,
 				"",
 				transformerConfig
 		);
-		jarTask.dependsOn( mainShadowTask );
+		shadowProject.getTasks().named( "jar" ).configure( (jarTask) -> jarTask.dependsOn( mainShadowTask ) );
 
 
 		// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 		// Create the "grouping" task
-		final Task groupingTask = shadowProject.getTasks().create( SHADOW_GROUPING_TASK );
-		groupingTask.setGroup( TASK_GROUP );
-		groupingTask.dependsOn( mainShadowTask );
+		groupingTask = shadowProject.getTasks().register(
+				SHADOW_GROUPING_TASK,
+				(task) -> {
+					task.setGroup( TASK_GROUP );
+					task.dependsOn( mainShadowTask );
+				}
+		);
 	}
 
 	@Input
@@ -131,20 +160,19 @@ public class DependencyShadowSpec implements ShadowSpec {
 
 		final JavaPluginExtension javaPluginExtension = (JavaPluginExtension) shadowProject.getExtensions().getByName( "java" );
 		javaPluginExtension.withSourcesJar();
-		final Jar sourcesJarTask = (Jar) shadowProject.getTasks().getByName( "sourcesJar" );
 
-		sourcesTask = shadowProject.getTasks().create(
+		sourcesTask = shadowProject.getTasks().register(
 				"shadowSourcesDependency",
 				DependencyTransformerTask.class,
 				sourcesDependency,
+				requestArtifact( sourcesDependency ),
 				libsDirectoryProperty,
 				"sources",
 				transformerConfig
 		);
-		sourcesTask.setGroup( TASK_GROUP );
-		final Task groupingTask = shadowProject.getTasks().getByName( SHADOW_GROUPING_TASK );
-		groupingTask.dependsOn( sourcesTask );
-		sourcesJarTask.dependsOn( sourcesTask );
+		sourcesTask.configure( (task) -> task.setGroup( TASK_GROUP ) );
+		groupingTask.configure( (task) -> task.dependsOn( sourcesTask ) );
+		shadowProject.getTasks().named( "sourcesJar" ).configure( (sourcesJarTask) -> sourcesJarTask.dependsOn( sourcesTask ) );
 	}
 
 	@Override
@@ -155,24 +183,204 @@ public class DependencyShadowSpec implements ShadowSpec {
 
 		final JavaPluginExtension javaPluginExtension = (JavaPluginExtension) shadowProject.getExtensions().getByName( "java" );
 		javaPluginExtension.withJavadocJar();
-		final Jar jarTask = (Jar) shadowProject.getTasks().getByName( "javadocJar" );
 
 		final Dependency sourcesDependency = getClassifiedVariant( "javadoc" );
 
-		javadocsTask = shadowProject.getTasks().create(
+		javadocsTask = shadowProject.getTasks().register(
 				"shadowJavadocsDependency",
 				DependencyTransformerTask.class,
 				sourcesDependency,
+				requestArtifact( sourcesDependency ),
 				libsDirectoryProperty,
 				"javadoc",
 				transformerConfig
 		);
 
-		javadocsTask.setGroup( TASK_GROUP );
-		jarTask.dependsOn( javadocsTask );
+		javadocsTask.configure( (task) -> task.setGroup( TASK_GROUP ) );
+		shadowProject.getTasks().named( "javadocJar" ).configure( (jarTask) -> jarTask.dependsOn( javadocsTask ) );
+
+		groupingTask.configure( (task) -> task.dependsOn( javadocsTask ) );
+	}
+
+	/**
+	 * The closure is resolved through the {@link org.hibernate.build.gradle.jakarta.internal.JakartaArtifactTransform}
+	 * from a single configuration, so every artifact of it is transformed with the same rules and (after the
+	 * dependency substitutions) the same versions.  The shadowed artifact itself is excluded - it is handled by
+	 * `shadowMainDependency`.
+	 *
+	 * With the native engine, artifacts the rules cannot change are passed through untouched; the JakartaTransformer
+	 * tool (the default engine) rewrites every artifact of the closure.
+	 *
+	 * The transformed closure is synced to `libs/transitive` and added to the shadow project's runtime dependencies,
+	 * as files, for the consumers within the build.  When the shadow project applies `maven-publish`, each transformed
+	 * artifact of the closure is also published with its own rewritten coordinates (see {@link #publishTransitive}).
+	 */
+	@Override
+	public void transitive() {
+		if ( transitiveTask != null ) {
+			return;
+		}
+
+		transformerConfig.registerArtifactTransform( shadowProject );
+
+		final Configuration closure = shadowProject.getConfigurations().create(
+				TRANSITIVE_CONFIGURATION,
+				(configuration) -> {
+					configuration.setDescription( "The transitive runtime dependencies of the shadowed dependency" );
+					configuration.setCanBeConsumed( false );
+					configuration.setCanBeResolved( true );
+					configuration.setVisible( false );
+					configuration.getAttributes().attribute(
+							Usage.USAGE_ATTRIBUTE,
+							shadowProject.getObjects().named( Usage.class, Usage.JAVA_RUNTIME )
+					);
+				}
+		);
+		closure.getDependencies().add(
+				shadowProject.getDependencies().create(
+						mainSourceDependency.getGroup() + ":" + mainSourceDependency.getName() + ":" + mainSourceDependency.getVersion()
+				)
+		);
+		transformerConfig.applyDependencyResolutionStrategy( closure );
+
+		final String mainGroup = mainSourceDependency.getGroup();
+		final String mainName = mainSourceDependency.getName();
+		final ArtifactView transformedClosure = closure.getIncoming().artifactView(
+				(view) -> {
+					view.attributes( TransformerConfig::requestTransformedArtifacts );
+					view.componentFilter(
+							(componentIdentifier) -> ! ( componentIdentifier instanceof ModuleComponentIdentifier )
+									|| ! ( (ModuleComponentIdentifier) componentIdentifier ).getGroup().equals( mainGroup )
+									|| ! ( (ModuleComponentIdentifier) componentIdentifier ).getModule().equals( mainName )
+					);
+				}
+		);
+
+		transitiveTask = shadowProject.getTasks().register(
+				TRANSITIVE_TASK,
+				Sync.class,
+				(task) -> {
+					task.setGroup( TASK_GROUP );
+					task.setDescription( "Syncs the transformed transitive dependencies of the shadowed dependency" );
+					task.from( transformedClosure.getFiles() );
+					task.into( libsDirectoryProperty.dir( TRANSITIVE_CLASSIFIER ) );
+				}
+		);
+		groupingTask.configure( (task) -> task.dependsOn( transitiveTask ) );
+
+		// file dependencies are not part of published metadata - the closure is published by `publishTransitive`
+		shadowProject.getDependencies().add( "runtimeOnly", shadowProject.files( transformedClosure.getFiles() ) );
+
+		shadowProject.getPluginManager().withPlugin(
+				"maven-publish",
+				(plugin) -> shadowProject.afterEvaluate( (project) -> publishTransitive( closure ) )
+		);
+	}
+
+	/**
+	 * Publishes the closure as a consistent set.  Each transformed artifact of it is published by a publication of its
+	 * own, as `<group>:<module>-jakarta:<version>`; members selected by the `dependencyResolutions` substitutions are
+	 * already Jakarta artifacts and keep their coordinates.  The shadow project's other Maven publications list the
+	 * whole set as `runtime` dependencies of their POM.
+	 *
+	 * The members are only known once the closure is resolved, so its dependency graph (not its artifacts) is resolved
+	 * when the shadow project has been evaluated.  File dependencies cannot be expressed in Gradle module metadata, so
+	 * none is published for the shadow project - consumers use the POM.
+	 */
+	private void publishTransitive(Configuration closure) {
+		final PublishingExtension publishing = shadowProject.getExtensions().getByType( PublishingExtension.class );
+
+		final List<ModuleComponentIdentifier> publishedMembers = new ArrayList<>();
+		final Set<String> memberPublications = new HashSet<>();
+		final List<String[]> dependencies = new ArrayList<>();
+
+		for ( ResolvedComponentResult component : closure.getIncoming().getResolutionResult().getAllComponents() ) {
+			if ( ! ( component.getId() instanceof ModuleComponentIdentifier ) ) {
+				continue;
+			}
+
+			final ModuleComponentIdentifier member = (ModuleComponentIdentifier) component.getId();
+			if ( member.getGroup().equals( mainSourceDependency.getGroup() )
+					&& member.getModule().equals( mainSourceDependency.getName() ) ) {
+				continue;
+			}
+
+			if ( component.getSelectionReason().isSelectedByRule() ) {
+				dependencies.add( new String[] { member.getGroup(), member.getModule(), member.getVersion() } );
+				continue;
+			}
+
+			publishedMembers.add( member );
+			dependencies.add( new String[] { member.getGroup(), member.getModule() + TRANSITIVE_ARTIFACT_SUFFIX, member.getVersion() } );
+		}
+
+		for ( ModuleComponentIdentifier member : publishedMembers ) {
+			final ArtifactView memberView = closure.getIncoming().artifactView(
+					(view) -> {
+						view.attributes( TransformerConfig::requestTransformedArtifacts );
+						view.componentFilter( member::equals );
+					}
+			);
+
+			final String publicationName = publicationName( member );
+			memberPublications.add( publicationName );
+
+			final MavenPublication publication = publishing.getPublications().create( publicationName, MavenPublication.class );
+			publication.setGroupId( member.getGroup() );
+			publication.setArtifactId( member.getModule() + TRANSITIVE_ARTIFACT_SUFFIX );
+			publication.setVersion( member.getVersion() );
+			publication.artifact(
+					shadowProject.provider( () -> memberView.getFiles().getSingleFile() ),
+					(artifact) -> {
+						artifact.setExtension( "jar" );
+						artifact.builtBy( memberView.getFiles() );
+					}
+			);
+		}
+
+		publishing.getPublications().withType( MavenPublication.class ).configureEach(
+				(publication) -> {
+					if ( memberPublications.contains( publication.getName() ) ) {
+						return;
+					}
+
+					publication.getPom().withXml(
+							(xml) -> {
+								final Node rootNode = xml.asNode();
+								final NodeList existing = (NodeList) rootNode.get( "dependencies" );
+								final Node dependenciesNode = existing.isEmpty()
+										? rootNode.appendNode( "dependencies" )
+										: (Node) existing.get( 0 );
+								for ( String[] dependency : dependencies ) {
+									final Node dependencyNode = dependenciesNode.appendNode( "dependency" );
+									dependencyNode.appendNode( "groupId" ).setValue( dependency[0] );
+									dependencyNode.appendNode( "artifactId" ).setValue( dependency[1] );
+									dependencyNode.appendNode( "version" ).setValue( dependency[2] );
+									dependencyNode.appendNode( "scope" ).setValue( "runtime" );
+								}
+							}
+					);
+				}
+		);
+
+		shadowProject.getTasks().withType( GenerateModuleMetadata.class ).configureEach( (task) -> task.setEnabled( false ) );
+	}
+
+	private static String publicationName(ModuleComponentIdentifier member) {
+		final StringBuilder name = new StringBuilder( "transitive" );
+		for ( String part : ( member.getGroup() + "." + member.getModule() ).split( "[^A-Za-z0-9]+" ) ) {
+			if ( ! part.isEmpty() ) {
+				name.append( Character.toUpperCase( part.charAt( 0 ) ) ).append( part, 1, part.length() );
+			}
+		}
+		return name.toString();
+	}
 
-		final Task groupingTask = shadowProject.getTasks().getByName( SHADOW_GROUPING_TASK );
-		groupingTask.dependsOn( javadocsTask );
+	/**
+	 * Requested when the shadow is declared, so it is part of the bulk resolution of dependency artifacts
+	 */
+	private Provider<File> requestArtifact(Dependency dependency) {
+		return transformerConfig.requestDependencyArtifact( shadowProject, shadowProject.provider( () -> dependency ) );
 	}
 
 	private Dependency getClassifiedVariant(String classifier) {
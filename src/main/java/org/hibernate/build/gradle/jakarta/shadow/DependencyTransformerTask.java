@@ -1,45 +1,70 @@
 package org.hibernate.build.gradle.jakarta.shadow;
 
+import java.io.File;
 import javax.inject.Inject;
 
 import org.gradle.api.DefaultTask;
-import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileCollection;
 import org.gradle.api.file.RegularFile;
+import org.gradle.api.provider.Property;
 import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Nested;
 import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
 
-import org.hibernate.build.gradle.jakarta.internal.Helper;
+import org.hibernate.build.gradle.jakarta.TransformationEngine;
+import org.hibernate.build.gradle.jakarta.TransformerSpec;
+import org.hibernate.build.gradle.jakarta.internal.TransformationInputs;
 import org.hibernate.build.gradle.jakarta.internal.TransformerConfig;
+import org.hibernate.build.gradle.jakarta.internal.TransformerTool;
+import org.hibernate.build.gradle.jakarta.internal.jfr.TransformationEvents;
 
 /**
  * @author Steve Ebersole
  */
+@CacheableTask
 public abstract class DependencyTransformerTask extends DefaultTask {
-	private final Dependency sourceDependency;
-	private final TransformerConfig transformerConfig;
+	private final String sourceDependency;
+	private final TransformationInputs transformationInputs;
 
-	private final Configuration sourceConfiguration;
+	private final FileCollection sourceArtifact;
 
 	private final Provider<RegularFile> jarFile;
+	private final Property<TransformationEngine> engine;
+	private final Property<TransformerTool> transformer;
 
 
+	/**
+	 * @param sourceArtifact The artifact of the source dependency, as requested from
+	 * {@link TransformerConfig#requestDependencyArtifact}
+	 */
 	@Inject
 	public DependencyTransformerTask(
 			Dependency sourceDependency,
+			Provider<File> sourceArtifact,
 			DirectoryProperty libsDir,
 			String classifier,
 			TransformerConfig transformerConfig) {
-		this.sourceDependency = sourceDependency;
-		this.transformerConfig = transformerConfig;
+		this.sourceDependency = sourceDependency.getGroup() + sourceDependency.getName() + sourceDependency.getVersion();
+		this.transformationInputs = transformerConfig.transformationInputsAccess();
 
-		this.sourceConfiguration = getProject().getConfigurations().detachedConfiguration( sourceDependency );
-		transformerConfig.applyDependencyResolutionStrategy( sourceConfiguration );
+		// resolved in bulk with the other dependency transformations (and stored by the configuration cache)
+		this.sourceArtifact = getProject().files( sourceArtifact );
 
 		this.jarFile = libsDir.file( determineJarFileName( classifier ) );
+
+		this.engine = getProject().getObjects().property( TransformationEngine.class );
+		this.engine.convention( transformerConfig.engineAccess() );
+		this.transformer = getProject().getObjects().property( TransformerTool.class );
+		this.transformer.set( transformerConfig.transformerAccess() );
 	}
 
 	private String determineJarFileName(String classifier) {
@@ -59,7 +84,16 @@ public abstract class DependencyTransformerTask extends DefaultTask {
 
 	@Input
 	public String getSourceDependency() {
-		return sourceDependency.getGroup() + sourceDependency.getName() + sourceDependency.getVersion();
+		return sourceDependency;
+	}
+
+	/**
+	 * The resolved artifact of the source dependency
+	 */
+	@InputFiles
+	@PathSensitive( PathSensitivity.NAME_ONLY )
+	public FileCollection getSourceArtifact() {
+		return sourceArtifact;
 	}
 
 	@OutputFile
@@ -67,11 +101,41 @@ public abstract class DependencyTransformerTask extends DefaultTask {
 		return jarFile;
 	}
 
+	/**
+	 * The engine used for this transformation.  Defaults to {@link TransformerSpec#getEngine()}
+	 */
+	@Input
+	public Property<TransformationEngine> getEngine() {
+		return engine;
+	}
+
+	/**
+	 * Setter for {@link #getEngine()}.  Accepts the enum or its name, e.g. `'native'`
+	 */
+	public void engine(Object engine) {
+		this.engine.set( TransformationEngine.interpret( engine ) );
+	}
+
+	/**
+	 * The rule files and tool classpath
+	 */
+	@Nested
+	public TransformationInputs getTransformationInputs() {
+		return transformationInputs;
+	}
+
+	@Inject
+	protected abstract WorkerExecutor getWorkerExecutor();
+
 	@TaskAction
 	public void transform() {
-		transformerConfig.getTransformer().transform(
-				Helper.extractResolvedArtifact( sourceConfiguration ).getFile(),
-				jarFile.get().getAsFile()
-		);
+		try ( TransformationEvents.Phase ignored = TransformationEvents.beginTask( this ) ) {
+			transformer.get().transform(
+					sourceArtifact.getSingleFile(),
+					jarFile.get().getAsFile(),
+					engine.get(),
+					getWorkerExecutor()
+			);
+		}
 	}
 }
@@ -19,6 +19,7 @@ import org.gradle.api.publish.maven.MavenPublication;
 import org.gradle.api.publish.maven.plugins.MavenPublishPlugin;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskProvider;
 import org.gradle.api.tasks.bundling.Jar;
 import org.gradle.util.ConfigureUtil;
 
@@ -39,7 +40,7 @@ public class LocalProjectShadowSpec implements ShadowSpec {
 	private final Project targetProject;
 	private final TransformerConfig transformerConfig;
 
-	private final Task groupingTask;
+	private final TaskProvider<Task> groupingTask;
 
 	private MavenPublication shadowMavenPublication;
 	private IvyPublication shadowIvyPublication;
@@ -57,8 +58,7 @@ public class LocalProjectShadowSpec implements ShadowSpec {
 
 		transformerConfig.registerShadowedProject( sourceProject, targetProject );
 
-		groupingTask = targetProject.getTasks().create( SHADOW_GROUPING_TASK );
-		groupingTask.setGroup( TASK_GROUP );
+		groupingTask = targetProject.getTasks().register( SHADOW_GROUPING_TASK, (task) -> task.setGroup( TASK_GROUP ) );
 
 		finishApplication();
 	}
@@ -83,29 +83,36 @@ public class LocalProjectShadowSpec implements ShadowSpec {
 
 		final SourceSet targetMainSourceSet = Helper.extractSourceSets( targetProject ).getByName( "main" );
 
-		final Task targetCompileTask = targetProject.getTasks().getByName( targetMainSourceSet.getCompileJavaTaskName() );
-		targetCompileTask.setEnabled( false );
+		targetProject.getTasks().named( targetMainSourceSet.getCompileJavaTaskName() ).configure(
+				(targetCompileTask) -> targetCompileTask.setEnabled( false )
+		);
 
-		final Task targetResourcesTask = targetProject.getTasks().getByName( targetMainSourceSet.getProcessResourcesTaskName() );
-		targetResourcesTask.setEnabled( false );
+		targetProject.getTasks().named( targetMainSourceSet.getProcessResourcesTaskName() ).configure(
+				(targetResourcesTask) -> targetResourcesTask.setEnabled( false )
+		);
 
-		final Jar targetJarTask = (Jar) targetProject.getTasks().getByName( targetMainSourceSet.getJarTaskName() );
-		targetJarTask.setEnabled( false );
+		final TaskProvider<Jar> targetJarTask = targetProject.getTasks().named( targetMainSourceSet.getJarTaskName(), Jar.class );
 
-		final Task assembleTask = targetProject.getTasks().getByName( "assemble" );
-		assembleTask.dependsOn( groupingTask );
+		targetProject.getTasks().named( "assemble" ).configure(
+				(assembleTask) -> assembleTask.dependsOn( groupingTask )
+		);
 
 		final SourceSet sourceMainSourceSet = Helper.extractSourceSets( sourceProject ).getByName( "main" );
 
 		final ShadowPublishArtifact shadowPublishArtifact = createArtifactTransformationTask(
 				"shadowJar",
 				targetJarTask,
-				(Jar) sourceProject.getTasks().getByName( sourceMainSourceSet.getJarTaskName() ),
+				sourceProject.getTasks().named( sourceMainSourceSet.getJarTaskName(), Jar.class ),
 				null,
 				transformerConfig,
 				targetProject
 		);
-		targetJarTask.dependsOn( shadowPublishArtifact );
+		targetJarTask.configure(
+				(jarTask) -> {
+					jarTask.setEnabled( false );
+					jarTask.dependsOn( shadowPublishArtifact );
+				}
+		);
 
 		final PublishingExtension sourcePublishingExtension = (PublishingExtension) sourceProject.getExtensions().findByName( "publishing" );
 		if ( sourcePublishingExtension != null ) {
@@ -216,27 +223,34 @@ public class LocalProjectShadowSpec implements ShadowSpec {
 
 	private ShadowPublishArtifact createArtifactTransformationTask(
 			String taskName,
-			Jar jarTask,
-			Jar sourceJarTask,
+			TaskProvider<Jar> jarTask,
+			TaskProvider<Jar> sourceJarTask,
 			String classifier,
 			TransformerConfig transformerConfig,
 			Project targetProject) {
-		final FileTransformationTask transformJarTask = targetProject.getTasks().create(
+		final Provider<RegularFile> outputFileAccess = jarTask.flatMap( Jar::getArchiveFile );
+
+		final TaskProvider<FileTransformationTask> transformJarTask = targetProject.getTasks().register(
 				taskName,
 				FileTransformationTask.class,
 				transformerConfig
 		);
-		transformJarTask.dependsOn( jarTask );
-		groupingTask.dependsOn( transformJarTask );
+		transformJarTask.configure(
+				(task) -> {
+					task.dependsOn( jarTask );
 
-		final Provider<RegularFile> sourceProjectJarFileAccess = sourceJarTask.getArchiveFile();
-		transformJarTask.getSource().set( sourceProjectJarFileAccess );
-		transformJarTask.getOutput().convention( jarTask.getArchiveFile() );
+					final Provider<RegularFile> sourceProjectJarFileAccess = sourceJarTask.flatMap( Jar::getArchiveFile );
+					task.getSource().set( sourceProjectJarFileAccess );
+					task.getOutput().convention( outputFileAccess );
+				}
+		);
+		groupingTask.configure( (task) -> task.dependsOn( transformJarTask ) );
 
 		final ShadowPublishArtifact publishArtifact = new ShadowPublishArtifact(
 				targetProject.getName(),
 				classifier,
 				transformJarTask,
+				outputFileAccess,
 				transformerConfig
 		);
 
@@ -295,10 +309,10 @@ public class LocalProjectShadowSpec implements ShadowSpec {
 		targetProjectJavaPluginExtension.withSourcesJar();
 
 		final SourceSetContainer sourceSourceSets = Helper.extractSourceSets( sourceProject );
-		final Jar sourceProjectJarTask = (Jar) sourceProject.getTasks().getByName( sourceSourceSets.getByName( "main" ).getSourcesJarTaskName() );
+		final TaskProvider<Jar> sourceProjectJarTask = sourceProject.getTasks().named( sourceSourceSets.getByName( "main" ).getSourcesJarTaskName(), Jar.class );
 
 		final SourceSetContainer targetSourceSets = Helper.extractSourceSets( targetProject );
-		final Jar targetProjectJarTask = (Jar) targetProject.getTasks().getByName( targetSourceSets.getByName( "main" ).getSourcesJarTaskName() );
+		final TaskProvider<Jar> targetProjectJarTask = targetProject.getTasks().named( targetSourceSets.getByName( "main" ).getSourcesJarTaskName(), Jar.class );
 
 		final ShadowPublishArtifact transformationArtifact = createArtifactTransformationTask(
 				"shadowSourcesJar",
@@ -332,10 +346,10 @@ public class LocalProjectShadowSpec implements ShadowSpec {
 		targetProjectJavaPluginExtension.withJavadocJar();
 
 		final SourceSetContainer sourceSourceSets = Helper.extractSourceSets( sourceProject );
-		final Jar sourceProjectJarTask = (Jar) sourceProject.getTasks().getByName( sourceSourceSets.getByName( "main" ).getJavadocJarTaskName() );
+		final TaskProvider<Jar> sourceProjectJarTask = sourceProject.getTasks().named( sourceSourceSets.getByName( "main" ).getJavadocJarTaskName(), Jar.class );
 
 		final SourceSetContainer targetSourceSets = Helper.extractSourceSets( targetProject );
-		final Jar targetProjectJarTask = (Jar) targetProject.getTasks().getByName( targetSourceSets.getByName( "main" ).getJavadocJarTaskName() );
+		final TaskProvider<Jar> targetProjectJarTask = targetProject.getTasks().named( targetSourceSets.getByName( "main" ).getJavadocJarTaskName(), Jar.class );
 
 		final ShadowPublishArtifact transformationArtifact = createArtifactTransformationTask(
 				"shadowJavadocJar",
@@ -359,4 +373,9 @@ public class LocalProjectShadowSpec implements ShadowSpec {
 			);
 		}
 	}
+
+	@Override
+	public void transitive() {
+		throw new TransformationException( "Transitive shadowing is only supported for shadowed dependencies" );
+	}
 }
@@ -11,6 +11,7 @@ import org.gradle.api.Task;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.ProjectDependency;
 import org.gradle.api.file.Directory;
+import org.gradle.api.file.RegularFile;
 import org.gradle.api.internal.tasks.testing.TestFramework;
 import org.gradle.api.internal.tasks.testing.junit.JUnitTestFramework;
 import org.gradle.api.internal.tasks.testing.junitplatform.JUnitPlatformTestFramework;
@@ -18,6 +19,7 @@ import org.gradle.api.internal.tasks.testing.testng.TestNGTestFramework;
 import org.gradle.api.plugins.JavaLibraryPlugin;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.TaskProvider;
 import org.gradle.api.tasks.compile.JavaCompile;
 import org.gradle.api.tasks.testing.Test;
 import org.gradle.api.tasks.testing.TestFrameworkOptions;
@@ -52,7 +54,7 @@ public class LocalProjectShadowTestsSpec implements ShadowTestSpec {
 	/**
 	 * We hold the `Test` task reference so we can configure it through the ShadowTestSpec contract
 	 */
-	private final Test runnerTask;
+	private final TaskProvider<Test> runnerTask;
 
 	public LocalProjectShadowTestsSpec(
 			Project sourceProject,
@@ -64,24 +66,28 @@ public class LocalProjectShadowTestsSpec implements ShadowTestSpec {
 
 		runnerTask = createTestTask();
 
-		final Test sourceTestTask = (Test) sourceProject.getTasks().getByName( "test" );
-		final TestFramework sourceTestFramework = sourceTestTask.getTestFramework();
-		if ( sourceTestFramework instanceof JUnitTestFramework ) {
-			useJUnit();
-		}
-		else if ( sourceTestFramework instanceof JUnitPlatformTestFramework ) {
-			useJUnitPlatform();
-		}
-		else if ( sourceTestFramework instanceof TestNGTestFramework ) {
-			useTestNG();
-		}
+		final TaskProvider<Test> sourceTestTask = sourceProject.getTasks().named( "test", Test.class );
+		runnerTask.configure(
+				(task) -> {
+					final TestFramework sourceTestFramework = sourceTestTask.get().getTestFramework();
+					if ( sourceTestFramework instanceof JUnitTestFramework ) {
+						task.useJUnit();
+					}
+					else if ( sourceTestFramework instanceof JUnitPlatformTestFramework ) {
+						task.useJUnitPlatform();
+					}
+					else if ( sourceTestFramework instanceof TestNGTestFramework ) {
+						task.useTestNG();
+					}
+				}
+		);
 	}
 
-	private Test createTestTask() {
-		final Task groupingTask = targetProject.getTasks().getByName( SHADOW_GROUPING_TASK );
+	private TaskProvider<Test> createTestTask() {
+		final TaskProvider<Task> groupingTask = targetProject.getTasks().named( SHADOW_GROUPING_TASK );
 
-		final Test runnerTask = (Test) targetProject.getTasks().getByName("test" );
-		final Test sourceProjectRunnerTask = (Test) sourceProject.getTasks().getByName("test" );
+		final TaskProvider<Test> runnerTask = targetProject.getTasks().named( "test", Test.class );
+		final TaskProvider<Test> sourceProjectRunnerTask = sourceProject.getTasks().named( "test", Test.class );
 
 		final JavaLibraryPlugin javaLibraryPlugin = sourceProject.getPlugins().findPlugin( JavaLibraryPlugin.class );
 		if ( javaLibraryPlugin != null ) {
@@ -100,138 +106,142 @@ public class LocalProjectShadowTestsSpec implements ShadowTestSpec {
 				(srcDir) -> targetTestSourceSet.getAllJava().srcDir( srcDir )
 		);
 
-		final DirectoryTransformationTask javaTransformationTask = createJavaTransformationTask(
+		final TaskProvider<DirectoryTransformationTask> javaTransformationTask = createJavaTransformationTask(
 				sourceProject,
 				targetProject,
 				sourceTestSourceSet,
 				groupingTask
 		);
-		final DirectoryTransformationTask resourcesTransformationTask = createResourcesTransformationTask(
+		final TaskProvider<DirectoryTransformationTask> resourcesTransformationTask = createResourcesTransformationTask(
 				sourceProject,
 				targetProject,
 				sourceTestSourceSet,
 				groupingTask
 		);
 
-		runnerTask.dependsOn( javaTransformationTask );
-		runnerTask.dependsOn( resourcesTransformationTask );
-
-		// prepare the Test task's classpath.  add:
-		// 	* shadowJar output
-		//	* test java shadow output
-		//	* test resources shadow output
-		final FileTransformationTask shadowJarTask = (FileTransformationTask) targetProject.getTasks().getByName( "shadowJar" );
-		runnerTask.getInputs().file( shadowJarTask.getOutput() );
-		runnerTask.getInputs().dir( javaTransformationTask.getOutput() );
-		runnerTask.getInputs().dir( resourcesTransformationTask.getOutput() );
-
-		runnerTask.setClasspath(
-				targetProject.files( shadowJarTask.getOutput() )
-						.plus( runnerTask.getClasspath() )
-		);
+		final Provider<RegularFile> shadowJarOutput = targetProject.getTasks()
+				.named( "shadowJar", FileTransformationTask.class )
+				.flatMap( FileTransformationTask::getOutput );
+		final Provider<Directory> javaTransformationOutput = javaTransformationTask.flatMap( DirectoryTransformationTask::getOutput );
+		final Provider<Directory> resourcesTransformationOutput = resourcesTransformationTask.flatMap( DirectoryTransformationTask::getOutput );
+
+		runnerTask.configure(
+				(task) -> {
+					task.dependsOn( javaTransformationTask );
+					task.dependsOn( resourcesTransformationTask );
+
+					// prepare the Test task's classpath.  add:
+					// 	* shadowJar output
+					//	* test java shadow output
+					//	* test resources shadow output
+					task.getInputs().file( shadowJarOutput );
+					task.getInputs().dir( javaTransformationOutput );
+					task.getInputs().dir( resourcesTransformationOutput );
+
+					task.setClasspath(
+							targetProject.files( shadowJarOutput )
+									.plus( task.getClasspath() )
+					);
+
+					// prepare the Test task's classes dir (for test discovery)
+					task.setTestClassesDirs(
+							targetProject.files(
+									javaTransformationOutput,
+									resourcesTransformationOutput
+							)
+					);
+
+					final Test sourceTask = sourceProjectRunnerTask.get();
+
+					// todo : maybe allow hook to transform (JakartaTransformer) these
+					// 	e.g.,
+//					if ( ! sourceTask.getAllJvmArgs().isEmpty() ) {
+//						File input = writeToFile( sourceTask.getAllJvmArgs() );
+//						File output = transform( input );
+//						task.setAllJvmArgs( readFromFile( output ) );
+//					}
+					task.setAllJvmArgs( sourceTask.getAllJvmArgs() );
+					task.setSystemProperties( sourceTask.getSystemProperties() );
+					task.setEnvironment( sourceTask.getEnvironment() );
+
+					task.setFailFast( sourceTask.getFailFast() );
+					task.setIgnoreFailures( sourceTask.getIgnoreFailures() );
+					task.setDebug( sourceTask.getDebug() );
+					task.setEnableAssertions( sourceTask.getEnableAssertions() );
+
+					if ( sourceTask.getDefaultCharacterEncoding() != null ) {
+						task.setDefaultCharacterEncoding( sourceTask.getDefaultCharacterEncoding() );
+					}
 
-		// prepare the Test task's classes dir (for test discovery)
-		runnerTask.setTestClassesDirs(
-				targetProject.files(
-						javaTransformationTask.getOutput(),
-						resourcesTransformationTask.getOutput()
-				)
+					if ( sourceTask.getMaxHeapSize() != null ) {
+						task.setMaxHeapSize( sourceTask.getMaxHeapSize() );
+					}
+					if ( sourceTask.getMinHeapSize() != null ) {
+						task.setMinHeapSize( sourceTask.getMinHeapSize() );
+					}
+				}
 		);
 
-		// todo : maybe allow hook to transform (JakartaTransformer) these
-		// 	e.g.,
-//		if ( ! sourceProjectRunnerTask.getAllJvmArgs().isEmpty() ) {
-//			File input = writeToFile( sourceProjectRunnerTask.getAllJvmArgs() );
-//			File output = transform( input );
-//			runnerTask.setAllJvmArgs( readFromFile( output ) );
-//		}
-		runnerTask.setAllJvmArgs( sourceProjectRunnerTask.getAllJvmArgs() );
-		runnerTask.setSystemProperties( sourceProjectRunnerTask.getSystemProperties() );
-		runnerTask.setEnvironment( sourceProjectRunnerTask.getEnvironment() );
-
-		runnerTask.setFailFast( sourceProjectRunnerTask.getFailFast() );
-		runnerTask.setIgnoreFailures( sourceProjectRunnerTask.getIgnoreFailures() );
-		runnerTask.setDebug( sourceProjectRunnerTask.getDebug() );
-		runnerTask.setEnableAssertions( sourceProjectRunnerTask.getEnableAssertions() );
-
-		if ( sourceProjectRunnerTask.getDefaultCharacterEncoding() != null ) {
-			runnerTask.setDefaultCharacterEncoding( sourceProjectRunnerTask.getDefaultCharacterEncoding() );
-		}
-
-		if ( sourceProjectRunnerTask.getMaxHeapSize() != null ) {
-			runnerTask.setMaxHeapSize( sourceProjectRunnerTask.getMaxHeapSize() );
-		}
-		if ( sourceProjectRunnerTask.getMinHeapSize() != null ) {
-			runnerTask.setMinHeapSize( sourceProjectRunnerTask.getMinHeapSize() );
-		}
-
 		// todo : allow complete access to the Test task for config?
 
 		return runnerTask;
 	}
 
-	private DirectoryTransformationTask createJavaTransformationTask(
+	private TaskProvider<DirectoryTransformationTask> createJavaTransformationTask(
 			Project sourceProject,
 			Project targetProject,
 			SourceSet sourceTestSourceSet,
-			Task groupingTask) {
-		final DirectoryTransformationTask javaTransformationTask = targetProject.getTasks().create(
+			TaskProvider<Task> groupingTask) {
+		final TaskProvider<DirectoryTransformationTask> javaTransformationTask = targetProject.getTasks().register(
 				SHADOW_TEST_JAVA_TASK,
 				DirectoryTransformationTask.class,
 				transformerConfig
 		);
-		groupingTask.dependsOn( javaTransformationTask );
-		javaTransformationTask.doFirst(
-				new Action<Task>() {
-					@Override
-					public void execute(Task task) {
-						javaTransformationTask.getOutput().getAsFile().get().delete();
-					}
-				}
-		);
+		groupingTask.configure( (task) -> task.dependsOn( javaTransformationTask ) );
 
-		final JavaCompile sourceCompileTestJavaTask = (JavaCompile) sourceProject.getTasks().getByName( sourceTestSourceSet.getCompileJavaTaskName() );
-		javaTransformationTask.dependsOn( sourceCompileTestJavaTask );
-		javaTransformationTask.getSource().convention( sourceCompileTestJavaTask.getDestinationDirectory() );
+		final TaskProvider<JavaCompile> sourceCompileTestJavaTask = sourceProject.getTasks().named(
+				sourceTestSourceSet.getCompileJavaTaskName(),
+				JavaCompile.class
+		);
 		final Provider<Directory> javaTransformationOutputDirectory = targetProject.getLayout().getBuildDirectory().dir( "classes/java/test" );
-		javaTransformationTask.getOutput().convention( javaTransformationOutputDirectory );
+		javaTransformationTask.configure(
+				(task) -> {
+					task.dependsOn( sourceCompileTestJavaTask );
+					task.getSource().convention( sourceCompileTestJavaTask.flatMap( JavaCompile::getDestinationDirectory ) );
+					task.getOutput().convention( javaTransformationOutputDirectory );
+				}
+		);
 		return javaTransformationTask;
 	}
 
-	private DirectoryTransformationTask createResourcesTransformationTask(
+	private TaskProvider<DirectoryTransformationTask> createResourcesTransformationTask(
 			Project sourceProject,
 			Project targetProject,
 			SourceSet sourceTestSourceSet,
-			Task groupingTask) {
-		final DirectoryTransformationTask resourcesTransformationTask = targetProject.getTasks().create(
+			TaskProvider<Task> groupingTask) {
+		final TaskProvider<DirectoryTransformationTask> resourcesTransformationTask = targetProject.getTasks().register(
 				SHADOW_TEST_RESOURCES_TASK,
 				DirectoryTransformationTask.class,
 				transformerConfig
 		);
-		groupingTask.dependsOn( resourcesTransformationTask );
+		groupingTask.configure( (task) -> task.dependsOn( resourcesTransformationTask ) );
 
-		resourcesTransformationTask.doFirst(
-				new Action<Task>() {
-					@Override
-					public void execute(Task task) {
-						resourcesTransformationTask.getOutput().getAsFile().get().delete();
-					}
-				}
-		);
-
-		final ProcessResources sourceProcessTestResourcesTask = (ProcessResources) sourceProject
-				.getTasks()
-				.getByName( sourceTestSourceSet.getProcessResourcesTaskName() );
-
-		resourcesTransformationTask.dependsOn( sourceProcessTestResourcesTask );
-		resourcesTransformationTask.getSource().convention(
-				sourceProject.getLayout().dir(
-						sourceProject.provider( sourceProcessTestResourcesTask::getDestinationDir )
-				)
+		final TaskProvider<ProcessResources> sourceProcessTestResourcesTask = sourceProject.getTasks().named(
+				sourceTestSourceSet.getProcessResourcesTaskName(),
+				ProcessResources.class
 		);
-
 		final Provider<Directory> transformResourcesOutputDirectory = targetProject.getLayout().getBuildDirectory().dir( "resources/test" );
-		resourcesTransformationTask.getOutput().convention( transformResourcesOutputDirectory );
+		resourcesTransformationTask.configure(
+				(task) -> {
+					task.dependsOn( sourceProcessTestResourcesTask );
+					task.getSource().convention(
+							sourceProject.getLayout().dir(
+									sourceProcessTestResourcesTask.map( ProcessResources::getDestinationDir )
+							)
+					);
+					task.getOutput().convention( transformResourcesOutputDirectory );
+				}
+		);
 		return resourcesTransformationTask;
 	}
 
@@ -271,153 +281,153 @@ public class LocalProjectShadowTestsSpec implements ShadowTestSpec {
 
 	@Override
 	public void useJUnit() {
-		runnerTask.useJUnit();
+		runnerTask.configure( Test::useJUnit );
 	}
 
 	@Override
 	public void useJUnit(Closure<JUnitOptions> testFrameworkConfigure) {
-		runnerTask.useJUnit( testFrameworkConfigure );
+		runnerTask.configure( (task) -> task.useJUnit( testFrameworkConfigure ) );
 	}
 
 	@Override
 	public void useJUnit(Action<JUnitOptions> testFrameworkConfigure) {
-		runnerTask.useJUnit( testFrameworkConfigure );
+		runnerTask.configure( (task) -> task.useJUnit( testFrameworkConfigure ) );
 	}
 
 	@Override
 	public void useJUnitPlatform() {
-		runnerTask.useJUnitPlatform();
+		runnerTask.configure( Test::useJUnitPlatform );
 	}
 
 	@Override
 	public void useJUnitPlatform(Closure<JUnitPlatformOptions> testFrameworkConfigure) {
-		ConfigureUtil.configure( testFrameworkConfigure, runnerTask.getOptions() );
+		runnerTask.configure( (task) -> ConfigureUtil.configure( testFrameworkConfigure, task.getOptions() ) );
 	}
 
 	@Override
 	public void useJUnitPlatform(Action<JUnitPlatformOptions> testFrameworkConfigure) {
-		runnerTask.useJUnitPlatform( testFrameworkConfigure );
+		runnerTask.configure( (task) -> task.useJUnitPlatform( testFrameworkConfigure ) );
 	}
 
 	@Override
 	public void useTestNG() {
-		runnerTask.useTestNG();
+		runnerTask.configure( Test::useTestNG );
 	}
 
 	@Override
 	public void useTestNG(Closure<TestNGOptions> testFrameworkConfigure) {
-		runnerTask.useTestNG( testFrameworkConfigure );
+		runnerTask.configure( (task) -> task.useTestNG( testFrameworkConfigure ) );
 	}
 
 	@Override
 	public void useTestNG(Action<TestNGOptions> testFrameworkConfigure) {
-		runnerTask.useTestNG( testFrameworkConfigure );
+		runnerTask.configure( (task) -> task.useTestNG( testFrameworkConfigure ) );
 	}
 
 	@Override
 	public TestFrameworkOptions options() {
-		return runnerTask.getOptions();
+		return runnerTask.get().getOptions();
 	}
 
 	@Override
 	public void options(Closure<TestFrameworkOptions> closure) {
-		runnerTask.options( closure );
+		runnerTask.configure( (task) -> task.options( closure ) );
 	}
 
 	@Override
 	public void options(Action<TestFrameworkOptions> action) {
-		runnerTask.options( action );
+		runnerTask.configure( (task) -> task.options( action ) );
 	}
 
 	@Override
 	public boolean getFailFast() {
-		return runnerTask.getFailFast();
+		return runnerTask.get().getFailFast();
 	}
 
 	@Override
 	public void setFailFast(boolean failFast) {
-		runnerTask.setFailFast( failFast );
+		runnerTask.configure( (task) -> task.setFailFast( failFast ) );
 	}
 
 	@Override
 	public boolean getIgnoreFailures() {
-		return runnerTask.getIgnoreFailures();
+		return runnerTask.get().getIgnoreFailures();
 	}
 
 	@Override
 	public void setIgnoreFailures(boolean ignoreFailures) {
-		runnerTask.setIgnoreFailures( ignoreFailures );
+		runnerTask.configure( (task) -> task.setIgnoreFailures( ignoreFailures ) );
 	}
 
 	@Override
 	public void beforeSuite(Closure<?> closure) {
-		runnerTask.beforeSuite( closure );
+		runnerTask.configure( (task) -> task.beforeSuite( closure ) );
 	}
 
 	@Override
 	public void beforeTest(Closure<?> closure) {
-		runnerTask.beforeTest( closure );
+		runnerTask.configure( (task) -> task.beforeTest( closure ) );
 	}
 
 	@Override
 	public void afterTest(Closure<?> closure) {
-		runnerTask.afterTest( closure );
+		runnerTask.configure( (task) -> task.afterTest( closure ) );
 	}
 
 	@Override
 	public void afterSuite(Closure<?> closure) {
-		runnerTask.afterSuite( closure );
+		runnerTask.configure( (task) -> task.afterSuite( closure ) );
 	}
 
 	@Override
 	public Map<String, Object> systemProperties() {
-		return runnerTask.getSystemProperties();
+		return runnerTask.get().getSystemProperties();
 	}
 
 	@Override
 	@SuppressWarnings("UnstableApiUsage")
 	public JavaLauncher getJavaLauncher() {
-		return runnerTask.getJavaLauncher().get();
+		return runnerTask.get().getJavaLauncher().get();
 	}
 
 	@Override
 	@SuppressWarnings("UnstableApiUsage")
 	public void setJavaLauncher(JavaLauncher launcher) {
-		runnerTask.getJavaLauncher().set( launcher );
+		runnerTask.configure( (task) -> task.getJavaLauncher().set( launcher ) );
 	}
 
 	@Override
 	public String getMinHeapSize() {
-		return runnerTask.getMinHeapSize();
+		return runnerTask.get().getMinHeapSize();
 	}
 
 	@Override
 	public void setMinHeapSize(String size) {
-		runnerTask.setMinHeapSize( size );
+		runnerTask.configure( (task) -> task.setMinHeapSize( size ) );
 	}
 
 	@Override
 	public String getMaxHeapSize() {
-		return runnerTask.getMaxHeapSize();
+		return runnerTask.get().getMaxHeapSize();
 	}
 
 	@Override
 	public void setMaxHeapSize(String size) {
-		runnerTask.setMaxHeapSize( size );
+		runnerTask.configure( (task) -> task.setMaxHeapSize( size ) );
 	}
 
 	@Override
 	public List<String> getJvmArgs() {
-		return runnerTask.getJvmArgs();
+		return runnerTask.get().getJvmArgs();
 	}
 
 	@Override
 	public Set<String> getIncludes() {
-		return runnerTask.getIncludes();
+		return runnerTask.get().getIncludes();
 	}
 
 	@Override
 	public Set<String> getExcludes() {
-		return runnerTask.getExcludes();
+		return runnerTask.get().getExcludes();
 	}
 }
@@ -1,20 +1,37 @@
 package org.hibernate.build.gradle.jakarta.shadow;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Enumeration;
 import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import javax.annotation.Nullable;
 
 import org.gradle.api.Task;
 import org.gradle.api.artifacts.PublishArtifact;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.TaskDependency;
+import org.gradle.api.tasks.TaskProvider;
 
+import org.hibernate.build.gradle.jakarta.TransformationException;
 import org.hibernate.build.gradle.jakarta.adhoc.FileTransformationTask;
 import org.hibernate.build.gradle.jakarta.internal.TransformerConfig;
+import org.hibernate.build.gradle.jakarta.internal.remap.NativeTransformer;
 
 /**
- * PublishArtifact wrapper around a transformed jar
+ * PublishArtifact wrapper around a transformed jar.
+ *
+ * The file is the transformation's output convention (the shadow project's corresponding jar), so
+ * that publications can refer to it without realizing the transformation task.
+ *
+ * The artifact is dated from the build start or, when {@linkplain TransformerConfig#reproducibleAccess()
+ * reproducible}, from the latest entry of the source jar - read from the transformation's source when
+ * the date is asked for, which depends on nothing but the content.  A source which is not (yet) a jar
+ * dates the artifact with the fixed time of reproducible entries.
  *
  * @author Steve Ebersole
  */
@@ -24,22 +41,23 @@ public class ShadowPublishArtifact implements PublishArtifact, TaskDependency {
 	private final String name;
 	private final String classifier;
 
-	private final FileTransformationTask transformationTask;
+	private final TaskProvider<FileTransformationTask> transformationTask;
+	private final Provider<RegularFile> source;
+	private final Provider<RegularFile> file;
 	private final TransformerConfig transformerConfig;
 
-	private final Set<FileTransformationTask> taskDependencies;
-
 	public ShadowPublishArtifact(
 			String name,
 			String classifier,
-			FileTransformationTask transformationTask,
+			TaskProvider<FileTransformationTask> transformationTask,
+			Provider<RegularFile> file,
 			TransformerConfig transformerConfig) {
 		this.name = name;
 		this.classifier = classifier;
 		this.transformationTask = transformationTask;
+		this.source = transformationTask.flatMap( FileTransformationTask::getSource );
+		this.file = file;
 		this.transformerConfig = transformerConfig;
-
-		taskDependencies = Collections.singleton( transformationTask );
 	}
 
 	@Override
@@ -65,15 +83,40 @@ public class ShadowPublishArtifact implements PublishArtifact, TaskDependency {
 
 	@Override
 	public File getFile() {
-		return transformationTask.getOutput().get().getAsFile();
+		return file.get().getAsFile();
 	}
 
 	@Nullable
 	@Override
 	public Date getDate() {
+		if ( transformerConfig.reproducibleAccess().getOrElse( false ) ) {
+			final File sourceFile = source.isPresent() ? source.get().getAsFile() : null;
+			if ( sourceFile != null && sourceFile.isFile() ) {
+				return new Date( latestEntryTime( sourceFile ) );
+			}
+			return new Date( NativeTransformer.REPRODUCIBLE_ENTRY_TIME );
+		}
 		return Date.from( transformerConfig.getBuildStarted() );
 	}
 
+	/**
+	 * The latest modification time of the archive's entries - unlike the time of the file itself, the
+	 * same for the same content
+	 */
+	private static long latestEntryTime(File archive) {
+		try ( ZipFile zipFile = new ZipFile( archive ) ) {
+			long latest = NativeTransformer.REPRODUCIBLE_ENTRY_TIME;
+			final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while ( entries.hasMoreElements() ) {
+				latest = Math.max( latest, entries.nextElement().getTime() );
+			}
+			return latest;
+		}
+		catch (IOException e) {
+			throw new TransformationException( "Unable to read " + archive.getAbsolutePath(), e );
+		}
+	}
+
 	@Override
 	public TaskDependency getBuildDependencies() {
 		return this;
@@ -81,6 +124,6 @@ public class ShadowPublishArtifact implements PublishArtifact, TaskDependency {
 
 	@Override
 	public Set<? extends Task> getDependencies(@Nullable Task task) {
-		return Collections.singleton( transformationTask );
+		return Collections.singleton( transformationTask.get() );
 	}
 }
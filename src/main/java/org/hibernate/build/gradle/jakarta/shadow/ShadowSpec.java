@@ -60,4 +60,16 @@ public interface ShadowSpec {
 	 * This form attempts to implicitly determine the dependency notation for the tests
 	 */
 	void withJavadoc();
+
+	/**
+	 * Also shadow the transitive runtime dependencies of the shadowed artifact.  Each artifact of
+	 * the closure is transformed once for the whole build, independent artifacts in parallel; with
+	 * the native engine, artifacts the rules do not affect are used untouched (the JakartaTransformer tool
+	 * rewrites them all).  With `maven-publish`, each transformed artifact is published with its own
+	 * `-jakarta` coordinates and listed by the shadow project's POM.
+	 *
+	 * Only supported for shadowed dependencies - a shadowed project's dependencies are already
+	 * shadowed by its {@linkplain org.hibernate.build.gradle.jakarta.TransformerSpec#dependencyResolutions substitutions}
+	 */
+	void transitive();
 }
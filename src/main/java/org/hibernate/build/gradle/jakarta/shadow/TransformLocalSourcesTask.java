@@ -8,15 +8,24 @@ import org.gradle.api.Project;
 import org.gradle.api.file.Directory;
 import org.gradle.api.file.FileCollection;
 import org.gradle.api.file.SourceDirectorySet;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputFiles;
 import org.gradle.api.tasks.Nested;
 import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.TaskAction;
-import org.gradle.language.jvm.tasks.ProcessResources;
+import org.gradle.workers.WorkerExecutor;
 
+import org.hibernate.build.gradle.jakarta.TransformationEngine;
+import org.hibernate.build.gradle.jakarta.TransformerSpec;
+import org.hibernate.build.gradle.jakarta.internal.TransformationInputs;
 import org.hibernate.build.gradle.jakarta.internal.TransformerConfig;
 import org.hibernate.build.gradle.jakarta.internal.TransformerTool;
+import org.hibernate.build.gradle.jakarta.internal.jfr.TransformationEvents;
 
 /**
  * Transformation task for processing local sources (Java and resources).  Local
@@ -24,13 +33,14 @@ import org.hibernate.build.gradle.jakarta.internal.TransformerTool;
  *
  * @author Steve Ebersole
  */
+@CacheableTask
 public abstract class TransformLocalSourcesTask extends DefaultTask {
-	private final SourceDirectorySet transformationSources;
+	private final FileCollection transformationSource;
 	private final Directory transformationTarget;
 	private final boolean processResources;
-	private final SourceSet sourceSet;
-	private final TransformerConfig transformerConfig;
-	private final Project sourceProject;
+	private final TransformationInputs transformationInputs;
+	private final Property<TransformationEngine> engine;
+	private final Property<TransformerTool> transformer;
 
 	@Inject
 	public TransformLocalSourcesTask(
@@ -40,17 +50,33 @@ public abstract class TransformLocalSourcesTask extends DefaultTask {
 			SourceSet sourceSet,
 			TransformerConfig transformerConfig,
 			Project sourceProject) {
-		this.transformationSources = transformationSources;
+		// the project and source set are only needed here - the task holds just the files so it
+		// can be stored in the configuration cache
+		if ( processResources ) {
+			this.transformationSource = sourceProject.files(
+					sourceProject.getTasks().named( sourceSet.getProcessResourcesTaskName() )
+			);
+		}
+		else {
+			this.transformationSource = transformationSources.getSourceDirectories();
+		}
 		this.transformationTarget = transformationTarget;
 		this.processResources = processResources;
-		this.sourceSet = sourceSet;
-		this.transformerConfig = transformerConfig;
-		this.sourceProject = sourceProject;
+		this.transformationInputs = transformerConfig.transformationInputsAccess();
+
+		this.engine = getProject().getObjects().property( TransformationEngine.class );
+		this.engine.convention( transformerConfig.engineAccess() );
+		this.transformer = getProject().getObjects().property( TransformerTool.class );
+		this.transformer.set( transformerConfig.transformerAccess() );
 	}
 
+	/**
+	 * The source directories, or the processed resources of the source project when transforming resources
+	 */
 	@InputFiles
+	@PathSensitive( PathSensitivity.RELATIVE )
 	public FileCollection getTransformationSource() {
-		return transformationSources.getSourceDirectories();
+		return transformationSource;
 	}
 
 	@OutputDirectory
@@ -58,46 +84,62 @@ public abstract class TransformLocalSourcesTask extends DefaultTask {
 		return transformationTarget;
 	}
 
+	/**
+	 * The rule files and tool classpath
+	 */
 	@Nested
-	@SuppressWarnings("unused")
-	public TransformerTool.Config getTransformerConfig() {
-		return transformerConfig;
+	public TransformationInputs getTransformationInputs() {
+		return transformationInputs;
 	}
 
-	@TaskAction
-	public void transform() {
-		final File transformationTargetAsFile = transformationTarget.getAsFile();
-		// for some reason sometimes this directory exists and the JakartaTransformer
-		// seems to not be able to deal with that and simply does not transform anything.
-		//
-		// so avoid that whole mess by deleting this direct
-		transformationTargetAsFile.delete();
+	/**
+	 * The engine used for this transformation.  Defaults to {@link TransformerSpec#getEngine()}
+	 */
+	@Input
+	public Property<TransformationEngine> getEngine() {
+		return engine;
+	}
 
-		if ( processResources ) {
-			// we handle resources differently to be able to transform just the already
-			// processed resources from the source project
+	/**
+	 * Setter for {@link #getEngine()}.  Accepts the enum or its name, e.g. `'native'`
+	 */
+	public void engine(Object engine) {
+		this.engine.set( TransformationEngine.interpret( engine ) );
+	}
 
-			//noinspection UnstableApiUsage
-			final ProcessResources sourceProcessResourcesTask = (ProcessResources) sourceProject.getTasks().getByName(
-					sourceSet.getProcessResourcesTaskName()
-			);
-			final File sourceProcessResourcesOutputDir = sourceProcessResourcesTask.getDestinationDir();
-			final Directory sourceMainProcessResourcesOutputDirectory = sourceProject.getLayout()
-					.dir( sourceProject.provider( () -> sourceProcessResourcesOutputDir ) )
-					.get();
+	@Inject
+	protected abstract WorkerExecutor getWorkerExecutor();
 
-			transformerConfig.getTransformer().transform(
-					sourceMainProcessResourcesOutputDirectory.getAsFile(),
-					transformationTargetAsFile
-			);
-		}
-		else {
-			transformationSources.getSourceDirectories().forEach(
-					(dir) -> transformerConfig.getTransformer().transform(
-							dir,
-							transformationTargetAsFile
-					)
-			);
+	@TaskAction
+	public void transform() {
+		try ( TransformationEvents.Phase ignored = TransformationEvents.beginTask( this ) ) {
+			final File transformationTargetAsFile = transformationTarget.getAsFile();
+			// for some reason sometimes this directory exists and the JakartaTransformer
+			// seems to not be able to deal with that and simply does not transform anything.
+			//
+			// so avoid that whole mess by deleting this direct
+			transformationTargetAsFile.delete();
+
+			if ( processResources ) {
+				// we handle resources differently to be able to transform just the already
+				// processed resources from the source project
+				transformer.get().transform(
+						transformationSource.getSingleFile(),
+						transformationTargetAsFile,
+						engine.get(),
+						getWorkerExecutor()
+				);
+			}
+			else {
+				transformationSource.forEach(
+						(dir) -> transformer.get().transform(
+								dir,
+								transformationTargetAsFile,
+								engine.get(),
+								getWorkerExecutor()
+						)
+				);
+			}
 		}
 	}
 
@@ -0,0 +1,30 @@
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sebersole.testkit.Project;
+import com.github.sebersole.testkit.ProjectScope;
+import com.github.sebersole.testkit.TestKit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that transformation outputs are loaded from the build cache
+ *
+ * @author Steve Ebersole
+ */
+@TestKit
+@Project("engineEquivalence")
+public class BuildCacheTesting {
+
+	@Test
+	public void testFromCache(ProjectScope scope) {
+		final BuildResult firstResult = scope.createGradleRunner( "clean", "transformDirNative", "--build-cache" ).build();
+		// a previous run may already have populated the cache
+		assertThat( firstResult.task( ":transformDirNative" ).getOutcome() ).isIn( TaskOutcome.SUCCESS, TaskOutcome.FROM_CACHE );
+
+		final BuildResult secondResult = scope.createGradleRunner( "clean", "transformDirNative", "--build-cache" ).build();
+		assertThat( secondResult.task( ":transformDirNative" ).getOutcome() ).isEqualTo( TaskOutcome.FROM_CACHE );
+	}
+}
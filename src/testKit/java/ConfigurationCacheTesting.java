@@ -0,0 +1,32 @@
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sebersole.testkit.Project;
+import com.github.sebersole.testkit.ProjectScope;
+import com.github.sebersole.testkit.TestKit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a shadow build can be stored in and reused from the configuration cache.  Any
+ * configuration cache problem fails the build
+ *
+ * @author Steve Ebersole
+ */
+@TestKit
+@Project("shadowMulti")
+public class ConfigurationCacheTesting {
+
+	@Test
+	public void testCacheHit(ProjectScope scope) {
+		final BuildResult firstResult = scope.createGradleRunner( "shadow", "--configuration-cache" ).build();
+		assertThat( firstResult.task( ":real-jakarta:shadow" ).getOutcome() ).isIn( TaskOutcome.SUCCESS, TaskOutcome.UP_TO_DATE );
+		assertThat( firstResult.getOutput() ).doesNotContain( "problem was found", "problems were found" );
+
+		final BuildResult secondResult = scope.createGradleRunner( "shadow", "--configuration-cache" ).build();
+		assertThat( secondResult.getOutput() ).containsAnyOf( "Reusing configuration cache.", "Configuration cache entry reused." );
+		assertThat( secondResult.task( ":real-jakarta:shadowJar" ).getOutcome() ).isEqualTo( TaskOutcome.UP_TO_DATE );
+	}
+}
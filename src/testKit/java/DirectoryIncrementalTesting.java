@@ -0,0 +1,163 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sebersole.testkit.Project;
+import com.github.sebersole.testkit.ProjectScope;
+import com.github.sebersole.testkit.TestKit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that directory transformations only handle the changed files, and only write the files
+ * whose content changes
+ *
+ * @author Steve Ebersole
+ */
+@TestKit
+@Project("engineEquivalence")
+public class DirectoryIncrementalTesting {
+
+	@Test
+	public void testIncrementalTransformation(ProjectScope scope) throws IOException {
+		final File baseDirectory = scope.getProjectBaseDirectory();
+		final File inputDir = new File( baseDirectory, "build/incrementalInput/org/example" );
+		final File outputDir = new File( baseDirectory, "build/libs/dirIncremental/org/example" );
+
+		scope.createGradleRunner( "clean" ).build();
+
+		write( new File( inputDir, "modified.properties" ), "type=javax.persistence.Entity" );
+		write( new File( inputDir, "removed.properties" ), "type=javax.persistence.Id" );
+		write( new File( inputDir, "unchanged.properties" ), "type=javax.persistence.Column" );
+
+		final BuildResult firstResult = scope.createGradleRunner( "transformDirIncremental" ).build();
+		assertThat( firstResult.task( ":transformDirIncremental" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( read( new File( outputDir, "modified.properties" ) ) ).isEqualTo( "type=jakarta.persistence.Entity" );
+		assertThat( new File( outputDir, "removed.properties" ) ).exists();
+
+		// mark the output of the unchanged file so we can tell whether it was transformed again
+		final File unchangedOutput = new File( outputDir, "unchanged.properties" );
+		assertThat( unchangedOutput.setLastModified( 0 ) ).isTrue();
+
+		write( new File( inputDir, "modified.properties" ), "type=javax.persistence.Table" );
+		Files.delete( new File( inputDir, "removed.properties" ).toPath() );
+		write( new File( inputDir, "added.properties" ), "provider=javax.persistence.spi.PersistenceProvider" );
+
+		final BuildResult secondResult = scope.createGradleRunner( "transformDirIncremental" ).build();
+		assertThat( secondResult.task( ":transformDirIncremental" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+
+		assertThat( read( new File( outputDir, "modified.properties" ) ) ).isEqualTo( "type=jakarta.persistence.Table" );
+		assertThat( read( new File( outputDir, "added.properties" ) ) ).isEqualTo( "provider=jakarta.persistence.spi.PersistenceProvider" );
+		assertThat( new File( outputDir, "removed.properties" ) ).doesNotExist();
+		assertThat( unchangedOutput.lastModified() ).isEqualTo( 0 );
+	}
+
+	@Test
+	public void testIncrementalToolTransformation(ProjectScope scope) throws IOException {
+		final File baseDirectory = scope.getProjectBaseDirectory();
+		final File inputDir = new File( baseDirectory, "toolIncrementalInput" );
+		final File outputDir = new File( baseDirectory, "build/libs/dirIncrementalTool" );
+
+		scope.createGradleRunner( "clean" ).build();
+
+		write( new File( inputDir, "org/example/modified.properties" ), "type=javax.persistence.Entity" );
+		write( new File( inputDir, "org/example/removed.properties" ), "type=javax.persistence.Id" );
+		// unique content, so the directory is not restored from the local transformation cache
+		write( new File( inputDir, "org/example/unchanged.properties" ), "type=javax.persistence.Column\n#" + System.nanoTime() );
+
+		final BuildResult firstResult = scope.createGradleRunner( "transformDirIncrementalTool" ).build();
+		assertThat( firstResult.task( ":transformDirIncrementalTool" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+
+		// a changed file in a renamed package directory - named by the tool
+		write( new File( inputDir, "org/example/modified.properties" ), "type=javax.persistence.Table" );
+		write( new File( inputDir, "javax/persistence/added.properties" ), "provider=javax.persistence.spi.PersistenceProvider" );
+
+		final BuildResult secondResult = scope.createGradleRunner( "transformDirIncrementalTool" ).build();
+		assertThat( secondResult.task( ":transformDirIncrementalTool" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		final Map<String, String> incrementalOutput = readDirectory( outputDir );
+
+		scope.createGradleRunner( "transformDirIncrementalTool", "--rerun-tasks" ).build();
+		assertThat( incrementalOutput ).isEqualTo( readDirectory( outputDir ) );
+		assertThat( incrementalOutput.get( "org/example/modified.properties" ) ).isEqualTo( "type=jakarta.persistence.Table" );
+
+		// the tool alone knows the output of the removed file - the whole directory is transformed again
+		Files.delete( new File( inputDir, "org/example/removed.properties" ).toPath() );
+		final BuildResult thirdResult = scope.createGradleRunner( "transformDirIncrementalTool" ).build();
+		assertThat( thirdResult.task( ":transformDirIncrementalTool" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( new File( outputDir, "org/example/removed.properties" ) ).doesNotExist();
+		assertThat( readDirectory( outputDir ) ).containsOnlyKeys( incrementalOutput.keySet().stream()
+				.filter( (path) -> ! path.equals( "org/example/removed.properties" ) )
+				.toArray( String[]::new ) );
+	}
+
+	@Test
+	public void testUntouchedFilesLinked(ProjectScope scope) throws IOException {
+		final File baseDirectory = scope.getProjectBaseDirectory();
+		final File inputDir = new File( baseDirectory, "build/incrementalInput/org/example" );
+		final File outputDir = new File( baseDirectory, "build/libs/dirIncremental/org/example" );
+
+		scope.createGradleRunner( "clean" ).build();
+
+		write( new File( inputDir, "entity.properties" ), "type=javax.persistence.Entity" );
+		// unique content, so the directory is not restored from the local transformation cache
+		write( new File( inputDir, "plain.properties" ), "type=org.example.Plain\n#" + System.nanoTime() );
+
+		final BuildResult buildResult = scope.createGradleRunner( "transformDirIncremental" ).build();
+		assertThat( buildResult.task( ":transformDirIncremental" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+
+		assertThat( read( new File( outputDir, "entity.properties" ) ) ).isEqualTo( "type=jakarta.persistence.Entity" );
+		// nothing to transform - the output is the input, hardlinked
+		assertThat( Files.isSameFile( new File( inputDir, "plain.properties" ).toPath(), new File( outputDir, "plain.properties" ).toPath() ) ).isTrue();
+	}
+
+	@Test
+	public void testUntouchedSourcesCopied(ProjectScope scope) throws IOException {
+		final File baseDirectory = scope.getProjectBaseDirectory();
+		final File inputDir = new File( baseDirectory, "sourcesInput/org/example" );
+		final File outputDir = new File( baseDirectory, "build/libs/dirSources/org/example" );
+
+		scope.createGradleRunner( "clean" ).build();
+
+		// unique content, so the directory is not restored from the local transformation cache
+		final String content = "type=org.example.Plain\n#" + System.nanoTime();
+		write( new File( inputDir, "plain.properties" ), content );
+
+		final BuildResult buildResult = scope.createGradleRunner( "transformDirSources" ).build();
+		assertThat( buildResult.task( ":transformDirSources" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+
+		// not within the build directory, so the source may be rewritten in place - copied rather than hardlinked
+		final File output = new File( outputDir, "plain.properties" );
+		assertThat( read( output ) ).isEqualTo( content );
+		assertThat( Files.isSameFile( new File( inputDir, "plain.properties" ).toPath(), output.toPath() ) ).isFalse();
+	}
+
+	private static void write(File file, String content) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write( file.toPath(), content.getBytes( StandardCharsets.UTF_8 ) );
+	}
+
+	private static Map<String, String> readDirectory(File directory) throws IOException {
+		final Map<String, String> files = new TreeMap<>();
+		try ( Stream<Path> stream = Files.walk( directory.toPath() ) ) {
+			for ( Path file : stream.filter( Files::isRegularFile ).collect( Collectors.toList() ) ) {
+				files.put( directory.toPath().relativize( file ).toString().replace( File.separatorChar, '/' ), read( file.toFile() ) );
+			}
+		}
+		return files;
+	}
+
+	private static String read(File file) throws IOException {
+		return new String( Files.readAllBytes( file.toPath() ), StandardCharsets.UTF_8 );
+	}
+}
@@ -0,0 +1,155 @@
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sebersole.testkit.Project;
+import com.github.sebersole.testkit.ProjectScope;
+import com.github.sebersole.testkit.TestKit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the native engine against the JakartaTransformer tool, byte-for-byte
+ *
+ * @author Steve Ebersole
+ */
+@TestKit
+@Project("engineEquivalence")
+public class EngineEquivalenceTesting {
+
+	@Test
+	public void testJarEquivalence(ProjectScope scope) throws IOException {
+		final BuildResult buildResult = scope.createGradleRunner( "clean", "transformCoreTool", "transformCoreNative", "--info" ).build();
+		assertThat( buildResult.task( ":transformCoreTool" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( buildResult.task( ":transformCoreNative" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( buildResult.getOutput() ).contains( "classes copied unchanged via pre-scan" );
+		assertThat( buildResult.getOutput() ).contains( "archive entries copied raw" );
+		assertThat( buildResult.getOutput() ).contains( "Jakarta transformation rules : 1 rule set(s) compiled" );
+		assertThat( buildResult.getOutput() ).contains( "Jakarta transformation metrics" );
+		assertThat( new File( scope.getProjectBaseDirectory(), "build/reports/jakarta-transformer/metrics.json" ) ).exists();
+
+		final File libsDir = new File( scope.getProjectBaseDirectory(), "build/libs" );
+		final Map<String, byte[]> toolEntries = readJar( new File( libsDir, "coreTool.jar" ) );
+		final Map<String, byte[]> nativeEntries = readJar( new File( libsDir, "coreNative.jar" ) );
+
+		assertEquivalent( toolEntries, nativeEntries );
+	}
+
+	@Test
+	public void testArtifactTransformEquivalence(ProjectScope scope) throws IOException {
+		final BuildResult buildResult = scope.createGradleRunner( "clean", "transformCoreTool", "collectJakartaArtifacts" ).build();
+		assertThat( buildResult.task( ":collectJakartaArtifacts" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+
+		final File buildDir = new File( scope.getProjectBaseDirectory(), "build" );
+		final Map<String, byte[]> toolEntries = readJar( new File( buildDir, "libs/coreTool.jar" ) );
+		final Map<String, byte[]> transformedEntries = readJar( new File( buildDir, "jakartaArtifacts/hibernate-core-5.4.32.Final.jar" ) );
+
+		assertEquivalent( toolEntries, transformedEntries );
+	}
+
+	@Test
+	public void testSharedTransformation(ProjectScope scope) throws IOException {
+		final BuildResult buildResult = scope.createGradleRunner( "clean", "transformCoreTool", "transformCoreToolCopy", "--info" ).build();
+		assertThat( buildResult.task( ":transformCoreTool" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( buildResult.task( ":transformCoreToolCopy" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( buildResult.getOutput() ).contains( "Jakarta dependency transformations : 1 performed for 2 task(s)" );
+
+		final File libsDir = new File( scope.getProjectBaseDirectory(), "build/libs" );
+		assertThat( Files.readAllBytes( new File( libsDir, "coreToolCopy.jar" ).toPath() ) )
+				.isEqualTo( Files.readAllBytes( new File( libsDir, "coreTool.jar" ).toPath() ) );
+	}
+
+	@Test
+	public void testDirectoryEquivalence(ProjectScope scope) throws IOException {
+		scope.createGradleRunner( "clean", "transformDirTool", "transformDirNative" ).build();
+
+		final File libsDir = new File( scope.getProjectBaseDirectory(), "build/libs" );
+		final Map<String, byte[]> toolFiles = readDirectory( new File( libsDir, "dirTool" ).toPath() );
+		final Map<String, byte[]> nativeFiles = readDirectory( new File( libsDir, "dirNative" ).toPath() );
+
+		assertEquivalent( toolFiles, nativeFiles );
+
+		// static imports, constants and nested classes - more than one segment following the package
+		assertThat( new String( nativeFiles.get( "org/example/SampleEntity.java" ), StandardCharsets.UTF_8 ) )
+				.contains( "import static jakarta.persistence.Persistence.createEntityManagerFactory;" )
+				.contains( "jakarta.persistence.GenerationType.IDENTITY" )
+				.contains( "jakarta.persistence.criteria.CriteriaBuilder.In<Integer>" )
+				.doesNotContain( "javax.persistence" );
+		assertThat( new String( nativeFiles.get( "org/example/orm.xml" ), StandardCharsets.UTF_8 ) )
+				.doesNotContain( "javax.persistence" );
+	}
+
+	private static void assertEquivalent(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+		assertThat( actual.keySet() ).containsExactlyElementsOf( expected.keySet() );
+
+		final List<String> mismatches = new ArrayList<>();
+		expected.forEach(
+				(name, bytes) -> {
+					if ( ! Arrays.equals( bytes, actual.get( name ) ) ) {
+						mismatches.add( name );
+					}
+				}
+		);
+		assertThat( mismatches ).as( "entries which differ from the JakartaTransformer output" ).isEmpty();
+	}
+
+	private static Map<String, byte[]> readJar(File jar) throws IOException {
+		assertThat( jar ).exists();
+
+		final Map<String, byte[]> entries = new TreeMap<>();
+		try ( ZipFile zipFile = new ZipFile( jar ) ) {
+			final Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+			while ( zipEntries.hasMoreElements() ) {
+				final ZipEntry entry = zipEntries.nextElement();
+				if ( entry.isDirectory() ) {
+					continue;
+				}
+				try ( InputStream stream = zipFile.getInputStream( entry ) ) {
+					entries.put( entry.getName(), readAll( stream ) );
+				}
+			}
+		}
+		return entries;
+	}
+
+	private static Map<String, byte[]> readDirectory(Path directory) throws IOException {
+		assertThat( directory ).exists();
+
+		final Map<String, byte[]> files = new TreeMap<>();
+		try ( Stream<Path> stream = Files.walk( directory ) ) {
+			for ( Path file : stream.filter( Files::isRegularFile ).collect( Collectors.toList() ) ) {
+				files.put( directory.relativize( file ).toString().replace( File.separatorChar, '/' ), Files.readAllBytes( file ) );
+			}
+		}
+		return files;
+	}
+
+	private static byte[] readAll(InputStream stream) throws IOException {
+		final byte[] buffer = new byte[8192];
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		int read;
+		while ( ( read = stream.read( buffer ) ) != -1 ) {
+			output.write( buffer, 0, read );
+		}
+		return output.toByteArray();
+	}
+}
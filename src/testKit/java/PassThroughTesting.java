@@ -0,0 +1,67 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sebersole.testkit.Project;
+import com.github.sebersole.testkit.ProjectScope;
+import com.github.sebersole.testkit.TestKit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that an archive without anything to transform is passed through as-is
+ *
+ * @author Steve Ebersole
+ */
+@TestKit
+@Project("engineEquivalence")
+public class PassThroughTesting {
+
+	@Test
+	public void testPassThrough(ProjectScope scope) throws IOException {
+		final File baseDirectory = scope.getProjectBaseDirectory();
+		scope.createGradleRunner( "clean" ).build();
+
+		final File input = writeInput( baseDirectory );
+
+		final BuildResult buildResult = scope.createGradleRunner( "transformPlain" ).build();
+		assertThat( buildResult.task( ":transformPlain" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( buildResult.getOutput() ).contains( "Transformations avoided by the pre-flight scan : 1" );
+
+		final File output = new File( baseDirectory, "build/libs/plain.jar" );
+		assertThat( Files.readAllBytes( output.toPath() ) ).isEqualTo( Files.readAllBytes( input.toPath() ) );
+	}
+
+	@Test
+	public void testNoPassThroughForTool(ProjectScope scope) throws IOException {
+		final File baseDirectory = scope.getProjectBaseDirectory();
+		scope.createGradleRunner( "clean" ).build();
+
+		writeInput( baseDirectory );
+
+		// the scan only covers what the native engine rewrites - the tool always runs
+		final BuildResult buildResult = scope.createGradleRunner( "transformPlainTool", "--info" ).build();
+		assertThat( buildResult.task( ":transformPlainTool" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( buildResult.getOutput() ).doesNotContain( "Pre-flight scan : nothing to transform in plain.jar" );
+		assertThat( new File( baseDirectory, "build/libs/plainTool.jar" ) ).exists();
+	}
+
+	private static File writeInput(File baseDirectory) throws IOException {
+		final File input = new File( baseDirectory, "build/plainInput/plain.jar" );
+		input.getParentFile().mkdirs();
+		try ( ZipOutputStream zipOutput = new ZipOutputStream( Files.newOutputStream( input.toPath() ) ) ) {
+			zipOutput.putNextEntry( new ZipEntry( "org/example/plain.properties" ) );
+			zipOutput.write( "type=org.example.Plain".getBytes( StandardCharsets.UTF_8 ) );
+			zipOutput.closeEntry();
+		}
+		return input;
+	}
+}
@@ -0,0 +1,133 @@
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sebersole.testkit.Project;
+import com.github.sebersole.testkit.ProjectScope;
+import com.github.sebersole.testkit.TestKit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that, when reproducible, archives with the same entries transform to the same bytes
+ * regardless of the entries' order and times
+ *
+ * @author Steve Ebersole
+ */
+@TestKit
+@Project("engineEquivalence")
+public class ReproducibleTesting {
+	private static final String ENTITY_ENTRY = "org/example/entity.properties";
+	private static final String PLAIN_ENTRY = "org/example/plain.properties";
+
+	@Test
+	public void testReproducible(ProjectScope scope) throws IOException {
+		final File baseDirectory = scope.getProjectBaseDirectory();
+		scope.createGradleRunner( "clean" ).build();
+
+		final File input = new File( baseDirectory, "build/plainInput/plain.jar" );
+		final File output = new File( baseDirectory, "build/libs/plain.jar" );
+
+		writeInput( input, 1_000_000_000_000L, ENTITY_ENTRY, PLAIN_ENTRY );
+		final BuildResult firstResult = scope.createGradleRunner( "transformPlain", "-Preproducible" ).build();
+		assertThat( firstResult.task( ":transformPlain" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		final byte[] firstOutput = Files.readAllBytes( output.toPath() );
+
+		writeInput( input, 1_500_000_000_000L, PLAIN_ENTRY, ENTITY_ENTRY );
+		final BuildResult secondResult = scope.createGradleRunner( "transformPlain", "-Preproducible" ).build();
+		assertThat( secondResult.task( ":transformPlain" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( Files.readAllBytes( output.toPath() ) ).isEqualTo( firstOutput );
+
+		try ( ZipFile zipFile = new ZipFile( output ) ) {
+			final List<String> names = new ArrayList<>();
+			final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while ( entries.hasMoreElements() ) {
+				names.add( entries.nextElement().getName() );
+			}
+			assertThat( names ).containsExactly( ENTITY_ENTRY, PLAIN_ENTRY );
+
+			assertThat( readEntry( zipFile, ENTITY_ENTRY ) ).isEqualTo( "type=jakarta.persistence.Entity" );
+		}
+	}
+
+	@Test
+	public void testReproducibleTool(ProjectScope scope) throws IOException {
+		final File baseDirectory = scope.getProjectBaseDirectory();
+		scope.createGradleRunner( "clean" ).build();
+
+		final File input = new File( baseDirectory, "build/plainInput/plain.jar" );
+		final File output = new File( baseDirectory, "build/libs/plainTool.jar" );
+
+		writeInput( input, 1_000_000_000_000L, ENTITY_ENTRY, PLAIN_ENTRY );
+		final BuildResult firstResult = scope.createGradleRunner( "transformPlainTool", "-Preproducible" ).build();
+		assertThat( firstResult.task( ":transformPlainTool" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		final byte[] firstOutput = Files.readAllBytes( output.toPath() );
+
+		writeInput( input, 1_500_000_000_000L, PLAIN_ENTRY, ENTITY_ENTRY );
+		final BuildResult secondResult = scope.createGradleRunner( "transformPlainTool", "-Preproducible" ).build();
+		assertThat( secondResult.task( ":transformPlainTool" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( Files.readAllBytes( output.toPath() ) ).isEqualTo( firstOutput );
+
+		try ( ZipFile zipFile = new ZipFile( output ) ) {
+			assertThat( readEntry( zipFile, ENTITY_ENTRY ) ).isEqualTo( "type=jakarta.persistence.Entity" );
+		}
+	}
+
+	@Test
+	public void testDownstreamUpToDate(ProjectScope scope) throws IOException {
+		final File baseDirectory = scope.getProjectBaseDirectory();
+		scope.createGradleRunner( "clean" ).build();
+
+		final File input = new File( baseDirectory, "build/plainInput/plain.jar" );
+
+		writeInput( input, 1_000_000_000_000L, ENTITY_ENTRY, PLAIN_ENTRY );
+		final BuildResult firstResult = scope.createGradleRunner( "checksumPlain", "-Preproducible" ).build();
+		assertThat( firstResult.task( ":transformPlain" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( firstResult.task( ":checksumPlain" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+
+		writeInput( input, 1_500_000_000_000L, PLAIN_ENTRY, ENTITY_ENTRY );
+		final BuildResult secondResult = scope.createGradleRunner( "checksumPlain", "-Preproducible" ).build();
+		assertThat( secondResult.task( ":transformPlain" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( secondResult.task( ":checksumPlain" ).getOutcome() ).isEqualTo( TaskOutcome.UP_TO_DATE );
+	}
+
+	private static void writeInput(File input, long time, String... entryNames) throws IOException {
+		input.getParentFile().mkdirs();
+		try ( ZipOutputStream zipOutput = new ZipOutputStream( Files.newOutputStream( input.toPath() ) ) ) {
+			for ( String entryName : entryNames ) {
+				final ZipEntry entry = new ZipEntry( entryName );
+				entry.setTime( time );
+				zipOutput.putNextEntry( entry );
+				final String content = entryName.equals( ENTITY_ENTRY ) ? "type=javax.persistence.Entity" : "type=org.example.Plain";
+				zipOutput.write( content.getBytes( StandardCharsets.UTF_8 ) );
+				zipOutput.closeEntry();
+			}
+		}
+	}
+
+	private static String readEntry(ZipFile zipFile, String name) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try ( InputStream input = zipFile.getInputStream( zipFile.getEntry( name ) ) ) {
+			final byte[] buffer = new byte[1024];
+			int read;
+			while ( ( read = input.read( buffer ) ) != -1 ) {
+				output.write( buffer, 0, read );
+			}
+		}
+		return new String( output.toByteArray(), StandardCharsets.UTF_8 );
+	}
+}
@@ -0,0 +1,197 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+
+/**
+ * Generates the projects of the `shadowScale` fixture into its (copied) base directory:
+ *
+ * * `scale-testing` - shared test support, like `hibernate-testing`
+ * * `module-NNN` - source projects with JPA entities, each depending on an earlier module and using
+ * `scale-testing` in its tests
+ * * `module-NNN-jakarta` and `scale-testing-jakarta` - the matching shadow projects
+ *
+ * @author Steve Ebersole
+ */
+public class ScaleProjectGenerator {
+	public static final int ENTITIES_PER_MODULE = 15;
+
+	private final File baseDirectory;
+
+	public ScaleProjectGenerator(File baseDirectory) {
+		this.baseDirectory = baseDirectory;
+	}
+
+	public void generate(int moduleCount) throws IOException {
+		generateTestingProject();
+		generateShadowProject( "scale-testing", false );
+
+		for ( int i = 0; i < moduleCount; i++ ) {
+			generateModule( i );
+			generateShadowProject( moduleName( i ), true );
+		}
+	}
+
+	private static String moduleName(int index) {
+		return String.format( Locale.ROOT, "module-%03d", index );
+	}
+
+	private static String packageName(int index) {
+		return String.format( Locale.ROOT, "org.example.module%03d", index );
+	}
+
+	private void generateTestingProject() throws IOException {
+		write(
+				"scale-testing/build.gradle",
+				"apply plugin: 'java-library'\n"
+						+ "apply plugin: 'maven-publish'\n"
+						+ "\n"
+						+ "apply from: rootProject.file( 'gradle/libraries.gradle' )\n"
+						+ "\n"
+						+ "dependencies {\n"
+						+ "    api libraries.jpa\n"
+						+ "    api libraries.junit5_api\n"
+						+ "}\n"
+						+ "\n"
+						+ "publishing {\n"
+						+ "    publications {\n"
+						+ "        mavenArtifacts(MavenPublication) {\n"
+						+ "            from components.java\n"
+						+ "        }\n"
+						+ "    }\n"
+						+ "}\n"
+		);
+
+		write(
+				"scale-testing/src/main/java/org/example/testing/EntityAssertions.java",
+				"package org.example.testing;\n"
+						+ "\n"
+						+ "import javax.persistence.Entity;\n"
+						+ "\n"
+						+ "import static org.junit.jupiter.api.Assertions.assertNotNull;\n"
+						+ "\n"
+						+ "public class EntityAssertions {\n"
+						+ "\tpublic static void assertEntity(Class<?> type) {\n"
+						+ "\t\tassertNotNull( type.getAnnotation( Entity.class ), type.getName() );\n"
+						+ "\t}\n"
+						+ "}\n"
+		);
+	}
+
+	private void generateModule(int index) throws IOException {
+		final String name = moduleName( index );
+		final String packageName = packageName( index );
+		final String packagePath = packageName.replace( '.', '/' );
+
+		final StringBuilder buildScript = new StringBuilder( "apply from: rootProject.file( 'gradle/scale-source.gradle' )\n" );
+		if ( index > 0 ) {
+			// a shallow tree of cross-project dependencies
+			buildScript.append( "\ndependencies {\n" )
+					.append( "    api project( ':" ).append( moduleName( ( index - 1 ) / 2 ) ).append( "' )\n" )
+					.append( "}\n" );
+		}
+		write( name + "/build.gradle", buildScript.toString() );
+
+		final StringBuilder testBody = new StringBuilder();
+		for ( int i = 0; i < ENTITIES_PER_MODULE; i++ ) {
+			write( name + "/src/main/java/" + packagePath + "/Entity" + i + ".java", entity( packageName, i ) );
+			testBody.append( "\t\tEntityAssertions.assertEntity( Entity" ).append( i ).append( ".class );\n" );
+		}
+
+		write(
+				name + "/src/main/java/" + packagePath + "/Repository.java",
+				"package " + packageName + ";\n"
+						+ "\n"
+						+ "import javax.persistence.EntityManager;\n"
+						+ "import javax.persistence.criteria.CriteriaBuilder;\n"
+						+ "\n"
+						+ "public class Repository {\n"
+						+ "\tprivate final EntityManager entityManager;\n"
+						+ "\n"
+						+ "\tpublic Repository(EntityManager entityManager) {\n"
+						+ "\t\tthis.entityManager = entityManager;\n"
+						+ "\t}\n"
+						+ "\n"
+						+ "\tpublic Entity0 find(Long id) {\n"
+						+ "\t\treturn entityManager.find( Entity0.class, id );\n"
+						+ "\t}\n"
+						+ "\n"
+						+ "\tpublic CriteriaBuilder criteria() {\n"
+						+ "\t\treturn entityManager.getCriteriaBuilder();\n"
+						+ "\t}\n"
+						+ "}\n"
+		);
+
+		write(
+				name + "/src/main/resources/META-INF/orm.xml",
+				"<entity-mappings xmlns=\"http://xmlns.jcp.org/xml/ns/persistence/orm\" version=\"2.2\">\n"
+						+ "    <package>" + packageName + "</package>\n"
+						+ "</entity-mappings>\n"
+		);
+
+		write(
+				name + "/src/test/java/" + packagePath + "/EntityTests.java",
+				"package " + packageName + ";\n"
+						+ "\n"
+						+ "import org.example.testing.EntityAssertions;\n"
+						+ "import org.junit.jupiter.api.Test;\n"
+						+ "\n"
+						+ "public class EntityTests {\n"
+						+ "\t@Test\n"
+						+ "\tpublic void testEntities() {\n"
+						+ testBody
+						+ "\t}\n"
+						+ "}\n"
+		);
+	}
+
+	private static String entity(String packageName, int index) {
+		return "package " + packageName + ";\n"
+				+ "\n"
+				+ "import javax.persistence.Column;\n"
+				+ "import javax.persistence.Entity;\n"
+				+ "import javax.persistence.Id;\n"
+				+ "import javax.persistence.Table;\n"
+				+ "\n"
+				+ "@Entity\n"
+				+ "@Table( name = \"entity_" + index + "\" )\n"
+				+ "public class Entity" + index + " {\n"
+				+ "\t@Id\n"
+				+ "\tprivate Long id;\n"
+				+ "\n"
+				+ "\t@Column( name = \"name\" )\n"
+				+ "\tprivate String name;\n"
+				+ "\n"
+				+ "\tpublic Long getId() {\n"
+				+ "\t\treturn id;\n"
+				+ "\t}\n"
+				+ "\n"
+				+ "\tpublic String getName() {\n"
+				+ "\t\treturn name;\n"
+				+ "\t}\n"
+				+ "}\n";
+	}
+
+	private void generateShadowProject(String sourceName, boolean runTests) throws IOException {
+		write(
+				sourceName + "-jakarta/build.gradle",
+				"plugins {\n"
+						+ "    id 'java-library'\n"
+						+ "    id 'org.hibernate.jakarta-transformer'\n"
+						+ "}\n"
+						+ "\n"
+						+ "apply from: rootProject.file( 'gradle/jakarta-shadow.gradle' )\n"
+						+ "\n"
+						+ "jakartaTransformation {\n"
+						+ "    shadow( project( ':" + sourceName + "' ) )" + ( runTests ? " {\n        runTests()\n    }\n" : "\n" )
+						+ "}\n"
+		);
+	}
+
+	private void write(String path, String content) throws IOException {
+		final File file = new File( baseDirectory, path );
+		file.getParentFile().mkdirs();
+		Files.write( file.toPath(), content.getBytes( StandardCharsets.UTF_8 ) );
+	}
+}
@@ -0,0 +1,180 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.github.sebersole.testkit.Project;
+import com.github.sebersole.testkit.ProjectScope;
+import com.github.sebersole.testkit.TestKit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Shadows a large generated build (see {@link ScaleProjectGenerator}) and checks configuration time,
+ * task graph size and execution / transformation time against the budgets recorded in the fixture's
+ * `budgets.properties`.
+ *
+ * The number of generated modules is `jakarta.scale.modules` (200 by default); budgets are per module and
+ * only checked when set.  The measured values are written to the file named by `jakarta.scale.report`.
+ * The budget test only runs when `jakarta.scale` is `true`.
+ *
+ * Also checks, with 100 modules, that a build which does not involve the shadow projects (`compileJava`
+ * of a source project) does not realize any of the plugin's tasks and is configured faster than when
+ * every task of the shadow projects is realized.
+ *
+ * @author Steve Ebersole
+ */
+@TestKit
+@Project("shadowScale")
+public class ShadowScaleTesting {
+	private static final int MODULE_COUNT = Integer.getInteger( "jakarta.scale.modules", 200 );
+	private static final int LAZY_REALIZATION_MODULE_COUNT = 100;
+
+	private static final Pattern WALL_MILLIS = Pattern.compile( "\"wallMillis\": (\\d+)" );
+
+	@Test
+	@EnabledIfSystemProperty( named = "jakarta.scale", matches = "true" )
+	public void testBudgets(ProjectScope scope) throws IOException {
+		final File baseDirectory = scope.getProjectBaseDirectory();
+		new ScaleProjectGenerator( baseDirectory ).generate( MODULE_COUNT );
+
+		final BuildResult buildResult = scope.createGradleRunner( "clean", "assemble" ).build();
+		final String lastModule = String.format( Locale.ROOT, ":module-%03d-jakarta:assemble", MODULE_COUNT - 1 );
+		assertThat( buildResult.task( lastModule ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+
+		final Properties report = load( new File( baseDirectory, "build/scale-report.properties" ) );
+		final Properties budgets = load( new File( baseDirectory, "budgets.properties" ) );
+
+		// (modules + shadows) + (scale-testing + its shadow)
+		assertThat( Integer.parseInt( report.getProperty( "projectCount" ) ) ).isEqualTo( MODULE_COUNT * 2 + 2 );
+
+		final long transformationMillis = transformationMillis(
+				new File( baseDirectory, "build/reports/jakarta-transformer/metrics.json" )
+		);
+
+		final Properties measurements = new Properties();
+		measure( "configurationMillis", Long.parseLong( report.getProperty( "configurationMillis" ) ), measurements );
+		measure( "taskCount", Long.parseLong( report.getProperty( "taskCount" ) ), measurements );
+		measure( "executionMillis", Long.parseLong( report.getProperty( "executionMillis" ) ), measurements );
+		measure( "transformationMillis", transformationMillis, measurements );
+		record( measurements );
+
+		checkBudget( "configurationMillis", Long.parseLong( report.getProperty( "configurationMillis" ) ), budgets );
+		checkBudget( "taskCount", Long.parseLong( report.getProperty( "taskCount" ) ), budgets );
+		checkBudget( "executionMillis", Long.parseLong( report.getProperty( "executionMillis" ) ), budgets );
+		checkBudget( "transformationMillis", transformationMillis, budgets );
+	}
+
+	@Test
+	public void testLazyRealization(ProjectScope scope) throws IOException {
+		final File baseDirectory = scope.getProjectBaseDirectory();
+		new ScaleProjectGenerator( baseDirectory ).generate( LAZY_REALIZATION_MODULE_COUNT );
+
+		// warms the daemon up, so that the measured builds compare configuration rather than startup
+		scope.createGradleRunner( ":module-000:compileJava" ).build();
+
+		final Properties eager = compileFirstModule( scope, baseDirectory, "-PeagerTasks" );
+		final Properties lazy = compileFirstModule( scope, baseDirectory );
+
+		// none of the transformation tasks are in the graph, so none should have been created
+		assertThat( Integer.parseInt( lazy.getProperty( "realizedTransformationTasks" ) ) ).isEqualTo( 0 );
+		assertThat( Integer.parseInt( eager.getProperty( "realizedTransformationTasks" ) ) ).isGreaterThanOrEqualTo( LAZY_REALIZATION_MODULE_COUNT );
+
+		final long lazyMillis = Long.parseLong( lazy.getProperty( "configurationMillis" ) );
+		final long eagerMillis = Long.parseLong( eager.getProperty( "configurationMillis" ) );
+
+		final Properties measurements = new Properties();
+		measurements.setProperty( "lazyRealization.modules", Integer.toString( LAZY_REALIZATION_MODULE_COUNT ) );
+		measurements.setProperty( "lazyRealization.configurationMillis", Long.toString( lazyMillis ) );
+		measurements.setProperty( "eagerRealization.configurationMillis", Long.toString( eagerMillis ) );
+		record( measurements );
+
+		assertThat( lazyMillis )
+				.as( "configuration of `compileJava` with %s modules, lazy (%s ms) vs eager (%s ms)", LAZY_REALIZATION_MODULE_COUNT, lazyMillis, eagerMillis )
+				.isLessThan( eagerMillis );
+	}
+
+	/**
+	 * Runs `compileJava` of the first generated module and returns the build's scale report
+	 */
+	private static Properties compileFirstModule(ProjectScope scope, File baseDirectory, String... arguments) throws IOException {
+		final String[] allArguments = new String[ arguments.length + 1 ];
+		allArguments[0] = ":module-000:compileJava";
+		System.arraycopy( arguments, 0, allArguments, 1, arguments.length );
+
+		final BuildResult buildResult = scope.createGradleRunner( allArguments ).build();
+		assertThat( buildResult.task( ":module-000:compileJava" ).getOutcome() ).isIn( TaskOutcome.SUCCESS, TaskOutcome.UP_TO_DATE );
+
+		return load( new File( baseDirectory, "build/scale-report.properties" ) );
+	}
+
+	private static void checkBudget(String name, long actual, Properties budgets) {
+		final String perModule = budgets.getProperty( name );
+		if ( perModule == null || perModule.isEmpty() ) {
+			return;
+		}
+
+		final long budget = Long.parseLong( perModule ) * MODULE_COUNT;
+		assertThat( actual ).as( "%s (budget %s for %s modules)", name, budget, MODULE_COUNT ).isLessThanOrEqualTo( budget );
+	}
+
+	private static void measure(String name, long actual, Properties measurements) {
+		measurements.setProperty( name, Long.toString( actual ) );
+		// rounded up, as budgets are
+		measurements.setProperty( name + ".perModule", Long.toString( ( actual + MODULE_COUNT - 1 ) / MODULE_COUNT ) );
+	}
+
+	/**
+	 * Adds the measured values to the file named by `jakarta.scale.report`, if any
+	 */
+	private static void record(Properties measurements) throws IOException {
+		final String reportPath = System.getProperty( "jakarta.scale.report" );
+		if ( reportPath == null ) {
+			return;
+		}
+
+		final File reportFile = new File( reportPath );
+		final Properties recorded = reportFile.exists() ? load( reportFile ) : new Properties();
+		recorded.putAll( measurements );
+
+		reportFile.getParentFile().mkdirs();
+		try ( OutputStream stream = Files.newOutputStream( reportFile.toPath() ) ) {
+			recorded.store( stream, "ShadowScaleTesting" );
+		}
+	}
+
+	/**
+	 * The summed wall time of all transformations, from the metrics report
+	 */
+	private static long transformationMillis(File metricsReport) throws IOException {
+		assertThat( metricsReport ).exists();
+
+		final String json = new String( Files.readAllBytes( metricsReport.toPath() ), StandardCharsets.UTF_8 );
+		final Matcher matcher = WALL_MILLIS.matcher( json );
+		long total = 0;
+		while ( matcher.find() ) {
+			total += Long.parseLong( matcher.group( 1 ) );
+		}
+		return total;
+	}
+
+	private static Properties load(File file) throws IOException {
+		final Properties properties = new Properties();
+		try ( InputStream stream = Files.newInputStream( file.toPath() ) ) {
+			properties.load( stream );
+		}
+		return properties;
+	}
+}
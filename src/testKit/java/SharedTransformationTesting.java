@@ -0,0 +1,35 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sebersole.testkit.Project;
+import com.github.sebersole.testkit.ProjectScope;
+import com.github.sebersole.testkit.TestKit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a dependency transformation declared by several projects is performed once
+ *
+ * @author Steve Ebersole
+ */
+@TestKit
+@Project("sharedTransformation")
+public class SharedTransformationTesting {
+	@Test
+	public void testSharedAcrossProjects(ProjectScope scope) throws IOException {
+		final BuildResult buildResult = scope.createGradleRunner( "clean", "transformCore", "--parallel", "--info" ).build();
+		assertThat( buildResult.task( ":first:transformCore" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( buildResult.task( ":second:transformCore" ).getOutcome() ).isEqualTo( TaskOutcome.SUCCESS );
+		assertThat( buildResult.getOutput() ).contains( "Jakarta dependency transformations : 1 performed for 2 task(s)" );
+
+		final File baseDirectory = scope.getProjectBaseDirectory();
+		assertThat( Files.readAllBytes( new File( baseDirectory, "second/build/libs/core.jar" ).toPath() ) )
+				.isEqualTo( Files.readAllBytes( new File( baseDirectory, "first/build/libs/core.jar" ).toPath() ) );
+	}
+}
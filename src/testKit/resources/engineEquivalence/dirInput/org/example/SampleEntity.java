@@ -0,0 +1,22 @@
+package org.example;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.criteria.CriteriaBuilder;
+
+import static javax.persistence.Persistence.createEntityManagerFactory;
+
+// dotted references followed by class, nested class and constant segments - see EngineEquivalenceTesting
+@Entity
+public class SampleEntity {
+	@Id
+	@GeneratedValue( strategy = javax.persistence.GenerationType.IDENTITY )
+	private Integer id;
+
+	public static CriteriaBuilder.In<Integer> in(CriteriaBuilder builder, javax.persistence.criteria.CriteriaBuilder.In<Integer> in) {
+		createEntityManagerFactory( "equivalence" );
+		return in;
+	}
+}